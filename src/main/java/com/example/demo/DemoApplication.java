@@ -1,22 +1,121 @@
 package com.example.demo;
 
+import com.example.demo.config.AppConfig;
+import com.example.demo.config.AppContext;
 import com.example.demo.exception.ApiException;
 import com.example.demo.model.SportType;
 import com.example.demo.model.report.ReportResult;
+import com.example.demo.model.report.compact.CompactReport;
+import com.example.demo.model.report.feed.FeedReport;
+import com.example.demo.service.AsyncApiService;
+import com.example.demo.service.SportService;
+import com.example.demo.service.bus.OverflowPolicy;
+import com.example.demo.service.bus.PriceEventBus;
+import com.example.demo.service.bus.PriceEventFilters;
+import com.example.demo.service.bus.PriceEventLogger;
+import com.example.demo.service.bus.PriceEventType;
+import com.example.demo.service.feed.FeedAggregator;
+import com.example.demo.service.feed.FeedProviders;
+import com.example.demo.service.history.OddsHistoryLog;
+import com.example.demo.service.poll.PollingPolicy;
+import com.example.demo.service.poll.PollingService;
+import com.example.demo.service.snapshot.SnapshotStore;
+import com.example.demo.service.report.CompactReportPrintService;
+import com.example.demo.service.report.FeedReportPrintService;
 import com.example.demo.service.report.ReportPrintService;
 import com.example.demo.service.report.ReportService;
+import com.example.demo.service.server.ReportHttpServer;
+import com.example.demo.service.shard.ShardCoordinator;
+import com.example.demo.service.shard.ShardWorker;
+import com.example.demo.service.warmup.WarmUp;
 import com.example.demo.utils.PerformanceUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
 import java.util.Arrays;
 import java.util.List;
 import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
 
 public class DemoApplication {
     private static final Logger logger = LoggerFactory.getLogger(DemoApplication.class);
+    private static final String POLL_ARG = "--poll";
+    private static final String BUDGET_ARG_PREFIX = "--budget-ms=";
+    private static final String COMPACT_ARG = "--compact";
+    private static final String PRIORITIZED_ARG = "--prioritized";
+    private static final String SERVE_ARG = "--serve";
+    private static final String WARM_UP_ARG = "--warm-up";
+    private static final String FEEDS_ARG = "--feeds";
+    private static final String SHARD_COORDINATOR_ARG = "--shard-coordinator";
+    private static final String SHARD_WORKER_ARG = "--shard-worker";
+    private static final Duration REPORT_PRINT_INTERVAL = Duration.ofSeconds(30);
+    private static final Duration REPORT_PUBLISH_INTERVAL = Duration.ofSeconds(5);
+    private static final Duration SHARD_REFRESH_INTERVAL = Duration.ofSeconds(30);
+    private static final Duration SHARD_LEAGUES_INTERVAL = Duration.ofMinutes(5);
+    private static final int PRICE_EVENT_BUFFER = 4096;
+    private static final String HTTP_SERVER_NODELAY = "sun.net.httpserver.nodelay";
 
     public static void main(String[] args) {
+        // Without TCP_NODELAY every small response of the embedded HTTP server waits for the client's delayed ACK,
+        // about 40 ms. Read once, when the first server is created; tests set it through surefire.
+        if (System.getProperty(HTTP_SERVER_NODELAY) == null) {
+            System.setProperty(HTTP_SERVER_NODELAY, "true");
+        }
+        if (Arrays.asList(args).contains(WARM_UP_ARG)) {
+            // Training run of the class data sharing archive built by the fast-start profile
+            try (AppContext appContext = AppContext.start(new AppConfig())) {
+                WarmUp.primeDeserializers(appContext);
+            }
+            return;
+        }
+        if (Arrays.asList(args).contains(POLL_ARG)) {
+            runTopLeaguesMarketReportPolling();
+            return;
+        }
+        if (Arrays.asList(args).contains(SERVE_ARG)) {
+            serveTopLeaguesMarketReport();
+            return;
+        }
+        if (Arrays.asList(args).contains(FEEDS_ARG)) {
+            PerformanceUtils.measureRuntime(
+                    DemoApplication::printTopLeaguesFeedComparison,
+                    "DemoApplication::printTopLeaguesFeedComparison");
+            return;
+        }
+        if (Arrays.asList(args).contains(SHARD_COORDINATOR_ARG)) {
+            runShardCoordinator();
+            return;
+        }
+        if (Arrays.asList(args).contains(SHARD_WORKER_ARG)) {
+            runShardWorker();
+            return;
+        }
+        if (Arrays.asList(args).contains(COMPACT_ARG)) {
+            PerformanceUtils.measureRuntime(
+                    DemoApplication::printTopLeaguesMarketReportCompact,
+                    "DemoApplication::printTopLeaguesMarketReportCompact");
+            return;
+        }
+        if (Arrays.asList(args).contains(PRIORITIZED_ARG)) {
+            PerformanceUtils.measureRuntime(
+                    DemoApplication::printTopLeaguesMarketReportPrioritized,
+                    "DemoApplication::printTopLeaguesMarketReportPrioritized");
+            return;
+        }
+        for (String arg : args) {
+            if (arg.startsWith(BUDGET_ARG_PREFIX)) {
+                Duration budget = Duration.ofMillis(Long.parseLong(arg.substring(BUDGET_ARG_PREFIX.length())));
+                PerformanceUtils.measureRuntime(() -> printTopLeaguesMarketReportWithDeadline(budget),
+                        "DemoApplication::printTopLeaguesMarketReportWithDeadline");
+                return;
+            }
+        }
         PerformanceUtils.measureRuntime(
                 DemoApplication::printTopLeaguesMarketReportAsync,
                 "DemoApplication::printTopLeaguesMarketReportAsync");
@@ -27,43 +126,114 @@ public class DemoApplication {
      *
      * <p>This method performs the following steps:</p>
      * <ol>
-     *     <li>Initializes an {@link ReportService}.</li>
+     *     <li>Initializes an {@link ReportService}, backed by the {@link SnapshotStore} when one is configured.</li>
+     *     <li>Starts the {@link WarmUp} of deserializers and connections alongside the sports fetch.</li>
      *     <li>Retrieves all sport names from the {@link SportType} enum.</li>
      *     <li>Asynchronously generates a report for all sports.</li>
      *     <li>Prints the generated report using {@link ReportPrintService}.</li>
-     *     <li>Shuts down the {@link ReportService} after completion.</li>
+     *     <li>Shuts down the {@link ReportService} and closes the {@link SnapshotStore} and
+     *     {@link OddsHistoryLog} after completion.</li>
      * </ol>
      *
      * <p>The method uses {@link CompletableFuture} for asynchronous processing and handles
      * both {@link ApiException} and unexpected exceptions.</p>
      */
     public static void printTopLeaguesMarketReportAsync() {
-        ReportService service = new ReportService();
-        try {
+        withReportService(resources -> {
             logger.info("Starting asynchronous report generation...");
+            WarmUp.start(resources.appContext);
             List<String> selectedSportNames = Arrays.stream(SportType.values())
                     .map(SportType::getDisplayName)
                     .toList();
 
-            ReportResult reportFuture = service.generateReportAsync(selectedSportNames);
+            ReportResult reportFuture = resources.reportService.generateReportAsync(selectedSportNames);
 
             logger.info("Report generation completed. Starting report printing...");
             ReportPrintService printService = new ReportPrintService(reportFuture);
             printService.printReport();
 
-            logger.info("Report generation finished.");
+            logger.info("Report generation finished. Time to first report: {} ms", timeSinceJvmStart().toMillis());
+            resources.reportService.getStageStats()
+                    .forEach(stageStats -> logger.info("Stage statistics: {}", stageStats));
+        });
+    }
+
+    /**
+     * Generates and prints a report for top leagues within a time budget.
+     * Leagues and events not fetched within the budget are printed as stale or missing instead of failing the report.
+     *
+     * @param budget The overall time budget for report generation
+     */
+    public static void printTopLeaguesMarketReportWithDeadline(Duration budget) {
+        withReportService(resources -> {
+            logger.info("Starting report generation with a budget of {} ms...", budget.toMillis());
+            List<String> selectedSportNames = Arrays.stream(SportType.values())
+                    .map(SportType::getDisplayName)
+                    .toList();
+
+            ReportResult reportResult = resources.reportService.generateReportWithDeadline(selectedSportNames, budget);
+
+            logger.info("Report generation completed (complete: {}). Starting report printing...",
+                    reportResult.isComplete());
+            new ReportPrintService(reportResult).printReport();
+        });
+    }
+
+    /**
+     * Generates and prints the top leagues report using the immutable {@link CompactReport} model.
+     */
+    public static void printTopLeaguesMarketReportCompact() {
+        withReportService(resources -> {
+            logger.info("Starting compact report generation...");
+            List<String> selectedSportNames = Arrays.stream(SportType.values())
+                    .map(SportType::getDisplayName)
+                    .toList();
+
+            CompactReport report = resources.reportService.generateCompactReportAsync(selectedSportNames);
+
+            logger.info("Report generation completed. Starting report printing...");
+            new CompactReportPrintService(report).printReport();
+        });
+    }
+
+    /**
+     * Generates and prints the top leagues report with league and event fetches started in order of commercial
+     * priority: soonest kickoff first, then heaviest league and sport.
+     */
+    public static void printTopLeaguesMarketReportPrioritized() {
+        withReportService(resources -> {
+            logger.info("Starting prioritized report generation...");
+            List<String> selectedSportNames = Arrays.stream(SportType.values())
+                    .map(SportType::getDisplayName)
+                    .toList();
+
+            ReportResult reportResult = resources.reportService.generateReportPrioritized(selectedSportNames);
+
+            logger.info("Report generation completed. Starting report printing...");
+            new ReportPrintService(reportResult).printReport();
+        });
+    }
+
+    /**
+     * Generates and prints the top leagues report merged from the feed providers configured in
+     * {@code feed.providers}, with the price of every provider on each runner.
+     */
+    public static void printTopLeaguesFeedComparison() {
+        AppContext appContext = AppContext.start(new AppConfig());
+        try {
+            logger.info("Starting feed comparison across {}...", appContext.getAppConfig().getFeedProviders());
+            List<String> selectedSportNames = Arrays.stream(SportType.values())
+                    .map(SportType::getDisplayName)
+                    .toList();
+
+            FeedReport report = new FeedAggregator(FeedProviders.load(appContext)).aggregate(selectedSportNames);
 
+            logger.info("Feed comparison completed. Starting report printing...");
+            new FeedReportPrintService(report).printReport();
         } catch (ApiException e) {
-            logger.error("Application error: " + e.getMessage());
-        } catch (Exception e) {
-            if (e.getCause() instanceof ApiException) {
-                logger.error("Application error: " + e.getMessage());
-            } else {
-                logger.error("Unexpected error: " + e.getMessage());
-                e.printStackTrace();
-            }
+            logger.error("Application error: {}", e.getMessage());
         } finally {
-            service.shutdown();
+            close(appContext);
         }
     }
 
@@ -97,11 +267,264 @@ public class DemoApplication {
             logger.info("Report generation finished.");
 
         } catch (ApiException e) {
-            logger.error("Application error: " + e.getMessage());
-            e.printStackTrace();
+            logger.error("Application error: {}", e.getMessage(), e);
         } catch (Exception e) {
-            logger.error("Unexpected error: " + e.getMessage());
-            e.printStackTrace();
+            logger.error("Unexpected error: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Runs the long-running polling mode started with {@code --poll}.
+     *
+     * <p>A {@link PollingService} keeps refreshing top leagues and their events, scheduled by time to kickoff,
+     * and the latest report is printed every {@link #REPORT_PRINT_INTERVAL}. The HTTP client stays warm between
+     * refreshes. Polling stops and resources are released when the JVM shuts down.</p>
+     *
+     * <p>Every refresh publishes its changes to a {@link PriceEventBus}. A {@link PriceEventLogger} subscribes with
+     * per-runner conflation, logging each change at DEBUG, and the change counts are logged with every report.</p>
+     */
+    public static void runTopLeaguesMarketReportPolling() {
+        ReportResources resources = new ReportResources();
+        List<String> selectedSportNames = Arrays.stream(SportType.values())
+                .map(SportType::getDisplayName)
+                .toList();
+        PriceEventBus priceEventBus = new PriceEventBus();
+        PriceEventLogger priceEventLogger = new PriceEventLogger();
+        priceEventBus.subscribe(priceEventLogger, PriceEventFilters.all(), PRICE_EVENT_BUFFER,
+                OverflowPolicy.CONFLATE_PER_RUNNER);
+        PollingService pollingService = new PollingService(resources.sportService, resources.reportService,
+                new PollingPolicy(), selectedSportNames, priceEventBus);
+
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            pollingService.stop();
+            priceEventBus.close();
+            resources.close();
+        }));
+
+        logger.info("Starting polling mode...");
+        pollingService.start();
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                Thread.sleep(REPORT_PRINT_INTERVAL.toMillis());
+                new ReportPrintService(pollingService.getReport()).printReport();
+                logger.info("Price events: {} events added, {} markets updated, {} prices changed, {} dropped",
+                        priceEventLogger.getReceived(PriceEventType.EVENT_ADDED),
+                        priceEventLogger.getReceived(PriceEventType.MARKET_UPDATED),
+                        priceEventLogger.getReceived(PriceEventType.RUNNER_PRICE_CHANGED),
+                        priceEventBus.getDroppedEvents());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Runs the HTTP server mode started with {@code --serve}.
+     *
+     * <p>Like the polling mode, a {@link PollingService} keeps the report fresh. Instead of being printed, the latest
+     * report is published to a {@link ReportHttpServer} every {@link #REPORT_PUBLISH_INTERVAL}, which serves it as
+     * JSON on the port configured in {@code server.port}.</p>
+     */
+    public static void serveTopLeaguesMarketReport() {
+        ReportResources resources = new ReportResources();
+        List<String> selectedSportNames = Arrays.stream(SportType.values())
+                .map(SportType::getDisplayName)
+                .toList();
+        PollingService pollingService =
+                new PollingService(resources.sportService, resources.reportService, selectedSportNames);
+        ReportHttpServer server;
+        try {
+            server = ReportHttpServer.start(resources.appContext.getAppConfig().getServerPort(),
+                    resources.appContext.getObjectMapper());
+        } catch (IOException e) {
+            logger.error("Failed to start report server: {}", e.getMessage());
+            resources.close();
+            return;
+        }
+
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            server.close();
+            pollingService.stop();
+            resources.close();
+        }));
+
+        pollingService.start();
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                Thread.sleep(REPORT_PUBLISH_INTERVAL.toMillis());
+                server.publish(pollingService.getReport());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Runs the coordinator of the sharded mode started with {@code --shard-coordinator}.
+     *
+     * <p>The {@link ShardCoordinator} assigns the top leagues to the workers connecting on {@code shard.bind.host}
+     * and {@code shard.port} and the report merged from their league reports is printed every
+     * {@link #REPORT_PRINT_INTERVAL}. The top leagues are re-fetched every {@link #SHARD_LEAGUES_INTERVAL}.
+     * Workers are not authenticated, so the bind host defaults to loopback.</p>
+     */
+    public static void runShardCoordinator() {
+        AppContext appContext = AppContext.start(new AppConfig());
+        AppConfig appConfig = appContext.getAppConfig();
+        SportService sportService = new SportService(new AsyncApiService(appContext, null), appConfig);
+        List<String> selectedSportNames = Arrays.stream(SportType.values())
+                .map(SportType::getDisplayName)
+                .toList();
+        ShardCoordinator coordinator;
+        try {
+            coordinator = ShardCoordinator.start(sportService, selectedSportNames,
+                    InetAddress.getByName(appConfig.getShardBindHost()), appConfig.getShardPort(),
+                    appContext.getObjectMapper());
+        } catch (IOException | ApiException e) {
+            logger.error("Failed to start shard coordinator: {}", e.getMessage());
+            sportService.shutdown();
+            close(appContext);
+            return;
+        }
+
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            coordinator.close();
+            sportService.shutdown();
+            close(appContext);
+        }));
+
+        long lastLeaguesRefresh = System.nanoTime();
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                Thread.sleep(REPORT_PRINT_INTERVAL.toMillis());
+                if (System.nanoTime() - lastLeaguesRefresh >= SHARD_LEAGUES_INTERVAL.toNanos()) {
+                    try {
+                        coordinator.refreshLeagues();
+                    } catch (ApiException e) {
+                        logger.warn("Keeping the previous top leagues: {}", e.getMessage());
+                    }
+                    lastLeaguesRefresh = System.nanoTime();
+                }
+                logger.info("League assignments: {}", coordinator.getAssignmentSizes());
+                new ReportPrintService(coordinator.getReport()).printReport();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Runs a worker of the sharded mode started with {@code --shard-worker}.
+     *
+     * <p>The {@link ShardWorker} connects to the coordinator at {@code shard.coordinator.host} and
+     * {@code shard.port} and rebuilds its leagues every {@link #SHARD_REFRESH_INTERVAL} until the coordinator
+     * goes away.</p>
+     */
+    public static void runShardWorker() {
+        withReportService(resources -> {
+            AppConfig appConfig = resources.appContext.getAppConfig();
+            String workerId = appConfig.getApplicationName() + "-" + ProcessHandle.current().pid();
+            try (ShardWorker worker = ShardWorker.start(resources.reportService, workerId,
+                    appConfig.getShardCoordinatorHost(), appConfig.getShardPort(),
+                    resources.appContext.getObjectMapper(), SHARD_REFRESH_INTERVAL)) {
+                Runtime.getRuntime().addShutdownHook(new Thread(worker::close));
+                worker.awaitDisconnect();
+            } catch (IOException e) {
+                logger.error("Failed to connect to shard coordinator: {}", e.getMessage());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+    }
+
+    /**
+     * Runs a mode that ends by itself on the {@link ReportResources}, logging upstream failures instead of letting
+     * them escape {@code main}, and releases the resources afterwards.
+     */
+    private static void withReportService(Consumer<ReportResources> mode) {
+        ReportResources resources = new ReportResources();
+        try {
+            mode.accept(resources);
+        } catch (ApiException e) {
+            logger.error("Application error: {}", e.getMessage());
+        } catch (Exception e) {
+            if (e.getCause() instanceof ApiException) {
+                logger.error("Application error: {}", e.getMessage());
+            } else {
+                logger.error("Unexpected error: {}", e.getMessage(), e);
+            }
+        } finally {
+            resources.close();
+        }
+    }
+
+    private static Duration timeSinceJvmStart() {
+        return ProcessHandle.current().info().startInstant()
+                .map(start -> Duration.between(start, Instant.now()))
+                .orElse(Duration.ZERO);
+    }
+
+    private static SnapshotStore openSnapshotStore(AppConfig appConfig) {
+        if (appConfig.getSnapshotPath() == null) {
+            return null;
+        }
+        try {
+            return SnapshotStore.open(Path.of(appConfig.getSnapshotPath()), appConfig.getSnapshotMaxAge());
+        } catch (IOException e) {
+            logger.warn("Snapshot store unavailable, starting cold: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    private static OddsHistoryLog openOddsHistoryLog(AppConfig appConfig) {
+        if (appConfig.getOddsHistoryPath() == null) {
+            return null;
+        }
+        try {
+            return OddsHistoryLog.open(Path.of(appConfig.getOddsHistoryPath()));
+        } catch (IOException e) {
+            logger.warn("Odds history log unavailable, prices will not be recorded: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    private static void close(Closeable closeable) {
+        if (closeable == null) {
+            return;
+        }
+        try {
+            closeable.close();
+        } catch (IOException e) {
+            logger.warn("Failed to close {}: {}", closeable.getClass().getSimpleName(), e.getMessage());
+        }
+    }
+
+    /**
+     * Services of the report modes, backed by the {@link SnapshotStore} and {@link OddsHistoryLog} when configured.
+     */
+    private static final class ReportResources {
+        private final AppContext appContext;
+        private final SnapshotStore snapshotStore;
+        private final OddsHistoryLog oddsHistoryLog;
+        private final SportService sportService;
+        private final ReportService reportService;
+
+        private ReportResources() {
+            this.appContext = AppContext.start(new AppConfig());
+            AppConfig appConfig = appContext.getAppConfig();
+            this.snapshotStore = openSnapshotStore(appConfig);
+            this.oddsHistoryLog = openOddsHistoryLog(appConfig);
+            this.sportService = new SportService(new AsyncApiService(appContext, snapshotStore), appConfig);
+            this.reportService = new ReportService(appContext, sportService, oddsHistoryLog);
+        }
+
+        /**
+         * Shuts down the {@link ReportService} and closes the snapshot store, odds history log and context.
+         */
+        private void close() {
+            reportService.shutdown();
+            DemoApplication.close(snapshotStore);
+            DemoApplication.close(oddsHistoryLog);
+            DemoApplication.close(appContext);
         }
     }
 }
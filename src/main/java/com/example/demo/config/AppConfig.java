@@ -3,20 +3,41 @@ package com.example.demo.config;
 import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
 import java.util.Properties;
 
 public class AppConfig {
+    private static final String CONFIG_PROPERTIES_RESOURCE = "/application.properties";
     private static final String CONFIG_PROPERTIES_PATH = "src/main/resources/application.properties";
     private final Properties properties = new Properties();
 
+    /**
+     * Loads {@code application.properties} from the classpath, falling back to the source tree
+     * when running from the project directory without a build.
+     */
     public AppConfig() {
-        try (InputStream input = new FileInputStream(CONFIG_PROPERTIES_PATH)) {
+        try (InputStream input = openProperties()) {
             properties.load(input);
         } catch (IOException ex) {
             ex.printStackTrace();
         }
     }
 
+    /**
+     * @param properties Configuration to use instead of {@code application.properties},
+     *                   e.g. API URLs pointing at a local stand-in
+     */
+    public AppConfig(Properties properties) {
+        this.properties.putAll(properties);
+    }
+
+    private static InputStream openProperties() throws IOException {
+        InputStream resource = AppConfig.class.getResourceAsStream(CONFIG_PROPERTIES_RESOURCE);
+        return resource != null ? resource : new FileInputStream(CONFIG_PROPERTIES_PATH);
+    }
+
     public String getApplicationName() {
         return properties.getProperty("spring.application.name");
     }
@@ -32,4 +53,66 @@ public class AppConfig {
     public String getEventDetailsUrl(long eventId) {
         return String.format(properties.getProperty("api.url.event.details"), eventId);
     }
+
+    /**
+     * @return Path of the on-disk snapshot store, or null if warm restarts are disabled
+     */
+    public String getSnapshotPath() {
+        String path = properties.getProperty("snapshot.path");
+        return path == null || path.isBlank() ? null : path;
+    }
+
+    /**
+     * @return Age past which payloads of the snapshot store are no longer served
+     */
+    public Duration getSnapshotMaxAge() {
+        return Duration.ofSeconds(Long.parseLong(properties.getProperty("snapshot.max-age-seconds", "600")));
+    }
+
+    /**
+     * @return Directory of the odds history log, or null if price history is not recorded
+     */
+    public String getOddsHistoryPath() {
+        String path = properties.getProperty("history.path");
+        return path == null || path.isBlank() ? null : path;
+    }
+
+    /**
+     * @return Port of the embedded report server started with {@code --serve}
+     */
+    public int getServerPort() {
+        return Integer.parseInt(properties.getProperty("server.port", "8080"));
+    }
+
+    /**
+     * @return Port the coordinator of the sharded mode listens on for workers
+     */
+    public int getShardPort() {
+        return Integer.parseInt(properties.getProperty("shard.port", "9090"));
+    }
+
+    /**
+     * @return Host whose address the coordinator of the sharded mode listens on. Workers are not authenticated,
+     * so it defaults to loopback and must not be reachable from untrusted networks
+     */
+    public String getShardBindHost() {
+        return properties.getProperty("shard.bind.host", "localhost");
+    }
+
+    /**
+     * @return Host of the coordinator that workers of the sharded mode connect to
+     */
+    public String getShardCoordinatorHost() {
+        return properties.getProperty("shard.coordinator.host", "localhost");
+    }
+
+    /**
+     * @return Names of the feed providers aggregated by the {@code --feeds} mode
+     */
+    public List<String> getFeedProviders() {
+        return Arrays.stream(properties.getProperty("feed.providers", "leonbets").split(","))
+                .map(String::trim)
+                .filter(name -> !name.isEmpty())
+                .toList();
+    }
 }
@@ -0,0 +1,157 @@
+package com.example.demo.config;
+
+import com.example.demo.service.execution.BoundedStageExecutor;
+import com.example.demo.service.execution.StageStats;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.lang.reflect.Type;
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Owns the resources shared by all services: the configuration, one {@link HttpClient}, one {@link ObjectMapper}
+ * with cached {@link ObjectReader}s, and the fetch, parse and build stage executors.
+ *
+ * <p>Sharing them keeps pooled connections, TLS sessions, Jackson's deserializer caches and JIT-compiled code warm
+ * across report runs. A context is created with {@link #start} and released with {@link #close}; services using it
+ * never close it themselves. Services created without an explicit context use {@link #shared()}.</p>
+ */
+public final class AppContext implements Closeable {
+
+    private static final Logger logger = LoggerFactory.getLogger(AppContext.class);
+    private static final Duration CONNECT_TIMEOUT = Duration.ofSeconds(10);
+    private static final int FETCH_THREADS = 8;
+    private static final int FETCH_QUEUE_CAPACITY = 64;
+    private static final int PARSE_THREADS = Runtime.getRuntime().availableProcessors();
+    private static final int PARSE_QUEUE_CAPACITY = 32;
+    private static final int BUILD_THREADS = 3;
+    private static final int BUILD_QUEUE_CAPACITY = 16;
+    private static AppContext shared;
+
+    private final AppConfig appConfig;
+    private final HttpClient httpClient;
+    private final ObjectMapper objectMapper;
+    private final Map<Type, ObjectReader> objectReaders = new ConcurrentHashMap<>();
+    private final BoundedStageExecutor fetchExecutor;
+    private final BoundedStageExecutor parseExecutor;
+    private final BoundedStageExecutor buildExecutor;
+    private volatile boolean closed;
+
+    private AppContext(AppConfig appConfig) {
+        this.appConfig = appConfig;
+        this.httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_2)
+                .followRedirects(HttpClient.Redirect.NORMAL)
+                .connectTimeout(CONNECT_TIMEOUT)
+                .build();
+        this.objectMapper = new ObjectMapper();
+        this.fetchExecutor = new BoundedStageExecutor("fetch", FETCH_THREADS, FETCH_QUEUE_CAPACITY, true);
+        this.parseExecutor = new BoundedStageExecutor("parse", PARSE_THREADS, PARSE_QUEUE_CAPACITY, true);
+        this.buildExecutor = new BoundedStageExecutor("build", BUILD_THREADS, BUILD_QUEUE_CAPACITY, true);
+        // Sports are built by fetching, and fetched bodies are parsed; continuations going back up are handed off
+        buildExecutor.addDownstream(fetchExecutor);
+        fetchExecutor.addDownstream(parseExecutor);
+    }
+
+    /**
+     * Creates a context owned by the caller, who must {@link #close} it.
+     */
+    public static AppContext start(AppConfig appConfig) {
+        logger.debug("Starting application context");
+        return new AppContext(appConfig);
+    }
+
+    /**
+     * @return The process-wide context used by services created without one. It is started on first use,
+     *         restarted if it was closed, and closed when the JVM shuts down.
+     */
+    public static synchronized AppContext shared() {
+        if (shared == null) {
+            // One hook for the life of the JVM, closing whichever context is shared at exit
+            Runtime.getRuntime().addShutdownHook(new Thread(AppContext::closeShared, "app-context-shutdown"));
+        }
+        if (shared == null || shared.closed) {
+            shared = start(new AppConfig());
+        }
+        return shared;
+    }
+
+    private static synchronized void closeShared() {
+        if (shared != null) {
+            shared.close();
+        }
+    }
+
+    public AppConfig getAppConfig() {
+        return appConfig;
+    }
+
+    public HttpClient getHttpClient() {
+        return httpClient;
+    }
+
+    public ObjectMapper getObjectMapper() {
+        return objectMapper;
+    }
+
+    /**
+     * @return A reader for the type, created once per context and shared between threads
+     */
+    public ObjectReader readerFor(TypeReference<?> typeReference) {
+        return objectReaders.computeIfAbsent(typeReference.getType(), type -> objectMapper.readerFor(typeReference));
+    }
+
+    /**
+     * @return A reader for the class, created once per context and shared between threads
+     */
+    public ObjectReader readerFor(Class<?> type) {
+        return objectReaders.computeIfAbsent(type, key -> objectMapper.readerFor(type));
+    }
+
+    public BoundedStageExecutor getFetchExecutor() {
+        return fetchExecutor;
+    }
+
+    public BoundedStageExecutor getParseExecutor() {
+        return parseExecutor;
+    }
+
+    public BoundedStageExecutor getBuildExecutor() {
+        return buildExecutor;
+    }
+
+    /**
+     * @return Queue depth, blocked submission and rejection statistics of the build, fetch and parse stages
+     */
+    public List<StageStats> getStageStats() {
+        return List.of(buildExecutor.getStats(), fetchExecutor.getStats(), parseExecutor.getStats());
+    }
+
+    public boolean isClosed() {
+        return closed;
+    }
+
+    /**
+     * Stops the stage executors and the HTTP client. Queued tasks and in-flight exchanges are completed first.
+     */
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        logger.debug("Closing application context");
+        buildExecutor.shutdown();
+        fetchExecutor.shutdown();
+        parseExecutor.shutdown();
+        httpClient.close();
+    }
+}
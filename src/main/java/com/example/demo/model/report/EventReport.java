@@ -1,5 +1,7 @@
 package com.example.demo.model.report;
 
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
 import lombok.Data;
 
 import java.util.ArrayList;
@@ -11,8 +13,11 @@ public class EventReport {
     private final String kickoffUtc;
     private final long eventId;
     private final List<MarketReport> marketReports = new ArrayList<>();
+    private ReportStatus status = ReportStatus.COMPLETE;
 
-    public EventReport(String eventName, String kickoffUtc, long eventId) {
+    @JsonCreator
+    public EventReport(@JsonProperty("eventName") String eventName, @JsonProperty("kickoffUtc") String kickoffUtc,
+                       @JsonProperty("eventId") long eventId) {
         this.eventName = eventName;
         this.kickoffUtc = kickoffUtc;
         this.eventId = eventId;
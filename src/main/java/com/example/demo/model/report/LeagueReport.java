@@ -1,5 +1,7 @@
 package com.example.demo.model.report;
 
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
 import lombok.Data;
 
 import java.util.ArrayList;
@@ -9,8 +11,10 @@ import java.util.List;
 public class LeagueReport {
     private final String leagueName;
     private final List<EventReport> eventReports = new ArrayList<>();
+    private ReportStatus status = ReportStatus.COMPLETE;
 
-    public LeagueReport(String leagueName) {
+    @JsonCreator
+    public LeagueReport(@JsonProperty("leagueName") String leagueName) {
         this.leagueName = leagueName;
     }
 
@@ -1,5 +1,7 @@
 package com.example.demo.model.report;
 
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
 import lombok.Data;
 
 import java.util.ArrayList;
@@ -8,10 +10,20 @@ import java.util.List;
 @Data
 public class MarketReport {
     private final String marketName;
+    private final long marketId;
+    private final long marketTypeId;
     private final List<RunnerReport> runnerReports = new ArrayList<>();
 
     public MarketReport(String marketName) {
+        this(marketName, 0, 0);
+    }
+
+    @JsonCreator
+    public MarketReport(@JsonProperty("marketName") String marketName, @JsonProperty("marketId") long marketId,
+                        @JsonProperty("marketTypeId") long marketTypeId) {
         this.marketName = marketName;
+        this.marketId = marketId;
+        this.marketTypeId = marketTypeId;
     }
 
     public void addRunner(RunnerReport runnerReport) {
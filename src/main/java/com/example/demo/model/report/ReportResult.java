@@ -11,4 +11,15 @@ public class ReportResult {
     public ReportResult(List<SportReport> sportReports) {
         this.sportReports = sportReports;
     }
+
+    /**
+     * @return true if no sport, league or event of the report is stale or missing
+     */
+    public boolean isComplete() {
+        return sportReports.stream().allMatch(sportReport -> sportReport.getStatus() == ReportStatus.COMPLETE
+                && sportReport.getLeagueReports().stream().allMatch(leagueReport ->
+                        leagueReport.getStatus() == ReportStatus.COMPLETE
+                                && leagueReport.getEventReports().stream()
+                                .allMatch(eventReport -> eventReport.getStatus() == ReportStatus.COMPLETE)));
+    }
 }
\ No newline at end of file
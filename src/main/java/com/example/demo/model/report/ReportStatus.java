@@ -0,0 +1,13 @@
+package com.example.demo.model.report;
+
+/**
+ * Completeness of a part of a report generated under a time budget.
+ */
+public enum ReportStatus {
+    /** Fetched within the budget. */
+    COMPLETE,
+    /** Not (fully) fetched within the budget; the last known data, if any, is shown instead. */
+    STALE,
+    /** Not fetched within the budget and nothing is known about it. */
+    MISSING
+}
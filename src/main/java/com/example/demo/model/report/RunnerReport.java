@@ -1,5 +1,7 @@
 package com.example.demo.model.report;
 
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
 import lombok.Data;
 
 @Data
@@ -8,7 +10,9 @@ public class RunnerReport {
     private final double price;
     private final long runnerId;
 
-    public RunnerReport(String runnerName, double price, long runnerId) {
+    @JsonCreator
+    public RunnerReport(@JsonProperty("runnerName") String runnerName, @JsonProperty("price") double price,
+                        @JsonProperty("runnerId") long runnerId) {
         this.runnerName = runnerName;
         this.price = price;
         this.runnerId = runnerId;
@@ -9,6 +9,7 @@ import java.util.List;
 public class SportReport {
     private final String sportName;
     private final List<LeagueReport> leagueReports = new ArrayList<>();
+    private ReportStatus status = ReportStatus.COMPLETE;
 
     public SportReport(String sportName) {
         this.sportName = sportName;
@@ -0,0 +1,29 @@
+package com.example.demo.model.report.compact;
+
+import com.example.demo.model.Event;
+import com.example.demo.model.EventDetailsResponse;
+import com.example.demo.model.Market;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+
+/**
+ * @param kickoff Kickoff time in epoch milliseconds
+ */
+public record CompactEventReport(String eventName, long kickoff, long eventId, CompactMarketReport[] markets) {
+
+    public static CompactEventReport of(Event event, EventDetailsResponse eventDetails) {
+        List<Market> sourceMarkets = eventDetails.getMarkets();
+        CompactMarketReport[] markets = new CompactMarketReport[sourceMarkets.size()];
+        for (int i = 0; i < markets.length; i++) {
+            markets[i] = CompactMarketReport.of(sourceMarkets.get(i));
+        }
+        return new CompactEventReport(event.getName(), event.getKickoff(), event.getId(), markets);
+    }
+
+    public LocalDateTime kickoffUtc() {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(kickoff), ZoneOffset.UTC);
+    }
+}
@@ -0,0 +1,18 @@
+package com.example.demo.model.report.compact;
+
+import com.example.demo.model.Market;
+import com.example.demo.model.Runner;
+
+import java.util.List;
+
+public record CompactMarketReport(String marketName, long marketId, long marketTypeId, CompactRunnerReport[] runners) {
+
+    public static CompactMarketReport of(Market market) {
+        List<Runner> sourceRunners = market.getRunners();
+        CompactRunnerReport[] runners = new CompactRunnerReport[sourceRunners.size()];
+        for (int i = 0; i < runners.length; i++) {
+            runners[i] = CompactRunnerReport.of(sourceRunners.get(i));
+        }
+        return new CompactMarketReport(market.getName(), market.getId(), market.getMarketTypeId(), runners);
+    }
+}
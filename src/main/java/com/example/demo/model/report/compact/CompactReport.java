@@ -0,0 +1,12 @@
+package com.example.demo.model.report.compact;
+
+/**
+ * Immutable, compact alternative to {@link com.example.demo.model.report.ReportResult}.
+ *
+ * <p>Compact reports are records holding exact-sized arrays that are filled once by their factory methods and
+ * never modified afterwards, so a report can be shared between threads without copying. The arrays returned by
+ * the accessors are the report's own and must not be written to. Kickoffs are kept as epoch milliseconds and
+ * only formatted when printed.</p>
+ */
+public record CompactReport(CompactSportReport[] sports) {
+}
@@ -0,0 +1,10 @@
+package com.example.demo.model.report.compact;
+
+import com.example.demo.model.Runner;
+
+public record CompactRunnerReport(String runnerName, double price, long runnerId) {
+
+    public static CompactRunnerReport of(Runner runner) {
+        return new CompactRunnerReport(runner.getName(), runner.getPrice(), runner.getId());
+    }
+}
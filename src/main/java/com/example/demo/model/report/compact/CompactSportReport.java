@@ -0,0 +1,4 @@
+package com.example.demo.model.report.compact;
+
+public record CompactSportReport(String sportName, CompactLeagueReport[] leagues) {
+}
@@ -0,0 +1,37 @@
+package com.example.demo.model.report.feed;
+
+import lombok.Data;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+@Data
+public class FeedEventReport {
+    private final String eventName;
+    private final long kickoff;
+    /** Event id of every source listing the event, in provider order. */
+    private final Map<String, Long> sourceEventIds = new LinkedHashMap<>();
+    private final List<FeedMarketReport> marketReports = new ArrayList<>();
+
+    public FeedEventReport(String eventName, long kickoff) {
+        this.eventName = eventName;
+        this.kickoff = kickoff;
+    }
+
+    public LocalDateTime getKickoffUtc() {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(kickoff), ZoneOffset.UTC);
+    }
+
+    public void addSourceEventId(String source, long eventId) {
+        sourceEventIds.put(source, eventId);
+    }
+
+    public void addMarketReport(FeedMarketReport marketReport) {
+        marketReports.add(marketReport);
+    }
+}
@@ -0,0 +1,22 @@
+package com.example.demo.model.report.feed;
+
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+public class FeedLeagueReport {
+    private final String sportName;
+    private final String leagueName;
+    private final List<FeedEventReport> eventReports = new ArrayList<>();
+
+    public FeedLeagueReport(String sportName, String leagueName) {
+        this.sportName = sportName;
+        this.leagueName = leagueName;
+    }
+
+    public void addEventReport(FeedEventReport eventReport) {
+        eventReports.add(eventReport);
+    }
+}
@@ -0,0 +1,20 @@
+package com.example.demo.model.report.feed;
+
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+public class FeedMarketReport {
+    private final String marketName;
+    private final List<FeedRunnerReport> runnerReports = new ArrayList<>();
+
+    public FeedMarketReport(String marketName) {
+        this.marketName = marketName;
+    }
+
+    public void addRunner(FeedRunnerReport runnerReport) {
+        runnerReports.add(runnerReport);
+    }
+}
@@ -0,0 +1,21 @@
+package com.example.demo.model.report.feed;
+
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * Top leagues merged across several feed providers.
+ */
+@Data
+public class FeedReport {
+    private final List<String> sources;
+    private final List<String> failedSources;
+    private final List<FeedLeagueReport> leagueReports;
+
+    public FeedReport(List<String> sources, List<String> failedSources, List<FeedLeagueReport> leagueReports) {
+        this.sources = sources;
+        this.failedSources = failedSources;
+        this.leagueReports = leagueReports;
+    }
+}
@@ -0,0 +1,31 @@
+package com.example.demo.model.report.feed;
+
+import lombok.Data;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@Data
+public class FeedRunnerReport {
+    private final String runnerName;
+    /** Price of every source quoting the runner, in provider order. */
+    private final Map<String, Double> sourcePrices = new LinkedHashMap<>();
+
+    public FeedRunnerReport(String runnerName) {
+        this.runnerName = runnerName;
+    }
+
+    public void addSourcePrice(String source, double price) {
+        sourcePrices.put(source, price);
+    }
+
+    /**
+     * @return Source quoting the highest price, or null if no source quotes the runner
+     */
+    public String getBestSource() {
+        return sourcePrices.entrySet().stream()
+                .max(Map.Entry.comparingByValue())
+                .map(Map.Entry::getKey)
+                .orElse(null);
+    }
+}
@@ -1,20 +1,44 @@
 package com.example.demo.service;
 
+import com.example.demo.config.AppContext;
 import com.example.demo.exception.ApiException;
+import com.example.demo.service.execution.BoundedStageExecutor;
+import com.example.demo.service.execution.StageStats;
+import com.example.demo.service.snapshot.SnapshotStore;
+import com.example.demo.service.projection.JsonProjection;
+import com.example.demo.service.resilience.CircuitBreaker;
+import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.slf4j.spi.LoggingEventBuilder;
 
 import javax.net.ssl.SSLHandshakeException;
 import java.io.IOException;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.net.http.HttpClient;
+import java.net.http.HttpConnectTimeoutException;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import java.util.function.Function;
 
 /**
@@ -23,12 +47,66 @@ import java.util.function.Function;
  */
 public class AsyncApiService {
     private static final Logger logger = LoggerFactory.getLogger(AsyncApiService.class);
+    private static final long REVALIDATION_WAIT_SECONDS = 10;
+    private static final int HTTP_NOT_MODIFIED = 304;
+    private static final int HTTP_TOO_MANY_REQUESTS = 429;
+    private static final int MAX_CACHED_RESPONSES = 10_000;
+    private static final Duration LAST_KNOWN_MAX_AGE = Duration.ofMinutes(10);
+    private static final Set<String> LOGGED_ID_PARAMETERS = Set.of("league_id", "eventId");
+    private static final HttpResponse.BodyHandler<String> BODY_UNLESS_NOT_MODIFIED = responseInfo ->
+            responseInfo.statusCode() == HTTP_NOT_MODIFIED
+                    ? HttpResponse.BodySubscribers.<String>replacing(null)
+                    : HttpResponse.BodyHandlers.ofString().apply(responseInfo);
+    private final AppContext appContext;
     private final HttpClient httpClient;
     private final ObjectMapper objectMapper;
+    private final SnapshotStore snapshotStore;
+    private final BoundedStageExecutor fetchExecutor;
+    private final BoundedStageExecutor parseExecutor;
+    private final Map<ResponseKey, CachedResponse> responseCache;
+    private final long lastKnownMaxAgeMillis;
+    private final Map<String, CircuitBreaker> circuitBreakers = new ConcurrentHashMap<>();
+    private final Set<String> revalidatedUrls = ConcurrentHashMap.newKeySet();
+    private final Set<CompletableFuture<String>> pendingRevalidations = ConcurrentHashMap.newKeySet();
 
     public AsyncApiService() {
-        this.httpClient = HttpClient.newHttpClient();
-        this.objectMapper = new ObjectMapper();
+        this(null);
+    }
+
+    public AsyncApiService(SnapshotStore snapshotStore) {
+        this(AppContext.shared(), snapshotStore);
+    }
+
+    /**
+     * @param appContext    Context providing the HTTP client, object mapper and fetch and parse stages
+     * @param snapshotStore Store of the last fetched payloads, or null to always go to the network.
+     *                      The first request for each URL is answered from the store when it has
+     *                      a payload, while the URL is revalidated in the background.
+     */
+    public AsyncApiService(AppContext appContext, SnapshotStore snapshotStore) {
+        this(appContext, snapshotStore, MAX_CACHED_RESPONSES, LAST_KNOWN_MAX_AGE);
+    }
+
+    /**
+     * @param maxCachedResponses Number of parsed responses remembered, least recently used first evicted
+     * @param lastKnownMaxAge    How long a remembered response may still be served while the circuit breaker is open,
+     *                           counted from when the API last sent or confirmed it
+     */
+    AsyncApiService(AppContext appContext, SnapshotStore snapshotStore, int maxCachedResponses,
+                    Duration lastKnownMaxAge) {
+        this.responseCache = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<ResponseKey, CachedResponse> eldest) {
+                return size() > maxCachedResponses;
+            }
+        });
+        this.lastKnownMaxAgeMillis = lastKnownMaxAge.toMillis();
+        this.appContext = appContext;
+        this.httpClient = appContext.getHttpClient();
+        this.objectMapper = appContext.getObjectMapper();
+        this.snapshotStore = snapshotStore;
+        this.fetchExecutor = appContext.getFetchExecutor();
+        this.parseExecutor = appContext.getParseExecutor();
     }
 
     /**
@@ -40,14 +118,40 @@ public class AsyncApiService {
      * @return A CompletableFuture that will contain the deserialized object of type T
      */
     public <T> CompletableFuture<T> fetchDataAsync(String url, TypeReference<T> typeReference) {
+        return fetchDataAsync(url, typeReference, null);
+    }
+
+    /**
+     * Asynchronously fetches data from the specified URL and deserializes it into the specified type.
+     *
+     * @param url           The URL to fetch data from
+     * @param typeReference TypeReference for complex types
+     * @param timeout       Time allowed for the request from this call on, including any wait for the fetch stage,
+     *                      or null for no limit
+     * @param <T>           The type of object to deserialize into
+     * @return A CompletableFuture that will contain the deserialized object of type T
+     */
+    public <T> CompletableFuture<T> fetchDataAsync(String url, TypeReference<T> typeReference, Duration timeout) {
+        return fetchResultAsync(url, typeReference, timeout).thenApply(FetchResult::getValue);
+    }
+
+    /**
+     * Like {@link #fetchDataAsync(String, TypeReference, Duration)}, telling whether the value is stale.
+     *
+     * @return A CompletableFuture that will contain the deserialized object of type T, marked stale when it was
+     * answered from a snapshot or, while the circuit breaker is open, from the last response
+     */
+    public <T> CompletableFuture<FetchResult<T>> fetchResultAsync(String url, TypeReference<T> typeReference,
+                                                                  Duration timeout) {
+        ObjectReader objectReader = appContext.readerFor(typeReference);
         Function<String, T> deserializer = body -> {
             try {
-                return objectMapper.readValue(body, typeReference);
+                return objectReader.readValue(body);
             } catch (JsonProcessingException e) {
                 throw new ApiException("Error parsing API response", e);
             }
         };
-        return fetchDataFromApiAsync(url, deserializer);
+        return fetchDataFromApiAsync(url, typeReference.getType(), deserializer, timeout);
     }
 
     /**
@@ -59,50 +163,336 @@ public class AsyncApiService {
      * @return A CompletableFuture that will contain the deserialized object of type T
      */
     public <T> CompletableFuture<T> fetchDataAsync(String url, Class<T> clazz) {
+        ObjectReader objectReader = appContext.readerFor(clazz);
         Function<String, T> deserializer = body -> {
             try {
-                return objectMapper.readValue(body, clazz);
+                return objectReader.readValue(body);
             } catch (JsonProcessingException e) {
                 throw new ApiException("Error parsing API response", e);
             }
         };
-        return fetchDataFromApiAsync(url, deserializer);
+        return fetchDataFromApiAsync(url, clazz, deserializer, null).thenApply(FetchResult::getValue);
+    }
+
+    /**
+     * Asynchronously fetches data from the specified URL and reads it with a streaming projection.
+     * Only the fields declared by the projection are materialized; all other subtrees are skipped.
+     *
+     * @param url        The URL to fetch data from
+     * @param projection The projection used to read the response body
+     * @param <T>        The type of object produced by the projection
+     * @return A CompletableFuture that will contain the projected object of type T
+     */
+    public <T> CompletableFuture<T> fetchDataAsync(String url, JsonProjection<T> projection) {
+        return fetchDataAsync(url, projection, null);
+    }
+
+    /**
+     * Asynchronously fetches data from the specified URL and reads it with a streaming projection.
+     *
+     * @param url        The URL to fetch data from
+     * @param projection The projection used to read the response body
+     * @param timeout    Time allowed for the request from this call on, including any wait for the fetch stage,
+     *                   or null for no limit
+     * @param <T>        The type of object produced by the projection
+     * @return A CompletableFuture that will contain the projected object of type T
+     */
+    public <T> CompletableFuture<T> fetchDataAsync(String url, JsonProjection<T> projection, Duration timeout) {
+        return fetchResultAsync(url, projection, timeout).thenApply(FetchResult::getValue);
+    }
+
+    /**
+     * Like {@link #fetchDataAsync(String, JsonProjection, Duration)}, telling whether the value is stale.
+     *
+     * @return A CompletableFuture that will contain the projected object of type T, marked stale when it was
+     * answered from a snapshot or, while the circuit breaker is open, from the last response
+     */
+    public <T> CompletableFuture<FetchResult<T>> fetchResultAsync(String url, JsonProjection<T> projection,
+                                                                  Duration timeout) {
+        Function<String, T> deserializer = body -> {
+            try (JsonParser parser = objectMapper.getFactory().createParser(body)) {
+                parser.nextToken();
+                return projection.read(parser);
+            } catch (IOException e) {
+                throw new ApiException("Error parsing API response", e);
+            }
+        };
+        return fetchDataFromApiAsync(url, projection, deserializer, timeout);
     }
 
     /**
      * Asynchronously fetches data from the specified API endpoint and deserializes it using the provided deserializer function.
+     * When a snapshot store is configured, the first request for a URL is served from the persisted payload
+     * and the URL is refreshed in the background.
+     *
+     * <p>The last parsed value per URL and result type is remembered together with the response's {@code ETag}
+     * and {@code Last-Modified} validators, for the {@value #MAX_CACHED_RESPONSES} most recently used URLs. When validators are present, later requests are sent as conditional
+     * GETs and a {@code 304 Not Modified} answer returns the remembered value without reading or parsing a body.
+     * Remembered values are shared between callers and must not be modified.</p>
+     *
+     * <p>Every endpoint family (URL path) is guarded by a {@link CircuitBreaker}. While it is open no request is
+     * sent: the last value parsed for the URL, if the API sent or confirmed it within the last ten minutes, or its
+     * snapshot is returned if there is one, otherwise the call fails fast. Values answered from a snapshot or while the breaker is open are marked stale.</p>
+     *
+     * <p>The HTTP exchange runs on the bounded fetch stage and deserialization on the bounded parse stage.
+     * When either is saturated, submitting blocks the caller (or the fetch worker handing a body to the parse
+     * stage), so a large sweep holds a bounded number of pending requests and unparsed bodies. Fetches started on a
+     * parse worker, e.g. by a continuation of a parsed response, are handed off instead, as the stages would
+     * otherwise wait on each other.</p>
      *
      * @param <T>           The type of the data to be returned.
      * @param url           The URL of the API endpoint to fetch data from.
+     * @param resultType    Identifies what the deserializer produces, so values parsed differently are cached apart.
      * @param deserializer  A function that takes a JSON string and converts it to an instance of type T.
+     * @param timeout       Time allowed for the request from this call on, or null for no limit. A request still
+     *                      waiting for the fetch stage when it runs out fails without being sent. Running out of it
+     *                      is the caller's limit, not a failure of the API, and is not held against the circuit
+     *                      breaker.
      * @return A CompletableFuture that will contain the deserialized object of type T.
      * @throws ApiException If there is an error in the API request, such as an invalid URL,
      *                      an unsuccessful HTTP status code, or a network issue.
      */
-    private <T> CompletableFuture<T> fetchDataFromApiAsync(String url, Function<String, T> deserializer) {
-        return CompletableFuture.supplyAsync(() -> {
-            try {
-                URI uri = new URI(url);
-                HttpRequest request = HttpRequest.newBuilder()
-                        .uri(uri)
-                        .GET()
-                        .build();
-
-                HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
-
-                if (response.statusCode() >= 200 && response.statusCode() < 300) {
-                    return deserializer.apply(response.body());
-                } else {
-                    throw new ApiException("Failed to fetch data. HTTP Status: " + response.statusCode());
-                }
-            } catch (URISyntaxException e) {
-                throw new ApiException("Invalid URL: " + url, e);
-            } catch (SSLHandshakeException e) {
-                throw new ApiException("Seems site is unreachable, try to use VPN. ", e);
-            } catch (IOException | InterruptedException e) {
-                throw new ApiException("Error fetching data from API", e);
+    private <T> CompletableFuture<FetchResult<T>> fetchDataFromApiAsync(String url, Object resultType,
+                                                                        Function<String, T> deserializer,
+                                                                        Duration timeout) {
+        long requestedAt = System.nanoTime();
+        if (snapshotStore != null && revalidatedUrls.add(url)) {
+            Optional<T> snapshot = readSnapshot(url, deserializer);
+            if (snapshot.isPresent()) {
+                revalidateInBackground(url);
+                return CompletableFuture.completedFuture(FetchResult.stale(snapshot.get()));
+            }
+        }
+
+        CircuitBreaker circuitBreaker = circuitBreakerFor(url);
+        if (!circuitBreaker.tryAcquirePermission()) {
+            return lastKnownValue(url, resultType, deserializer, circuitBreaker);
+        }
+        ResponseKey key = new ResponseKey(url, resultType);
+        return CompletableFuture.supplyAsync(() -> fetch(key, timeout, requestedAt, circuitBreaker), fetchExecutor)
+                .thenApplyAsync(fetched -> FetchResult.fresh(deserialize(key, fetched, deserializer)), parseExecutor);
+    }
+
+    private FetchedResponse fetch(ResponseKey key, Duration timeout, long requestedAt, CircuitBreaker circuitBreaker) {
+        Duration remaining = timeout == null ? null : timeout.minusNanos(System.nanoTime() - requestedAt);
+        if (remaining != null && !remaining.isPositive()) {
+            circuitBreaker.onIgnored();
+            throw new ApiException("Timed out after " + timeout.toMillis() + " ms waiting for the fetch stage");
+        }
+        CachedResponse cached = responseCache.get(key);
+        return new FetchedResponse(cached, send(key.url(), cached, remaining, circuitBreaker));
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> T deserialize(ResponseKey key, FetchedResponse fetched, Function<String, T> deserializer) {
+        HttpResponse<String> response = fetched.response();
+        CachedResponse cached = fetched.cached();
+        if (response.statusCode() == HTTP_NOT_MODIFIED && cached != null) {
+            responseCache.put(key, new CachedResponse(cached.etag(), cached.lastModified(), cached.value(),
+                    System.currentTimeMillis()));
+            return (T) cached.value();
+        }
+
+        T value = deserializer.apply(response.body());
+        String etag = response.headers().firstValue("ETag").orElse(null);
+        String lastModified = response.headers().firstValue("Last-Modified").orElse(null);
+        // Kept even without validators, as the last known value served while the circuit breaker is open
+        responseCache.put(key, new CachedResponse(etag, lastModified, value, System.currentTimeMillis()));
+        return value;
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> CompletableFuture<FetchResult<T>> lastKnownValue(String url, Object resultType,
+                                                                 Function<String, T> deserializer,
+                                                                 CircuitBreaker circuitBreaker) {
+        CachedResponse cached = responseCache.get(new ResponseKey(url, resultType));
+        if (cached != null && System.currentTimeMillis() - cached.confirmedAt() <= lastKnownMaxAgeMillis) {
+            return CompletableFuture.completedFuture(FetchResult.stale((T) cached.value()));
+        }
+        if (snapshotStore != null) {
+            Optional<T> snapshot = readSnapshot(url, deserializer);
+            if (snapshot.isPresent()) {
+                return CompletableFuture.completedFuture(FetchResult.stale(snapshot.get()));
+            }
+        }
+        return CompletableFuture.failedFuture(
+                new ApiException("Circuit breaker is open for " + circuitBreaker.getName() + ", failing fast"));
+    }
+
+    /**
+     * @return The state of the circuit breaker of every endpoint family called so far, keyed by URL path
+     */
+    public Map<String, CircuitBreaker.State> getCircuitBreakerStates() {
+        Map<String, CircuitBreaker.State> states = new TreeMap<>();
+        circuitBreakers.forEach((family, circuitBreaker) -> states.put(family, circuitBreaker.getState()));
+        return states;
+    }
+
+    /**
+     * @return Queue depth, blocked submission and rejection statistics of the fetch and parse stages
+     */
+    public List<StageStats> getStageStats() {
+        return List.of(fetchExecutor.getStats(), parseExecutor.getStats());
+    }
+
+    private CircuitBreaker circuitBreakerFor(String url) {
+        String family;
+        try {
+            family = new URI(url).getPath();
+        } catch (URISyntaxException e) {
+            family = url;
+        }
+        return circuitBreakers.computeIfAbsent(family, CircuitBreaker::new);
+    }
+
+    /**
+     * Waits for background snapshot revalidations to finish so that refreshed payloads are persisted.
+     * The HTTP client and stage executors belong to the {@link AppContext} and stay open.
+     */
+    public void shutdown() {
+        CompletableFuture<?>[] pending = pendingRevalidations.toArray(CompletableFuture[]::new);
+        try {
+            CompletableFuture.allOf(pending).get(REVALIDATION_WAIT_SECONDS, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException | TimeoutException e) {
+            logger.warn("Snapshot revalidation did not complete: {}", e.getMessage());
+        }
+    }
+
+    private <T> Optional<T> readSnapshot(String url, Function<String, T> deserializer) {
+        try {
+            return snapshotStore.get(url)
+                    .map(payload -> deserializer.apply(new String(payload, StandardCharsets.UTF_8)));
+        } catch (ApiException e) {
+            logger.warn("Ignoring unreadable snapshot for {}", url, e);
+            return Optional.empty();
+        }
+    }
+
+    private void revalidateInBackground(String url) {
+        CircuitBreaker circuitBreaker = circuitBreakerFor(url);
+        if (!circuitBreaker.tryAcquirePermission()) {
+            return;
+        }
+        CompletableFuture<String> revalidation = CompletableFuture.supplyAsync(() ->
+                send(url, null, null, circuitBreaker).body(), fetchExecutor);
+        pendingRevalidations.add(revalidation);
+        revalidation.whenComplete((body, e) -> {
+            pendingRevalidations.remove(revalidation);
+            if (e != null) {
+                logger.warn("Background revalidation failed for {}: {}", url, e.getMessage());
             }
         });
     }
+
+    /**
+     * Sends a GET request, made conditional when validators of a previous response are given.
+     * Successful bodies are persisted to the snapshot store, if one is configured.
+     * The outcome is recorded on the circuit breaker, whose permission the caller has acquired.
+     *
+     * @return A response with a 2xx status, or a 304 status with a null body when validators were given
+     */
+    private HttpResponse<String> send(String url, CachedResponse validators, Duration timeout,
+                                      CircuitBreaker circuitBreaker) {
+        long startTime = System.nanoTime();
+        try {
+            URI uri = new URI(url);
+            HttpRequest.Builder requestBuilder = HttpRequest.newBuilder()
+                    .uri(uri)
+                    .GET();
+            if (timeout != null) {
+                requestBuilder.timeout(timeout);
+            }
+            if (validators != null && validators.etag() != null) {
+                requestBuilder.header("If-None-Match", validators.etag());
+            }
+            if (validators != null && validators.lastModified() != null) {
+                requestBuilder.header("If-Modified-Since", validators.lastModified());
+            }
+
+            HttpResponse<String> response = httpClient.send(requestBuilder.build(), BODY_UNLESS_NOT_MODIFIED);
+            long latencyNanos = System.nanoTime() - startTime;
+            if (response.statusCode() >= 500 || response.statusCode() == HTTP_TOO_MANY_REQUESTS) {
+                circuitBreaker.onError(latencyNanos);
+            } else {
+                circuitBreaker.onSuccess(latencyNanos);
+            }
+            if (logger.isDebugEnabled()) {
+                logRequest(uri, response, latencyNanos);
+            }
+
+            if (response.statusCode() >= 200 && response.statusCode() < 300) {
+                saveSnapshot(url, response.body());
+                return response;
+            } else if (response.statusCode() == HTTP_NOT_MODIFIED && validators != null) {
+                return response;
+            } else {
+                throw new ApiException("Failed to fetch data. HTTP Status: " + response.statusCode());
+            }
+        } catch (URISyntaxException e) {
+            circuitBreaker.onIgnored();
+            throw new ApiException("Invalid URL: " + url, e);
+        } catch (SSLHandshakeException e) {
+            circuitBreaker.onError(System.nanoTime() - startTime);
+            throw new ApiException("Seems site is unreachable, try to use VPN. ", e);
+        } catch (HttpTimeoutException e) {
+            if (timeout != null && !(e instanceof HttpConnectTimeoutException)) {
+                // The caller's budget ran out, which says nothing about the health of the API
+                circuitBreaker.onIgnored();
+            } else {
+                circuitBreaker.onError(System.nanoTime() - startTime);
+            }
+            throw new ApiException("Timed out fetching data from API", e);
+        } catch (IOException e) {
+            circuitBreaker.onError(System.nanoTime() - startTime);
+            throw new ApiException("Error fetching data from API", e);
+        } catch (InterruptedException e) {
+            circuitBreaker.onIgnored();
+            throw new ApiException("Error fetching data from API", e);
+        }
+    }
+
+    /**
+     * Logs a completed request with its endpoint, league or event id, status and latency as key-value pairs,
+     * so a high-volume polling log can be filtered and aggregated without parsing messages.
+     */
+    private static void logRequest(URI uri, HttpResponse<String> response, long latencyNanos) {
+        LoggingEventBuilder event = logger.atDebug()
+                .addKeyValue("endpoint", uri.getPath())
+                .addKeyValue("status", response.statusCode())
+                .addKeyValue("latencyMs", latencyNanos / 1_000_000)
+                .addKeyValue("bodyLength", response.body() == null ? 0 : response.body().length());
+        String query = uri.getRawQuery();
+        if (query != null) {
+            for (String parameter : query.split("&")) {
+                int separator = parameter.indexOf('=');
+                if (separator > 0 && LOGGED_ID_PARAMETERS.contains(parameter.substring(0, separator))) {
+                    event = event.addKeyValue(parameter.substring(0, separator), parameter.substring(separator + 1));
+                }
+            }
+        }
+        event.log("API request completed");
+    }
+
+    private void saveSnapshot(String url, String body) {
+        if (snapshotStore == null) {
+            return;
+        }
+        try {
+            snapshotStore.put(url, body.getBytes(StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            logger.warn("Failed to save snapshot for {}", url, e);
+        }
+    }
+
+    private record ResponseKey(String url, Object resultType) {
+    }
+
+    private record CachedResponse(String etag, String lastModified, Object value, long confirmedAt) {
+    }
+
+    private record FetchedResponse(CachedResponse cached, HttpResponse<String> response) {
+    }
 }
 
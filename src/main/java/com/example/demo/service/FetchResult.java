@@ -0,0 +1,39 @@
+package com.example.demo.service;
+
+import lombok.Data;
+
+import java.util.function.Function;
+
+/**
+ * A value fetched by {@link AsyncApiService} together with whether the API confirmed it for this request.
+ *
+ * <p>Values answered from a snapshot, or from the last response while the circuit breaker is open, are stale:
+ * they may no longer match the API and callers reporting on them should say so.</p>
+ *
+ * @param <T> The type of the fetched value
+ */
+@Data
+public class FetchResult<T> {
+    private final T value;
+    private final boolean stale;
+
+    public FetchResult(T value, boolean stale) {
+        this.value = value;
+        this.stale = stale;
+    }
+
+    public static <T> FetchResult<T> fresh(T value) {
+        return new FetchResult<>(value, false);
+    }
+
+    public static <T> FetchResult<T> stale(T value) {
+        return new FetchResult<>(value, true);
+    }
+
+    /**
+     * @return A result holding the mapped value, stale if this one is
+     */
+    public <R> FetchResult<R> map(Function<T, R> mapper) {
+        return new FetchResult<>(mapper.apply(value), stale);
+    }
+}
@@ -1,5 +1,6 @@
 package com.example.demo.service;
 import com.example.demo.config.AppConfig;
+import com.example.demo.config.AppContext;
 import com.example.demo.model.Event;
 import com.example.demo.model.EventDetailsResponse;
 import com.example.demo.model.EventResponse;
@@ -7,8 +8,12 @@ import com.example.demo.model.League;
 import com.example.demo.model.Market;
 import com.example.demo.model.Sport;
 import com.example.demo.model.SportType;
+import com.example.demo.service.execution.StageStats;
+import com.example.demo.service.projection.JsonProjection;
+import com.example.demo.service.projection.Projections;
 import com.fasterxml.jackson.core.type.TypeReference;
 
+import java.time.Duration;
 import java.util.Comparator;
 import java.util.List;
 import java.util.concurrent.CompletableFuture;
@@ -24,8 +29,12 @@ public class SportService {
     private final AppConfig appConfig;
 
     public SportService() {
-        this.asyncApiService = new AsyncApiService();
-        this.appConfig = new AppConfig();
+        this(new AsyncApiService(), AppContext.shared().getAppConfig());
+    }
+
+    public SportService(AsyncApiService asyncApiService, AppConfig appConfig) {
+        this.asyncApiService = asyncApiService;
+        this.appConfig = appConfig;
     }
 
     public List<Sport> fetchSportsData() {
@@ -40,18 +49,46 @@ public class SportService {
         return fetchEventDetailsAsync(eventId).join();
     }
 
+    public EventDetailsResponse fetchEventDetails(long eventId, JsonProjection<EventDetailsResponse> projection) {
+        return fetchEventDetailsAsync(eventId, projection).join();
+    }
+
     public CompletableFuture<List<Sport>> fetchSportsDataAsync() {
-        return asyncApiService.fetchDataAsync(appConfig.getSportsUrl(), new TypeReference<List<Sport>>() {});
+        return fetchSportsDataAsync(null);
+    }
+
+    public CompletableFuture<List<Sport>> fetchSportsDataAsync(Duration timeout) {
+        return asyncApiService.fetchDataAsync(appConfig.getSportsUrl(), new TypeReference<List<Sport>>() {}, timeout);
     }
 
     public CompletableFuture<EventResponse> fetchEventsDataAsync(long leagueId) {
         return asyncApiService.fetchDataAsync(appConfig.getEventsUrl(leagueId), EventResponse.class);
     }
 
+    public CompletableFuture<EventResponse> fetchEventsDataAsync(long leagueId, JsonProjection<EventResponse> projection) {
+        return asyncApiService.fetchDataAsync(appConfig.getEventsUrl(leagueId), projection);
+    }
+
     public CompletableFuture<EventDetailsResponse> fetchEventDetailsAsync(long eventId) {
         return asyncApiService.fetchDataAsync(appConfig.getEventDetailsUrl(eventId), EventDetailsResponse.class);
     }
 
+    public CompletableFuture<EventDetailsResponse> fetchEventDetailsAsync(long eventId,
+                                                                          JsonProjection<EventDetailsResponse> projection) {
+        return fetchEventDetailsAsync(eventId, projection, null);
+    }
+
+    public CompletableFuture<EventDetailsResponse> fetchEventDetailsAsync(long eventId,
+                                                                          JsonProjection<EventDetailsResponse> projection,
+                                                                          Duration timeout) {
+        return asyncApiService.fetchDataAsync(appConfig.getEventDetailsUrl(eventId), projection, timeout);
+    }
+
+    public CompletableFuture<FetchResult<EventDetailsResponse>> fetchEventDetailsResultAsync(
+            long eventId, JsonProjection<EventDetailsResponse> projection, Duration timeout) {
+        return asyncApiService.fetchResultAsync(appConfig.getEventDetailsUrl(eventId), projection, timeout);
+    }
+
     public List<League> getTopLeagues(SportType sportType) {
         List<Sport> allSports = fetchSportsData();
         return allSports.stream()
@@ -77,12 +114,23 @@ public class SportService {
     }
 
     public List<Event> fetchTopMatches(long leagueId, int limit) {
-        return fetchAllEvents(leagueId).stream()
-                .filter(event -> "prematch".equalsIgnoreCase(event.getBetline()))
-                .sorted(Comparator.comparingLong(Event::getKickoff))    // Sort by kickoff to get the closest event on top
-                                                                        // (assuming all events are in future)
-                .limit(limit)
-                .collect(Collectors.toList());
+        return fetchTopMatchesAsync(leagueId, limit, null).join();
+    }
+
+    public CompletableFuture<List<Event>> fetchTopMatchesAsync(long leagueId, int limit, Duration timeout) {
+        return fetchTopMatchesResultAsync(leagueId, limit, timeout).thenApply(FetchResult::getValue);
+    }
+
+    public CompletableFuture<FetchResult<List<Event>>> fetchTopMatchesResultAsync(long leagueId, int limit,
+                                                                                  Duration timeout) {
+        // Only id, name, kickoff and betline are read; markets and competitors are skipped while parsing
+        return asyncApiService.fetchResultAsync(appConfig.getEventsUrl(leagueId), Projections.TOP_MATCHES, timeout)
+                .thenApply(result -> result.map(eventResponse -> eventResponse.getData().stream()
+                        .filter(event -> "prematch".equalsIgnoreCase(event.getBetline()))
+                        .sorted(Comparator.comparingLong(Event::getKickoff))    // Sort by kickoff to get the closest event on top
+                                                                                // (assuming all events are in future)
+                        .limit(limit)
+                        .collect(Collectors.toList())));
     }
 
     public Market findMarketByName(EventDetailsResponse eventDetailsResponse, String marketName) {
@@ -91,4 +139,12 @@ public class SportService {
                 .findFirst()
                 .orElseThrow(() -> new RuntimeException("Market not found: " + marketName));
     }
+
+    public List<StageStats> getStageStats() {
+        return asyncApiService.getStageStats();
+    }
+
+    public void shutdown() {
+        asyncApiService.shutdown();
+    }
 }
\ No newline at end of file
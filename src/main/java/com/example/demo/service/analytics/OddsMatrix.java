@@ -0,0 +1,188 @@
+package com.example.demo.service.analytics;
+
+import com.example.demo.model.EventDetailsResponse;
+import com.example.demo.model.Market;
+import com.example.demo.model.Runner;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Column-oriented copy of the prices of many events, laid out as primitive arrays for {@link OddsAnalytics}.
+ *
+ * <p>Markets are numbered {@code 0..marketCount-1} and quotes (one runner price in one market) {@code 0..quoteCount-1}.
+ * The quotes of market {@code m} occupy {@code [marketOffset(m), marketOffset(m + 1))}. Quotes of the same runner id,
+ * for example from several snapshots of an event, share a runner slot, numbered {@code 0..runnerCount-1}.
+ * A market is priced when it is open and every runner in it is open with a positive price.
+ * All arrays are exact-sized when the matrix is built and never modified afterwards.</p>
+ */
+public final class OddsMatrix {
+
+    private final long[] marketEventIds;
+    private final long[] marketIds;
+    private final long[] marketTypeIds;
+    private final int[] marketOffsets;
+    private final boolean[] pricedMarkets;
+    private final double[] prices;
+    private final double[] impliedProbabilities;
+    private final int[] quoteMarkets;
+    private final int[] quoteRunners;
+    private final long[] runnerIds;
+
+    private OddsMatrix(long[] marketEventIds, long[] marketIds, long[] marketTypeIds, int[] marketOffsets,
+                       boolean[] pricedMarkets, double[] prices, int[] quoteMarkets, int[] quoteRunners,
+                       long[] runnerIds) {
+        this.marketEventIds = marketEventIds;
+        this.marketIds = marketIds;
+        this.marketTypeIds = marketTypeIds;
+        this.marketOffsets = marketOffsets;
+        this.pricedMarkets = pricedMarkets;
+        this.prices = prices;
+        this.quoteMarkets = quoteMarkets;
+        this.quoteRunners = quoteRunners;
+        this.runnerIds = runnerIds;
+        this.impliedProbabilities = new double[prices.length];
+        PriceKernels.reciprocals(prices, impliedProbabilities);
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public int getMarketCount() {
+        return marketIds.length;
+    }
+
+    public int getQuoteCount() {
+        return prices.length;
+    }
+
+    public int getRunnerCount() {
+        return runnerIds.length;
+    }
+
+    public long getMarketEventId(int market) {
+        return marketEventIds[market];
+    }
+
+    public long getMarketId(int market) {
+        return marketIds[market];
+    }
+
+    public long getMarketTypeId(int market) {
+        return marketTypeIds[market];
+    }
+
+    public int getMarketOffset(int market) {
+        return marketOffsets[market];
+    }
+
+    public boolean isPriced(int market) {
+        return pricedMarkets[market];
+    }
+
+    public double getPrice(int quote) {
+        return prices[quote];
+    }
+
+    public int getQuoteMarket(int quote) {
+        return quoteMarkets[quote];
+    }
+
+    public int getQuoteRunner(int quote) {
+        return quoteRunners[quote];
+    }
+
+    public long getRunnerId(int runner) {
+        return runnerIds[runner];
+    }
+
+    double[] prices() {
+        return prices;
+    }
+
+    double[] impliedProbabilities() {
+        return impliedProbabilities;
+    }
+
+    int[] marketOffsets() {
+        return marketOffsets;
+    }
+
+    boolean[] pricedMarkets() {
+        return pricedMarkets;
+    }
+
+    int[] quoteMarkets() {
+        return quoteMarkets;
+    }
+
+    int[] quoteRunners() {
+        return quoteRunners;
+    }
+
+    /**
+     * Collects event details and copies them into exact-sized arrays on {@link #build()}.
+     */
+    public static final class Builder {
+        private final List<Long> eventIds = new ArrayList<>();
+        private final List<List<Market>> eventMarkets = new ArrayList<>();
+        private int marketCount;
+        private int quoteCount;
+
+        private Builder() {
+        }
+
+        public Builder add(long eventId, EventDetailsResponse eventDetails) {
+            List<Market> markets = eventDetails.getMarkets();
+            eventIds.add(eventId);
+            eventMarkets.add(markets);
+            marketCount += markets.size();
+            for (Market market : markets) {
+                quoteCount += market.getRunners().size();
+            }
+            return this;
+        }
+
+        public OddsMatrix build() {
+            long[] marketEventIds = new long[marketCount];
+            long[] marketIds = new long[marketCount];
+            long[] marketTypeIds = new long[marketCount];
+            int[] marketOffsets = new int[marketCount + 1];
+            boolean[] pricedMarkets = new boolean[marketCount];
+            double[] prices = new double[quoteCount];
+            int[] quoteMarkets = new int[quoteCount];
+            int[] quoteRunners = new int[quoteCount];
+            Map<Long, Integer> runnerSlots = new HashMap<>();
+
+            int market = 0;
+            int quote = 0;
+            for (int event = 0; event < eventIds.size(); event++) {
+                for (Market source : eventMarkets.get(event)) {
+                    marketEventIds[market] = eventIds.get(event);
+                    marketIds[market] = source.getId();
+                    marketTypeIds[market] = source.getMarketTypeId();
+                    marketOffsets[market] = quote;
+                    boolean priced = source.isOpen();
+                    for (Runner runner : source.getRunners()) {
+                        priced &= runner.isOpen() && runner.getPrice() > 0;
+                        prices[quote] = runner.getPrice();
+                        quoteMarkets[quote] = market;
+                        quoteRunners[quote] = runnerSlots.computeIfAbsent(runner.getId(), id -> runnerSlots.size());
+                        quote++;
+                    }
+                    pricedMarkets[market] = priced;
+                    market++;
+                }
+            }
+            marketOffsets[marketCount] = quote;
+
+            long[] runnerIds = new long[runnerSlots.size()];
+            runnerSlots.forEach((runnerId, slot) -> runnerIds[slot] = runnerId);
+            return new OddsMatrix(marketEventIds, marketIds, marketTypeIds, marketOffsets, pricedMarkets,
+                    prices, quoteMarkets, quoteRunners, runnerIds);
+        }
+    }
+}
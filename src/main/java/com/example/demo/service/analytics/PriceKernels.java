@@ -0,0 +1,66 @@
+package com.example.demo.service.analytics;
+
+/**
+ * Tight loops over primitive price arrays.
+ *
+ * <p>The loops are kept branch-free and counted so that C2 can unroll and auto-vectorize them. Floating-point sums
+ * are not reordered by the JIT, so {@link #sum} splits the reduction over four independent accumulators itself.</p>
+ */
+final class PriceKernels {
+
+    private PriceKernels() {
+    }
+
+    /**
+     * Writes {@code 1 / price} for every positive price and 0 for missing (non-positive) prices.
+     */
+    static void reciprocals(double[] prices, double[] out) {
+        for (int i = 0; i < prices.length; i++) {
+            double price = prices[i];
+            out[i] = price > 0 ? 1.0 / price : 0.0;
+        }
+    }
+
+    static double sum(double[] values, int from, int to) {
+        double sum0 = 0;
+        double sum1 = 0;
+        double sum2 = 0;
+        double sum3 = 0;
+        int i = from;
+        for (; i + 3 < to; i += 4) {
+            sum0 += values[i];
+            sum1 += values[i + 1];
+            sum2 += values[i + 2];
+            sum3 += values[i + 3];
+        }
+        for (; i < to; i++) {
+            sum0 += values[i];
+        }
+        return (sum0 + sum1) + (sum2 + sum3);
+    }
+
+    /**
+     * Sums consecutive segments: {@code out[s] = sum(values[offsets[s]], ..., values[offsets[s + 1] - 1])}.
+     */
+    static void segmentSums(double[] values, int[] offsets, double[] out) {
+        for (int s = 0; s < out.length; s++) {
+            out[s] = sum(values, offsets[s], offsets[s + 1]);
+        }
+    }
+
+    /**
+     * Keeps the highest value per slot: {@code out[slots[i]] = max(out[slots[i]], values[i])}.
+     */
+    static void scatterMax(double[] values, int[] slots, double[] out) {
+        for (int i = 0; i < values.length; i++) {
+            int slot = slots[i];
+            out[slot] = Math.max(out[slot], values[i]);
+        }
+    }
+
+    static void scatterAdd(double[] values, int[] slots, double[] out) {
+        for (int i = 0; i < values.length; i++) {
+            out[slots[i]] += values[i];
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package com.example.demo.service.bus;
+
+/**
+ * What a subscription does when its buffer is full and another event arrives.
+ */
+public enum OverflowPolicy {
+    /** Discard the oldest buffered event to make room. */
+    DROP_OLDEST,
+    /** Discard the arriving event. */
+    DROP_NEWEST,
+    /**
+     * Keep only the latest event per runner (per market and per event for the other event types),
+     * discarding the oldest entry when the buffer is full of distinct keys.
+     */
+    CONFLATE_PER_RUNNER
+}
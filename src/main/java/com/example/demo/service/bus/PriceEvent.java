@@ -0,0 +1,53 @@
+package com.example.demo.service.bus;
+
+import lombok.Data;
+
+/**
+ * A change observed in polled data. Market fields are zero/null for {@link PriceEventType#EVENT_ADDED},
+ * runner fields are zero/null unless the type is {@link PriceEventType#RUNNER_PRICE_CHANGED}.
+ */
+@Data
+public class PriceEvent {
+    private final PriceEventType type;
+    private final long timestamp;
+    private final String sportName;
+    private final String leagueName;
+    private final long eventId;
+    private final String eventName;
+    private final long marketId;
+    private final long marketTypeId;
+    private final String marketName;
+    private final long runnerId;
+    private final String runnerName;
+    private final double previousPrice;
+    private final double price;
+
+    public PriceEvent(PriceEventType type, long timestamp, String sportName, String leagueName,
+                      long eventId, String eventName, long marketId, long marketTypeId, String marketName,
+                      long runnerId, String runnerName, double previousPrice, double price) {
+        this.type = type;
+        this.timestamp = timestamp;
+        this.sportName = sportName;
+        this.leagueName = leagueName;
+        this.eventId = eventId;
+        this.eventName = eventName;
+        this.marketId = marketId;
+        this.marketTypeId = marketTypeId;
+        this.marketName = marketName;
+        this.runnerId = runnerId;
+        this.runnerName = runnerName;
+        this.previousPrice = previousPrice;
+        this.price = price;
+    }
+
+    /**
+     * @return The key under which {@link OverflowPolicy#CONFLATE_PER_RUNNER} keeps only the latest event
+     */
+    Object conflationKey() {
+        return switch (type) {
+            case EVENT_ADDED -> "event:" + eventId;
+            case MARKET_UPDATED -> "market:" + marketId;
+            case RUNNER_PRICE_CHANGED -> runnerId;
+        };
+    }
+}
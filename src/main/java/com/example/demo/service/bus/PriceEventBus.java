@@ -0,0 +1,246 @@
+package com.example.demo.service.bus;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+
+/**
+ * In-process publish/subscribe bus for {@link PriceEvent}s.
+ *
+ * <p>Every subscription owns a bounded buffer and is drained on the delivery executor according to the
+ * demand signalled through {@link Flow.Subscription#request}. {@link #publish} never blocks: when a buffer
+ * is full the subscription's {@link OverflowPolicy} decides what is discarded, so a slow consumer never
+ * stalls the fetch pipeline.</p>
+ */
+public class PriceEventBus implements Flow.Publisher<PriceEvent>, AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(PriceEventBus.class);
+    private static final int DEFAULT_BUFFER_CAPACITY = 1024;
+
+    private final Executor deliveryExecutor;
+    private final List<BusSubscription> subscriptions = new CopyOnWriteArrayList<>();
+    private final AtomicLong droppedEvents = new AtomicLong();
+    private volatile boolean closed;
+
+    public PriceEventBus() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    public PriceEventBus(Executor deliveryExecutor) {
+        this.deliveryExecutor = deliveryExecutor;
+    }
+
+    /**
+     * Subscribes to all events with a {@value #DEFAULT_BUFFER_CAPACITY}-event buffer that drops the oldest event on overflow.
+     */
+    @Override
+    public void subscribe(Flow.Subscriber<? super PriceEvent> subscriber) {
+        subscribe(subscriber, PriceEventFilters.all(), DEFAULT_BUFFER_CAPACITY, OverflowPolicy.DROP_OLDEST);
+    }
+
+    /**
+     * Subscribes to the events matching a filter.
+     *
+     * @param subscriber     The subscriber
+     * @param filter         Events not matching the filter are never buffered for this subscriber
+     * @param bufferCapacity Maximum number of events buffered while the subscriber has no demand
+     * @param overflowPolicy What to discard when the buffer is full
+     */
+    public void subscribe(Flow.Subscriber<? super PriceEvent> subscriber, Predicate<PriceEvent> filter,
+                          int bufferCapacity, OverflowPolicy overflowPolicy) {
+        if (bufferCapacity <= 0) {
+            throw new IllegalArgumentException("Buffer capacity must be positive: " + bufferCapacity);
+        }
+        BusSubscription subscription = new BusSubscription(subscriber, filter, bufferCapacity, overflowPolicy);
+        subscriber.onSubscribe(subscription);
+        if (closed) {
+            subscription.complete();
+        } else {
+            subscriptions.add(subscription);
+        }
+    }
+
+    /**
+     * Offers an event to every matching subscription without blocking.
+     */
+    public void publish(PriceEvent event) {
+        if (closed) {
+            return;
+        }
+        for (BusSubscription subscription : subscriptions) {
+            if (subscription.filter.test(event)) {
+                subscription.offer(event);
+            }
+        }
+    }
+
+    public int getSubscriberCount() {
+        return subscriptions.size();
+    }
+
+    /**
+     * @return Number of events discarded by overflow policies across all subscriptions
+     */
+    public long getDroppedEvents() {
+        return droppedEvents.get();
+    }
+
+    /**
+     * Stops accepting events. Subscribers receive what is already buffered, then {@code onComplete}.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        for (BusSubscription subscription : subscriptions) {
+            subscription.complete();
+        }
+        subscriptions.clear();
+    }
+
+    private final class BusSubscription implements Flow.Subscription {
+        private final Flow.Subscriber<? super PriceEvent> subscriber;
+        private final Predicate<PriceEvent> filter;
+        private final int capacity;
+        private final OverflowPolicy overflowPolicy;
+        private final ArrayDeque<PriceEvent> queue;
+        private final LinkedHashMap<Object, PriceEvent> conflated;
+        private final AtomicLong demand = new AtomicLong();
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private volatile boolean cancelled;
+        private volatile boolean completing;
+
+        private BusSubscription(Flow.Subscriber<? super PriceEvent> subscriber, Predicate<PriceEvent> filter,
+                                int capacity, OverflowPolicy overflowPolicy) {
+            this.subscriber = subscriber;
+            this.filter = filter;
+            this.capacity = capacity;
+            this.overflowPolicy = overflowPolicy;
+            this.queue = overflowPolicy == OverflowPolicy.CONFLATE_PER_RUNNER ? null : new ArrayDeque<>();
+            this.conflated = overflowPolicy == OverflowPolicy.CONFLATE_PER_RUNNER ? new LinkedHashMap<>() : null;
+        }
+
+        @Override
+        public void request(long n) {
+            if (n <= 0) {
+                cancel();
+                subscriber.onError(new IllegalArgumentException("Non-positive request: " + n));
+                return;
+            }
+            demand.getAndAccumulate(n, (current, added) -> current + added < 0 ? Long.MAX_VALUE : current + added);
+            signal();
+        }
+
+        @Override
+        public void cancel() {
+            cancelled = true;
+            subscriptions.remove(this);
+            synchronized (this) {
+                if (queue != null) {
+                    queue.clear();
+                } else {
+                    conflated.clear();
+                }
+            }
+        }
+
+        private void offer(PriceEvent event) {
+            if (cancelled) {
+                return;
+            }
+            synchronized (this) {
+                if (queue != null) {
+                    if (queue.size() == capacity) {
+                        droppedEvents.incrementAndGet();
+                        if (overflowPolicy == OverflowPolicy.DROP_NEWEST) {
+                            return;
+                        }
+                        queue.pollFirst();
+                    }
+                    queue.addLast(event);
+                } else {
+                    // Replacing the buffered event of the same key conflates it; only evicting another key is a drop
+                    if (conflated.put(event.conflationKey(), event) == null && conflated.size() > capacity) {
+                        Iterator<Map.Entry<Object, PriceEvent>> oldest = conflated.entrySet().iterator();
+                        oldest.next();
+                        oldest.remove();
+                        droppedEvents.incrementAndGet();
+                    }
+                }
+            }
+            if (demand.get() > 0) {
+                signal();
+            }
+        }
+
+        private void complete() {
+            completing = true;
+            signal();
+        }
+
+        private synchronized PriceEvent poll() {
+            if (queue != null) {
+                return queue.pollFirst();
+            }
+            Iterator<PriceEvent> iterator = conflated.values().iterator();
+            if (!iterator.hasNext()) {
+                return null;
+            }
+            PriceEvent event = iterator.next();
+            iterator.remove();
+            return event;
+        }
+
+        private synchronized boolean isEmpty() {
+            return queue != null ? queue.isEmpty() : conflated.isEmpty();
+        }
+
+        private void signal() {
+            if (draining.compareAndSet(false, true)) {
+                deliveryExecutor.execute(this::drain);
+            }
+        }
+
+        private void drain() {
+            try {
+                while (!cancelled) {
+                    if (demand.get() > 0) {
+                        PriceEvent event = poll();
+                        if (event != null) {
+                            if (demand.get() != Long.MAX_VALUE) {
+                                demand.decrementAndGet();
+                            }
+                            subscriber.onNext(event);
+                            continue;
+                        }
+                    }
+                    if (completing && isEmpty()) {
+                        cancelled = true;
+                        subscriber.onComplete();
+                    }
+                    break;
+                }
+            } catch (RuntimeException e) {
+                logger.warn("Subscriber failed, cancelling its subscription", e);
+                cancel();
+                subscriber.onError(e);
+            } finally {
+                draining.set(false);
+            }
+            if (!cancelled && ((demand.get() > 0 && !isEmpty()) || (completing && isEmpty()))) {
+                signal();
+            }
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.example.demo.service.bus;
+
+import java.util.Set;
+import java.util.function.Predicate;
+
+/**
+ * Subscriber filters for {@link PriceEventBus}. Filters compose with {@link Predicate#and}.
+ */
+public final class PriceEventFilters {
+
+    private PriceEventFilters() {
+    }
+
+    public static Predicate<PriceEvent> all() {
+        return event -> true;
+    }
+
+    public static Predicate<PriceEvent> sport(String sportName) {
+        return event -> sportName.equalsIgnoreCase(event.getSportName());
+    }
+
+    public static Predicate<PriceEvent> league(String leagueName) {
+        return event -> leagueName.equalsIgnoreCase(event.getLeagueName());
+    }
+
+    /**
+     * Matches market and runner events of the given market types; event-added notifications always pass.
+     */
+    public static Predicate<PriceEvent> marketTypes(Set<Long> marketTypeIds) {
+        return event -> event.getType() == PriceEventType.EVENT_ADDED || marketTypeIds.contains(event.getMarketTypeId());
+    }
+
+    public static Predicate<PriceEvent> types(Set<PriceEventType> types) {
+        return event -> types.contains(event.getType());
+    }
+}
@@ -0,0 +1,72 @@
+package com.example.demo.service.bus;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Subscriber logging every received {@link PriceEvent} at DEBUG as key-value pairs and counting them per type.
+ * Demand is requested in batches, so the bus buffers and applies its overflow policy while logging falls behind.
+ */
+public class PriceEventLogger implements Flow.Subscriber<PriceEvent> {
+
+    private static final Logger logger = LoggerFactory.getLogger(PriceEventLogger.class);
+    private static final int REQUEST_BATCH = 256;
+
+    private final Map<PriceEventType, AtomicLong> received = new EnumMap<>(PriceEventType.class);
+    private Flow.Subscription subscription;
+    private int remaining;
+
+    public PriceEventLogger() {
+        for (PriceEventType type : PriceEventType.values()) {
+            received.put(type, new AtomicLong());
+        }
+    }
+
+    @Override
+    public void onSubscribe(Flow.Subscription subscription) {
+        this.subscription = subscription;
+        remaining = REQUEST_BATCH;
+        subscription.request(REQUEST_BATCH);
+    }
+
+    @Override
+    public void onNext(PriceEvent event) {
+        received.get(event.getType()).incrementAndGet();
+        if (logger.isDebugEnabled()) {
+            logger.atDebug()
+                    .addKeyValue("type", event.getType())
+                    .addKeyValue("eventId", event.getEventId())
+                    .addKeyValue("marketId", event.getMarketId())
+                    .addKeyValue("runnerId", event.getRunnerId())
+                    .addKeyValue("previousPrice", event.getPreviousPrice())
+                    .addKeyValue("price", event.getPrice())
+                    .log("Price event for {}", event.getEventName());
+        }
+        if (--remaining == 0) {
+            remaining = REQUEST_BATCH;
+            subscription.request(REQUEST_BATCH);
+        }
+    }
+
+    @Override
+    public void onError(Throwable throwable) {
+        logger.warn("Price event subscription failed: {}", throwable.getMessage());
+    }
+
+    @Override
+    public void onComplete() {
+        logger.debug("Price event subscription completed");
+    }
+
+    /**
+     * @return Number of events received so far of the given type
+     */
+    public long getReceived(PriceEventType type) {
+        return received.get(type).get();
+    }
+}
@@ -0,0 +1,7 @@
+package com.example.demo.service.bus;
+
+public enum PriceEventType {
+    EVENT_ADDED,
+    MARKET_UPDATED,
+    RUNNER_PRICE_CHANGED
+}
@@ -0,0 +1,188 @@
+package com.example.demo.service.execution;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Fixed-size thread pool for one pipeline stage (fetch, parse, build) with a bounded work queue.
+ *
+ * <p>When the queue is full, {@link #execute} blocks the submitting thread until a slot frees up instead of
+ * growing the queue. Stages submit to each other from their own worker threads, so a slow downstream stage
+ * stalls the stage feeding it, and so on up to the caller: the number of pending tasks, and of the response
+ * bodies they retain, never exceeds the sum of the stage capacities.</p>
+ *
+ * <p>Submitting against the flow never blocks: two stages feeding each other could otherwise block each other
+ * forever, e.g. a parse worker completing a league's top matches and starting its event fetches while every fetch
+ * worker waits for a parse slot. Stages declare what they feed with {@link #addDownstream}; when a worker of this
+ * stage or of any stage downstream of it finds the queue full, the task is handed to a virtual thread that waits for
+ * the slot instead. At most as many tasks as the queue holds wait this way; beyond that, the submitting worker runs
+ * the task itself, which keeps the stage bounded and slows down the stages fanning out against the flow.</p>
+ *
+ * <p>Tasks submitted after {@link #shutdown} are rejected with a {@link RejectedExecutionException}.</p>
+ */
+public final class BoundedStageExecutor implements Executor {
+
+    private static final Logger logger = LoggerFactory.getLogger(BoundedStageExecutor.class);
+    private static final long BLOCKED_WARNING_INTERVAL = 1_000;
+    private static final ThreadLocal<BoundedStageExecutor> CURRENT_STAGE = new ThreadLocal<>();
+    private static final Executor HAND_OFF = task -> Thread.ofVirtual().name("stage-hand-off").start(task);
+
+    private final String stage;
+    private final int queueCapacity;
+    private final ThreadPoolExecutor threadPool;
+    private final Semaphore handOffPermits;
+    private final AtomicLong blockedSubmissions = new AtomicLong();
+    private final AtomicLong rejectedTasks = new AtomicLong();
+    private final AtomicLong handedOffSubmissions = new AtomicLong();
+    private final AtomicLong callerRunTasks = new AtomicLong();
+    private final Set<BoundedStageExecutor> downstream = new CopyOnWriteArraySet<>();
+
+    /**
+     * @param stage         Name of the stage, used for thread names and statistics
+     * @param threads       Number of worker threads
+     * @param queueCapacity Maximum number of tasks waiting for a worker
+     * @param daemon        Whether the worker threads are daemon threads
+     */
+    public BoundedStageExecutor(String stage, int threads, int queueCapacity, boolean daemon) {
+        this.stage = stage;
+        this.queueCapacity = queueCapacity;
+        this.handOffPermits = new Semaphore(queueCapacity);
+        this.threadPool = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), threadFactory(daemon), new BlockWhenFull());
+    }
+
+    /**
+     * @return An executor starting every task on its own virtual thread, for callers that must not wait for
+     * a saturated stage, e.g. to keep a deadline
+     */
+    public static Executor handOff() {
+        return HAND_OFF;
+    }
+
+    /**
+     * Declares that tasks of this stage submit to the given stage, whose workers then never block on this one.
+     *
+     * @param stageExecutor The stage fed by this one
+     */
+    public void addDownstream(BoundedStageExecutor stageExecutor) {
+        downstream.add(stageExecutor);
+    }
+
+    @Override
+    public void execute(Runnable task) {
+        threadPool.execute(task);
+    }
+
+    public String getStage() {
+        return stage;
+    }
+
+    public StageStats getStats() {
+        return new StageStats(stage, threadPool.getQueue().size(), queueCapacity, threadPool.getActiveCount(),
+                threadPool.getCompletedTaskCount(), blockedSubmissions.get(), handedOffSubmissions.get(),
+                callerRunTasks.get(), rejectedTasks.get());
+    }
+
+    /**
+     * Stops accepting tasks; already queued tasks still run.
+     */
+    public void shutdown() {
+        threadPool.shutdown();
+    }
+
+    public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+        return threadPool.awaitTermination(timeout, unit);
+    }
+
+    private ThreadFactory threadFactory(boolean daemon) {
+        AtomicInteger threadNumber = new AtomicInteger(1);
+        return runnable -> {
+            Thread thread = new Thread(() -> {
+                CURRENT_STAGE.set(this);
+                runnable.run();
+            }, stage + "-" + threadNumber.getAndIncrement());
+            thread.setDaemon(daemon);
+            return thread;
+        };
+    }
+
+    /**
+     * @return Whether this stage feeds the given one, directly or through other stages, or is the same stage
+     */
+    private boolean feeds(BoundedStageExecutor stageExecutor) {
+        if (stageExecutor == this) {
+            return true;
+        }
+        for (BoundedStageExecutor next : downstream) {
+            if (next.feeds(stageExecutor)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private final class BlockWhenFull implements RejectedExecutionHandler {
+        @Override
+        public void rejectedExecution(Runnable task, ThreadPoolExecutor executor) {
+            if (executor.isShutdown()) {
+                reject(task);
+            }
+            BoundedStageExecutor submittingStage = CURRENT_STAGE.get();
+            if (submittingStage != null && feeds(submittingStage)) {
+                if (!handOffPermits.tryAcquire()) {
+                    callerRunTasks.incrementAndGet();
+                    task.run();
+                    return;
+                }
+                handedOffSubmissions.incrementAndGet();
+                HAND_OFF.execute(() -> {
+                    try {
+                        enqueue(task, executor);
+                    } catch (RejectedExecutionException e) {
+                        logger.warn("Stage {} dropped a handed-off task: {}", stage, e.getMessage());
+                    } finally {
+                        handOffPermits.release();
+                    }
+                });
+                return;
+            }
+            long blocked = blockedSubmissions.incrementAndGet();
+            if (blocked % BLOCKED_WARNING_INTERVAL == 1) {
+                logger.warn("Stage {} is saturated, blocking submitters ({} blocked submissions so far)",
+                        stage, blocked);
+            }
+            enqueue(task, executor);
+        }
+
+        private void enqueue(Runnable task, ThreadPoolExecutor executor) {
+            try {
+                executor.getQueue().put(task);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                reject(task);
+            }
+            // Shut down while waiting for a slot: the task would never run
+            if (executor.isShutdown() && executor.getQueue().remove(task)) {
+                reject(task);
+            }
+        }
+
+        private void reject(Runnable task) {
+            rejectedTasks.incrementAndGet();
+            throw new RejectedExecutionException("Stage " + stage + " rejected " + task);
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.example.demo.service.execution;
+
+import lombok.Data;
+
+/**
+ * Point-in-time statistics of a {@link BoundedStageExecutor}.
+ */
+@Data
+public class StageStats {
+    private final String stage;
+    private final int queueDepth;
+    private final int queueCapacity;
+    private final int activeThreads;
+    private final long completedTasks;
+    private final long blockedSubmissions;
+    private final long handedOffSubmissions;
+    private final long callerRunTasks;
+    private final long rejectedTasks;
+
+    public StageStats(String stage, int queueDepth, int queueCapacity, int activeThreads, long completedTasks,
+                      long blockedSubmissions, long handedOffSubmissions, long callerRunTasks, long rejectedTasks) {
+        this.stage = stage;
+        this.queueDepth = queueDepth;
+        this.queueCapacity = queueCapacity;
+        this.activeThreads = activeThreads;
+        this.completedTasks = completedTasks;
+        this.blockedSubmissions = blockedSubmissions;
+        this.handedOffSubmissions = handedOffSubmissions;
+        this.callerRunTasks = callerRunTasks;
+        this.rejectedTasks = rejectedTasks;
+    }
+}
@@ -0,0 +1,253 @@
+package com.example.demo.service.feed;
+
+import com.example.demo.model.Event;
+import com.example.demo.model.EventDetailsResponse;
+import com.example.demo.model.League;
+import com.example.demo.model.Market;
+import com.example.demo.model.Runner;
+import com.example.demo.model.Sport;
+import com.example.demo.model.report.feed.FeedEventReport;
+import com.example.demo.model.report.feed.FeedLeagueReport;
+import com.example.demo.model.report.feed.FeedMarketReport;
+import com.example.demo.model.report.feed.FeedReport;
+import com.example.demo.model.report.feed.FeedRunnerReport;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Builds the top leagues report from several {@link FeedProvider}s at once.
+ *
+ * <p>All providers are fetched in parallel, each with its own chain of sports tree, league events and event
+ * details requests, so the report takes as long as the slowest provider rather than the sum of all of them.
+ * The results are then merged: leagues are matched by sport and league name, events by name and kickoff
+ * (within {@link #KICKOFF_TOLERANCE}), markets by name within an event and runners by name within a market.
+ * Names are compared without case, accents, punctuation or the separator between the competitors.
+ * Every merged runner carries the price of each source quoting it.</p>
+ *
+ * <p>A provider whose sports tree cannot be fetched is listed in {@link FeedReport#getFailedSources()};
+ * a league that cannot be fetched from a provider is left out for that provider only.</p>
+ */
+public class FeedAggregator {
+
+    private static final Logger logger = LoggerFactory.getLogger(FeedAggregator.class);
+    private static final int DEFAULT_MATCHES_LIMIT = 2;
+    private static final Duration KICKOFF_TOLERANCE = Duration.ofMinutes(5);
+
+    private final List<FeedProvider> providers;
+
+    public FeedAggregator(List<FeedProvider> providers) {
+        this.providers = List.copyOf(providers);
+    }
+
+    /**
+     * Fetches the top leagues from all providers and merges them.
+     *
+     * @param selectedSportNames A list of sport names to filter the sports data.
+     *                           If null or empty, all sports will be included in the report.
+     * @return The merged report, with leagues in the order of the selection and of the first provider listing them
+     */
+    public FeedReport aggregate(List<String> selectedSportNames) {
+        List<CompletableFuture<ProviderFeed>> futureFeeds = providers.stream()
+                .map(provider -> fetchProvider(provider, selectedSportNames)
+                        .exceptionally(e -> {
+                            logger.warn("Feed provider {} failed: {}", provider.getName(), e.getMessage());
+                            return null;
+                        }))
+                .toList();
+        CompletableFuture.allOf(futureFeeds.toArray(CompletableFuture[]::new)).join();
+
+        List<String> sources = providers.stream().map(FeedProvider::getName).toList();
+        List<String> failedSources = new ArrayList<>();
+        List<ProviderFeed> feeds = new ArrayList<>();
+        for (int i = 0; i < providers.size(); i++) {
+            ProviderFeed feed = futureFeeds.get(i).join();
+            if (feed == null) {
+                failedSources.add(sources.get(i));
+            } else {
+                feeds.add(feed);
+            }
+        }
+        return new FeedReport(sources, failedSources, merge(feeds, selectedSportNames));
+    }
+
+    private CompletableFuture<ProviderFeed> fetchProvider(FeedProvider provider, List<String> selectedSportNames) {
+        return provider.fetchSportsAsync().thenCompose(sports -> {
+            List<CompletableFuture<LeagueFeed>> futureLeagues = new ArrayList<>();
+            for (Sport sport : sports) {
+                if (isSelected(sport, selectedSportNames)) {
+                    for (League league : topLeagues(sport)) {
+                        futureLeagues.add(fetchLeague(provider, sport.getName(), league));
+                    }
+                }
+            }
+            return CompletableFuture.allOf(futureLeagues.toArray(CompletableFuture[]::new))
+                    .thenApply(v -> new ProviderFeed(provider.getName(), futureLeagues.stream()
+                            .map(CompletableFuture::join)
+                            .filter(Objects::nonNull)
+                            .toList()));
+        });
+    }
+
+    private CompletableFuture<LeagueFeed> fetchLeague(FeedProvider provider, String sportName, League league) {
+        return provider.fetchEventsAsync(league.getId())
+                .thenCompose(events -> {
+                    List<Event> topMatches = events.stream()
+                            .filter(event -> "prematch".equalsIgnoreCase(event.getBetline()))
+                            .sorted(Comparator.comparingLong(Event::getKickoff))
+                            .limit(DEFAULT_MATCHES_LIMIT)
+                            .toList();
+                    List<CompletableFuture<EventDetailsResponse>> futureDetails = topMatches.stream()
+                            .map(event -> provider.fetchEventDetailsAsync(event.getId()))
+                            .toList();
+                    return CompletableFuture.allOf(futureDetails.toArray(CompletableFuture[]::new))
+                            .thenApply(v -> {
+                                List<EventFeed> eventFeeds = new ArrayList<>();
+                                for (int i = 0; i < topMatches.size(); i++) {
+                                    eventFeeds.add(new EventFeed(topMatches.get(i), futureDetails.get(i).join()));
+                                }
+                                return new LeagueFeed(sportName, league, eventFeeds);
+                            });
+                })
+                .exceptionally(e -> {
+                    logger.warn("Skipping league {} of feed provider {}: {}",
+                            league.getName(), provider.getName(), e.getMessage());
+                    return null;
+                });
+    }
+
+    private static boolean isSelected(Sport sport, List<String> selectedSportNames) {
+        return selectedSportNames == null || selectedSportNames.isEmpty()
+                || selectedSportNames.stream().anyMatch(name -> name.equalsIgnoreCase(sport.getName()));
+    }
+
+    private static List<League> topLeagues(Sport sport) {
+        return sport.getRegions().stream()
+                .flatMap(region -> region.getLeagues().stream())
+                .filter(League::isTop)
+                .sorted(Comparator.comparing(League::getTopOrder))
+                .toList();
+    }
+
+    private static List<FeedLeagueReport> merge(List<ProviderFeed> feeds, List<String> selectedSportNames) {
+        Map<String, Integer> sportOrder = new HashMap<>();
+        if (selectedSportNames != null) {
+            selectedSportNames.forEach(name -> sportOrder.putIfAbsent(FeedKeys.name(name), sportOrder.size()));
+        }
+        Map<String, MergedLeague> leagues = new LinkedHashMap<>();
+        for (ProviderFeed feed : feeds) {
+            for (LeagueFeed leagueFeed : feed.leagues()) {
+                String sportKey = FeedKeys.name(leagueFeed.sportName());
+                sportOrder.putIfAbsent(sportKey, sportOrder.size());
+                leagues.computeIfAbsent(sportKey + '/' + FeedKeys.name(leagueFeed.league().getName()),
+                                key -> new MergedLeague(sportKey,
+                                        new FeedLeagueReport(leagueFeed.sportName(), leagueFeed.league().getName())))
+                        .add(feed.source(), leagueFeed);
+            }
+        }
+        return leagues.values().stream()
+                .sorted(Comparator.comparingInt(league -> sportOrder.get(league.sportKey)))
+                .map(MergedLeague::build)
+                .toList();
+    }
+
+    private record ProviderFeed(String source, List<LeagueFeed> leagues) {
+    }
+
+    private record LeagueFeed(String sportName, League league, List<EventFeed> events) {
+    }
+
+    private record EventFeed(Event event, EventDetailsResponse details) {
+    }
+
+    private static final class MergedLeague {
+        private final String sportKey;
+        private final FeedLeagueReport report;
+        private final Map<String, List<MergedEvent>> eventsByName = new HashMap<>();
+        private final List<MergedEvent> events = new ArrayList<>();
+
+        private MergedLeague(String sportKey, FeedLeagueReport report) {
+            this.sportKey = sportKey;
+            this.report = report;
+        }
+
+        private void add(String source, LeagueFeed leagueFeed) {
+            for (EventFeed eventFeed : leagueFeed.events()) {
+                Event event = eventFeed.event();
+                List<MergedEvent> sameName = eventsByName.computeIfAbsent(FeedKeys.event(event.getName()),
+                        key -> new ArrayList<>());
+                MergedEvent mergedEvent = sameName.stream()
+                        .filter(candidate -> Math.abs(candidate.report.getKickoff() - event.getKickoff())
+                                <= KICKOFF_TOLERANCE.toMillis())
+                        .findFirst()
+                        .orElse(null);
+                if (mergedEvent == null) {
+                    mergedEvent = new MergedEvent(new FeedEventReport(event.getName(), event.getKickoff()));
+                    sameName.add(mergedEvent);
+                    events.add(mergedEvent);
+                }
+                mergedEvent.add(source, event.getId(), eventFeed.details());
+            }
+        }
+
+        private FeedLeagueReport build() {
+            events.stream()
+                    .map(mergedEvent -> mergedEvent.report)
+                    .sorted(Comparator.comparingLong(FeedEventReport::getKickoff))
+                    .forEach(report::addEventReport);
+            return report;
+        }
+    }
+
+    private static final class MergedEvent {
+        private final FeedEventReport report;
+        private final Map<String, MergedMarket> markets = new HashMap<>();
+
+        private MergedEvent(FeedEventReport report) {
+            this.report = report;
+        }
+
+        private void add(String source, long eventId, EventDetailsResponse details) {
+            report.addSourceEventId(source, eventId);
+            if (details.getMarkets() == null) {
+                return;
+            }
+            for (Market market : details.getMarkets()) {
+                MergedMarket mergedMarket = markets.computeIfAbsent(FeedKeys.name(market.getName()), key -> {
+                    MergedMarket created = new MergedMarket(new FeedMarketReport(market.getName()));
+                    report.addMarketReport(created.report);
+                    return created;
+                });
+                mergedMarket.add(source, market);
+            }
+        }
+    }
+
+    private static final class MergedMarket {
+        private final FeedMarketReport report;
+        private final Map<String, FeedRunnerReport> runners = new HashMap<>();
+
+        private MergedMarket(FeedMarketReport report) {
+            this.report = report;
+        }
+
+        private void add(String source, Market market) {
+            for (Runner runner : market.getRunners()) {
+                runners.computeIfAbsent(FeedKeys.name(runner.getName()), key -> {
+                    FeedRunnerReport created = new FeedRunnerReport(runner.getName());
+                    report.addRunner(created);
+                    return created;
+                }).addSourcePrice(source, runner.getPrice());
+            }
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.example.demo.service.feed;
+
+import java.text.Normalizer;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * Normalization of names into the keys events, markets and runners are matched by across providers.
+ */
+final class FeedKeys {
+
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final Pattern VERSUS = Pattern.compile("(^| )(vs|v)( |$)");
+
+    private FeedKeys() {
+    }
+
+    /**
+     * @return The name without case, accents and punctuation, e.g. {@code "Total (2.5)"} becomes {@code "total 2 5"}
+     */
+    static String name(String name) {
+        if (name == null) {
+            return "";
+        }
+        String stripped = DIACRITICS.matcher(Normalizer.normalize(name, Normalizer.Form.NFD)).replaceAll("");
+        return SEPARATORS.matcher(stripped.toLowerCase(Locale.ROOT)).replaceAll(" ").trim();
+    }
+
+    /**
+     * @return The normalized event name, which also ignores the separator between the competitors,
+     *         so {@code "Home - Away"} and {@code "Home vs. Away"} have the same key
+     */
+    static String event(String eventName) {
+        return VERSUS.matcher(name(eventName)).replaceAll(" ").trim();
+    }
+}
@@ -0,0 +1,33 @@
+package com.example.demo.service.feed;
+
+import com.example.demo.model.Event;
+import com.example.demo.model.EventDetailsResponse;
+import com.example.demo.model.Sport;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Upstream odds feed aggregated by the {@link FeedAggregator}.
+ *
+ * <p>Implementations map their upstream onto the betline model: the sports tree with its top leagues, the events
+ * of a league and the markets of an event. Ids are only meaningful within one provider; events, markets and
+ * runners are matched across providers by name. Implementations are created by a {@link FeedProviderFactory}
+ * registered for the {@link java.util.ServiceLoader}.</p>
+ */
+public interface FeedProvider {
+
+    /**
+     * @return Name of the provider, used as the source of its prices
+     */
+    String getName();
+
+    CompletableFuture<List<Sport>> fetchSportsAsync();
+
+    /**
+     * @return Events of the league; only id, name, kickoff and betline have to be filled in
+     */
+    CompletableFuture<List<Event>> fetchEventsAsync(long leagueId);
+
+    CompletableFuture<EventDetailsResponse> fetchEventDetailsAsync(long eventId);
+}
@@ -0,0 +1,17 @@
+package com.example.demo.service.feed;
+
+import com.example.demo.config.AppContext;
+
+/**
+ * Service provider interface creating {@link FeedProvider}s, registered in
+ * {@code META-INF/services/com.example.demo.service.feed.FeedProviderFactory}.
+ */
+public interface FeedProviderFactory {
+
+    /**
+     * @return Name selecting the provider in the {@code feed.providers} property
+     */
+    String getName();
+
+    FeedProvider create(AppContext appContext);
+}
@@ -0,0 +1,48 @@
+package com.example.demo.service.feed;
+
+import com.example.demo.config.AppContext;
+import com.example.demo.exception.ApiException;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.ServiceLoader;
+import java.util.Set;
+
+/**
+ * Looks up the {@link FeedProvider}s configured in {@code feed.providers}.
+ */
+public final class FeedProviders {
+
+    private FeedProviders() {
+    }
+
+    /**
+     * Creates the configured providers from the {@link FeedProviderFactory}s on the class path.
+     * Prices are matched to their source by provider name, so every provider must be named differently.
+     *
+     * @throws ApiException if a configured provider has no factory, or two providers have the same name
+     */
+    public static List<FeedProvider> load(AppContext appContext) {
+        Map<String, FeedProviderFactory> factories = new HashMap<>();
+        for (FeedProviderFactory factory : ServiceLoader.load(FeedProviderFactory.class)) {
+            factories.put(factory.getName(), factory);
+        }
+        List<FeedProvider> providers = new ArrayList<>();
+        Set<String> providerNames = new HashSet<>();
+        for (String name : appContext.getAppConfig().getFeedProviders()) {
+            FeedProviderFactory factory = factories.get(name);
+            if (factory == null) {
+                throw new ApiException("Unknown feed provider: " + name + ", available: " + factories.keySet());
+            }
+            FeedProvider provider = factory.create(appContext);
+            if (!providerNames.add(provider.getName())) {
+                throw new ApiException("Duplicate feed provider: " + provider.getName());
+            }
+            providers.add(provider);
+        }
+        return providers;
+    }
+}
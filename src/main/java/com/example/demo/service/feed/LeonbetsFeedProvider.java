@@ -0,0 +1,54 @@
+package com.example.demo.service.feed;
+
+import com.example.demo.model.Event;
+import com.example.demo.model.EventDetailsResponse;
+import com.example.demo.model.EventResponse;
+import com.example.demo.model.Sport;
+import com.example.demo.service.SportService;
+import com.example.demo.service.projection.Projections;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * {@link FeedProvider} of the leonbets betline API configured in {@code application.properties}.
+ */
+public class LeonbetsFeedProvider implements FeedProvider {
+
+    public static final String NAME = "leonbets";
+
+    private final String name;
+    private final SportService sportService;
+
+    public LeonbetsFeedProvider(SportService sportService) {
+        this(NAME, sportService);
+    }
+
+    /**
+     * @param name Name of the provider, to aggregate several deployments of the same API
+     */
+    public LeonbetsFeedProvider(String name, SportService sportService) {
+        this.name = name;
+        this.sportService = sportService;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public CompletableFuture<List<Sport>> fetchSportsAsync() {
+        return sportService.fetchSportsDataAsync();
+    }
+
+    @Override
+    public CompletableFuture<List<Event>> fetchEventsAsync(long leagueId) {
+        return sportService.fetchEventsDataAsync(leagueId, Projections.TOP_MATCHES).thenApply(EventResponse::getData);
+    }
+
+    @Override
+    public CompletableFuture<EventDetailsResponse> fetchEventDetailsAsync(long eventId) {
+        return sportService.fetchEventDetailsAsync(eventId, Projections.EVENT_MARKETS);
+    }
+}
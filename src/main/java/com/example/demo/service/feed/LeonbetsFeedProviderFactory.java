@@ -0,0 +1,22 @@
+package com.example.demo.service.feed;
+
+import com.example.demo.config.AppContext;
+import com.example.demo.service.AsyncApiService;
+import com.example.demo.service.SportService;
+
+/**
+ * Creates the {@link LeonbetsFeedProvider} on the HTTP client and executors of the {@link AppContext}.
+ */
+public class LeonbetsFeedProviderFactory implements FeedProviderFactory {
+
+    @Override
+    public String getName() {
+        return LeonbetsFeedProvider.NAME;
+    }
+
+    @Override
+    public FeedProvider create(AppContext appContext) {
+        return new LeonbetsFeedProvider(
+                new SportService(new AsyncApiService(appContext, null), appContext.getAppConfig()));
+    }
+}
@@ -0,0 +1,331 @@
+package com.example.demo.service.history;
+
+import com.example.demo.model.Market;
+import com.example.demo.model.Runner;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * Append-only, segment-rotated binary log of runner prices.
+ *
+ * <p>Producers hand records to {@link #record} without blocking; a single writer thread appends them to
+ * fixed-size, memory-mapped segment files of 40-byte records
+ * (timestamp, event id, market id, runner id, price). When the queue is full the record is dropped
+ * and counted, so fetching and report generation are never slowed down by the log.</p>
+ *
+ * <p>Timestamps are clamped to be non-decreasing within the log, which lets range reads binary search
+ * a segment. Every segment keeps a sparse per-runner index with the runner's first and last timestamp,
+ * so {@link #query} only scans the segments that can contain the runner.</p>
+ */
+public class OddsHistoryLog implements Closeable {
+
+    private static final Logger logger = LoggerFactory.getLogger(OddsHistoryLog.class);
+    private static final int RECORD_SIZE = 5 * Long.BYTES;
+    private static final String SEGMENT_PREFIX = "odds-";
+    private static final String SEGMENT_SUFFIX = ".seg";
+    // 2.5 MiB per segment, at most 40 MiB of history on disk
+    private static final int DEFAULT_SEGMENT_RECORDS = 1 << 16;
+    private static final int DEFAULT_MAX_SEGMENTS = 16;
+    private static final int DEFAULT_QUEUE_CAPACITY = 1 << 16;
+    private static final int WRITE_BATCH = 1024;
+
+    private final Path directory;
+    private final int segmentRecords;
+    private final int maxSegments;
+    private final BlockingQueue<PricePoint> queue;
+    private final List<Segment> segments = new CopyOnWriteArrayList<>();
+    private final AtomicLong droppedRecords = new AtomicLong();
+    private final Thread writer;
+    private volatile boolean running = true;
+    private long lastTimestamp;
+
+    private OddsHistoryLog(Path directory, int segmentRecords, int maxSegments, int queueCapacity) throws IOException {
+        this.directory = directory;
+        this.segmentRecords = segmentRecords;
+        this.maxSegments = maxSegments;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        Files.createDirectories(directory);
+        recoverSegments();
+        this.writer = new Thread(this::writeLoop, "odds-history-writer");
+        this.writer.setDaemon(true);
+        this.writer.start();
+    }
+
+    public static OddsHistoryLog open(Path directory) throws IOException {
+        return new OddsHistoryLog(directory, DEFAULT_SEGMENT_RECORDS, DEFAULT_MAX_SEGMENTS, DEFAULT_QUEUE_CAPACITY);
+    }
+
+    public static OddsHistoryLog open(Path directory, int segmentRecords, int maxSegments, int queueCapacity)
+            throws IOException {
+        return new OddsHistoryLog(directory, segmentRecords, maxSegments, queueCapacity);
+    }
+
+    /**
+     * Queues a price record for writing. Never blocks.
+     *
+     * @return false if the record was dropped because the writer is behind
+     */
+    public boolean record(long timestamp, long eventId, long marketId, long runnerId, double price) {
+        if (!running) {
+            return false;
+        }
+        boolean accepted = queue.offer(new PricePoint(timestamp, eventId, marketId, runnerId, price));
+        if (!accepted) {
+            droppedRecords.incrementAndGet();
+        }
+        return accepted;
+    }
+
+    /**
+     * Queues the current price of every runner of the given markets.
+     *
+     * @param eventId The event the markets belong to
+     * @param markets The markets as fetched from the event details endpoint
+     */
+    public void record(long eventId, List<Market> markets) {
+        if (markets == null) {
+            return;
+        }
+        long timestamp = System.currentTimeMillis();
+        for (Market market : markets) {
+            if (market.getRunners() == null) {
+                continue;
+            }
+            for (Runner runner : market.getRunners()) {
+                record(timestamp, eventId, market.getId(), runner.getId(), runner.getPrice());
+            }
+        }
+    }
+
+    /**
+     * Returns all prices recorded for a runner within the given time range, oldest first.
+     *
+     * @param runnerId The runner id
+     * @param from     Start of the range, inclusive, in epoch millis
+     * @param to       End of the range, inclusive, in epoch millis
+     * @return The matching price points
+     */
+    public List<PricePoint> query(long runnerId, long from, long to) {
+        List<PricePoint> result = new ArrayList<>();
+        for (Segment segment : segments) {
+            long[] range = segment.runnerIndex.get(runnerId);
+            if (range == null || range[1] < from || range[0] > to) {
+                continue;
+            }
+            segment.scan(runnerId, Math.max(from, range[0]), Math.min(to, range[1]), result);
+        }
+        return result;
+    }
+
+    public long getDroppedRecords() {
+        return droppedRecords.get();
+    }
+
+    public int getQueueDepth() {
+        return queue.size();
+    }
+
+    /**
+     * Stops accepting records, writes everything still queued and flushes the segments to disk.
+     */
+    @Override
+    public void close() throws IOException {
+        // Not interrupted: an interrupt during a channel operation would close it and fail the remaining appends.
+        // The writer notices within one poll timeout.
+        running = false;
+        try {
+            writer.join(TimeUnit.SECONDS.toMillis(10));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        for (Segment segment : segments) {
+            segment.buffer.force();
+        }
+    }
+
+    private void writeLoop() {
+        List<PricePoint> batch = new ArrayList<>(WRITE_BATCH);
+        while (running || !queue.isEmpty()) {
+            try {
+                if (queue.drainTo(batch, WRITE_BATCH) == 0) {
+                    PricePoint first = queue.poll(100, TimeUnit.MILLISECONDS);
+                    if (first == null) {
+                        continue;
+                    }
+                    batch.add(first);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            try {
+                for (PricePoint point : batch) {
+                    append(point);
+                }
+            } catch (IOException e) {
+                logger.error("Failed to append {} odds records", batch.size(), e);
+            }
+            batch.clear();
+        }
+    }
+
+    private void append(PricePoint point) throws IOException {
+        Segment segment = segments.isEmpty() ? null : segments.get(segments.size() - 1);
+        if (segment == null || segment.count == segment.capacity) {
+            segment = rotate(segment == null ? 0 : segment.sequence + 1);
+        }
+        lastTimestamp = Math.max(lastTimestamp, point.getTimestamp());
+        segment.append(lastTimestamp, point.getEventId(), point.getMarketId(), point.getRunnerId(), point.getPrice());
+    }
+
+    private Segment rotate(long sequence) throws IOException {
+        if (!segments.isEmpty()) {
+            segments.get(segments.size() - 1).buffer.force();
+        }
+        Segment segment = Segment.open(directory.resolve(segmentFileName(sequence)), sequence, segmentRecords);
+        segments.add(segment);
+        while (segments.size() > maxSegments) {
+            Segment oldest = segments.remove(0);
+            Files.deleteIfExists(oldest.path);
+        }
+        return segment;
+    }
+
+    private void recoverSegments() throws IOException {
+        List<Path> files;
+        try (Stream<Path> listing = Files.list(directory)) {
+            files = listing
+                    .filter(path -> path.getFileName().toString().startsWith(SEGMENT_PREFIX))
+                    .filter(path -> path.getFileName().toString().endsWith(SEGMENT_SUFFIX))
+                    .sorted()
+                    .toList();
+        }
+        for (Path file : files) {
+            String name = file.getFileName().toString();
+            long sequence = Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+            int capacity = (int) (Files.size(file) / RECORD_SIZE);
+            Segment segment = Segment.open(file, sequence, capacity);
+            segment.recover();
+            segments.add(segment);
+            lastTimestamp = Math.max(lastTimestamp, segment.lastTimestamp());
+        }
+    }
+
+    private static String segmentFileName(long sequence) {
+        return String.format("%s%012d%s", SEGMENT_PREFIX, sequence, SEGMENT_SUFFIX);
+    }
+
+    /**
+     * A fixed-size memory-mapped segment. Written only by the writer thread; {@link #count} publishes
+     * appended records to readers.
+     */
+    private static final class Segment {
+        private final Path path;
+        private final long sequence;
+        private final int capacity;
+        private final MappedByteBuffer buffer;
+        private final Map<Long, long[]> runnerIndex = new ConcurrentHashMap<>();
+        private volatile int count;
+
+        private Segment(Path path, long sequence, int capacity, MappedByteBuffer buffer) {
+            this.path = path;
+            this.sequence = sequence;
+            this.capacity = capacity;
+            this.buffer = buffer;
+        }
+
+        static Segment open(Path path, long sequence, int capacity) throws IOException {
+            try (FileChannel channel = FileChannel.open(path,
+                    StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, (long) capacity * RECORD_SIZE);
+                return new Segment(path, sequence, capacity, buffer);
+            }
+        }
+
+        void append(long timestamp, long eventId, long marketId, long runnerId, double price) {
+            int offset = count * RECORD_SIZE;
+            buffer.putLong(offset, timestamp);
+            buffer.putLong(offset + 8, eventId);
+            buffer.putLong(offset + 16, marketId);
+            buffer.putLong(offset + 24, runnerId);
+            buffer.putDouble(offset + 32, price);
+            index(runnerId, timestamp);
+            count++;
+        }
+
+        /**
+         * Rebuilds the record count and runner index of a segment written by a previous process.
+         * Unwritten records are zero-filled, so the first zero timestamp marks the end.
+         */
+        void recover() {
+            int recovered = 0;
+            while (recovered < capacity && buffer.getLong(recovered * RECORD_SIZE) != 0) {
+                index(buffer.getLong(recovered * RECORD_SIZE + 24), buffer.getLong(recovered * RECORD_SIZE));
+                recovered++;
+            }
+            count = recovered;
+        }
+
+        long lastTimestamp() {
+            return count == 0 ? 0 : buffer.getLong((count - 1) * RECORD_SIZE);
+        }
+
+        void scan(long runnerId, long from, long to, List<PricePoint> result) {
+            int end = count;
+            int index = firstAtOrAfter(from, end);
+            for (; index < end; index++) {
+                int offset = index * RECORD_SIZE;
+                long timestamp = buffer.getLong(offset);
+                if (timestamp > to) {
+                    break;
+                }
+                if (buffer.getLong(offset + 24) == runnerId) {
+                    result.add(new PricePoint(timestamp, buffer.getLong(offset + 8), buffer.getLong(offset + 16),
+                            runnerId, buffer.getDouble(offset + 32)));
+                }
+            }
+        }
+
+        private int firstAtOrAfter(long timestamp, int end) {
+            int low = 0;
+            int high = end;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (buffer.getLong(mid * RECORD_SIZE) < timestamp) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+
+        private void index(long runnerId, long timestamp) {
+            long[] range = runnerIndex.get(runnerId);
+            if (range == null) {
+                runnerIndex.put(runnerId, new long[]{timestamp, timestamp});
+            } else {
+                // Replaced rather than updated in place so readers never see a torn range
+                runnerIndex.put(runnerId, new long[]{range[0], timestamp});
+            }
+        }
+    }
+}
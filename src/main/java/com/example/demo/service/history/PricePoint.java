@@ -0,0 +1,20 @@
+package com.example.demo.service.history;
+
+import lombok.Data;
+
+@Data
+public class PricePoint {
+    private final long timestamp;
+    private final long eventId;
+    private final long marketId;
+    private final long runnerId;
+    private final double price;
+
+    public PricePoint(long timestamp, long eventId, long marketId, long runnerId, double price) {
+        this.timestamp = timestamp;
+        this.eventId = eventId;
+        this.marketId = marketId;
+        this.runnerId = runnerId;
+        this.price = price;
+    }
+}
@@ -0,0 +1,139 @@
+package com.example.demo.service.ingest;
+
+import com.example.demo.model.Event;
+import com.example.demo.model.League;
+import com.example.demo.model.report.EventReport;
+import com.example.demo.model.report.ReportResult;
+import com.example.demo.model.report.SportReport;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Ingestion stage collecting league and event updates from many concurrent fetches into a report.
+ *
+ * <p>Updates are partitioned by league id onto a fixed number of {@link IngestionShard}s, by default one per core.
+ * Each shard is fed by a lock-free multi-producer queue and owns its leagues exclusively, so the report tree
+ * is built by plain single-threaded code and fetch threads never contend on a lock. Every shard publishes an
+ * immutable copy of its leagues after each batch of updates, and {@link #getReport} only reads those copies.</p>
+ *
+ * <p>A report is consistent per league: it never shows a league halfway through an update. Leagues on different
+ * shards may reflect updates from slightly different points in time.</p>
+ */
+public class IngestionPipeline implements AutoCloseable {
+
+    private final IngestionShard[] shards;
+
+    public IngestionPipeline() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * @param shardCount Number of single-writer shards, each with its own thread
+     */
+    public IngestionPipeline(int shardCount) {
+        if (shardCount <= 0) {
+            throw new IllegalArgumentException("Shard count must be positive: " + shardCount);
+        }
+        this.shards = new IngestionShard[shardCount];
+        for (int i = 0; i < shardCount; i++) {
+            shards[i] = new IngestionShard(i);
+        }
+    }
+
+    /**
+     * Sets the league and its top matches, in report order. Reports of events no longer among them are dropped.
+     */
+    public void submitLeague(String sportName, League league, List<Event> topMatches) {
+        List<Long> topMatchIds = topMatches.stream().map(Event::getId).toList();
+        shardFor(league.getId()).submit(new IngestionUpdate.LeagueUpdate(sportName, league, topMatchIds));
+    }
+
+    /**
+     * Sets the report of an event. Ignored if the league has not been submitted or the event is not among its
+     * latest top matches.
+     */
+    public void submitEvent(long leagueId, EventReport eventReport) {
+        shardFor(leagueId).submit(new IngestionUpdate.EventUpdate(leagueId, eventReport));
+    }
+
+    public void removeLeague(long leagueId) {
+        shardFor(leagueId).submit(new IngestionUpdate.LeagueRemoval(leagueId));
+    }
+
+    /**
+     * @return Completed once every update submitted before this call is visible in {@link #getReport}, or
+     * completed exceptionally if the pipeline is closed first
+     */
+    public CompletableFuture<Void> flush() {
+        List<CompletableFuture<Void>> published = new ArrayList<>();
+        for (IngestionShard shard : shards) {
+            CompletableFuture<Void> barrier = new CompletableFuture<>();
+            shard.submit(new IngestionUpdate.Barrier(barrier));
+            published.add(barrier);
+        }
+        return CompletableFuture.allOf(published.toArray(CompletableFuture[]::new));
+    }
+
+    /**
+     * Builds a report from the latest published leagues. The league reports are shared between reports and must
+     * not be modified.
+     *
+     * @param selectedSportNames Sports of the report, in report order; leagues are ordered by top order
+     */
+    public ReportResult getReport(List<String> selectedSportNames) {
+        List<IngestionShard.PublishedLeague> published = new ArrayList<>();
+        for (IngestionShard shard : shards) {
+            published.addAll(shard.getSnapshot().values());
+        }
+        published.sort(Comparator.comparingInt(IngestionShard.PublishedLeague::topOrder));
+        List<SportReport> sportReports = new ArrayList<>();
+        for (String sportName : selectedSportNames) {
+            SportReport sportReport = new SportReport(sportName);
+            for (IngestionShard.PublishedLeague league : published) {
+                if (league.sportName().equals(sportName)) {
+                    sportReport.addLeagueReport(league.leagueReport());
+                }
+            }
+            sportReports.add(sportReport);
+        }
+        return new ReportResult(sportReports);
+    }
+
+    public int getShardCount() {
+        return shards.length;
+    }
+
+    /**
+     * @return Number of updates applied by all shards
+     */
+    public long getAppliedUpdates() {
+        long appliedUpdates = 0;
+        for (IngestionShard shard : shards) {
+            appliedUpdates += shard.getAppliedUpdates();
+        }
+        return appliedUpdates;
+    }
+
+    /**
+     * Stops the shard writers. Updates still queued, and any submitted later, are discarded and pending
+     * {@link #flush} futures fail.
+     */
+    @Override
+    public void close() {
+        for (IngestionShard shard : shards) {
+            shard.close();
+        }
+    }
+
+    private IngestionShard shardFor(long leagueId) {
+        // Murmur3 finalizer, so sequential league ids spread over all shards
+        long hash = leagueId;
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        return shards[(int) Math.floorMod(hash, (long) shards.length)];
+    }
+}
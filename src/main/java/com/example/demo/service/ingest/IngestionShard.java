@@ -0,0 +1,187 @@
+package com.example.demo.service.ingest;
+
+import com.example.demo.model.League;
+import com.example.demo.model.report.EventReport;
+import com.example.demo.model.report.LeagueReport;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * One partition of the {@link IngestionPipeline}: a queue and the only thread that ever writes its leagues.
+ *
+ * <p>The writer drains updates in batches into plain collections it alone touches, then publishes a new
+ * immutable snapshot through a volatile field. Only leagues changed by the batch get a new {@link LeagueReport};
+ * the others are shared with the previous snapshot. Published league reports are never modified again.</p>
+ *
+ * <p>Once the writer has stopped, updates are discarded and flush barriers fail, whether they were still queued
+ * or submitted afterwards.</p>
+ */
+final class IngestionShard {
+
+    private static final Logger logger = LoggerFactory.getLogger(IngestionShard.class);
+    private static final int MAX_BATCH = 1024;
+
+    private final MpscQueue<IngestionUpdate> queue = new MpscQueue<>();
+    private final Thread writer;
+    // Writer only
+    private final Map<Long, LeagueState> leagues = new HashMap<>();
+    private volatile Map<Long, PublishedLeague> snapshot = Map.of();
+    private volatile boolean waiting;
+    private volatile boolean running = true;
+    private volatile boolean stopped;
+    private volatile long appliedUpdates;
+
+    IngestionShard(int index) {
+        this.writer = new Thread(this::run, "ingest-shard-" + index);
+        this.writer.setDaemon(true);
+        this.writer.start();
+    }
+
+    void submit(IngestionUpdate update) {
+        queue.offer(update);
+        if (stopped) {
+            // The writer may have drained the queue before this update was linked
+            discardQueued();
+        } else if (waiting) {
+            LockSupport.unpark(writer);
+        }
+    }
+
+    Map<Long, PublishedLeague> getSnapshot() {
+        return snapshot;
+    }
+
+    long getAppliedUpdates() {
+        return appliedUpdates;
+    }
+
+    void close() {
+        running = false;
+        LockSupport.unpark(writer);
+        try {
+            writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void run() {
+        Set<Long> changedLeagueIds = new HashSet<>();
+        List<CompletableFuture<Void>> barriers = new ArrayList<>();
+        while (running) {
+            IngestionUpdate update;
+            int batch = 0;
+            while (batch < MAX_BATCH && (update = queue.poll()) != null) {
+                try {
+                    apply(update, changedLeagueIds, barriers);
+                } catch (RuntimeException e) {
+                    logger.warn("Dropping ingestion update {}: {}", update.getClass().getSimpleName(), e.toString());
+                }
+                batch++;
+            }
+            if (batch > 0) {
+                appliedUpdates += batch;
+                publish(changedLeagueIds);
+                changedLeagueIds.clear();
+                barriers.forEach(barrier -> barrier.complete(null));
+                barriers.clear();
+                continue;
+            }
+            // Producers unpark the writer when they see it waiting; re-checking the queue afterwards closes the race
+            waiting = true;
+            if (queue.isEmpty() && running) {
+                LockSupport.park(this);
+            }
+            waiting = false;
+        }
+        stopped = true;
+        discardQueued();
+    }
+
+    /**
+     * Drains the queue of a stopped shard, failing the flush barriers. Synchronized as the queue has a single
+     * consumer: the writer has exited, but submitters may drain concurrently.
+     */
+    private synchronized void discardQueued() {
+        IngestionUpdate update;
+        while ((update = queue.poll()) != null) {
+            if (update instanceof IngestionUpdate.Barrier barrier) {
+                barrier.published().completeExceptionally(new IllegalStateException("Ingestion shard closed"));
+            }
+        }
+    }
+
+    private void apply(IngestionUpdate update, Set<Long> changedLeagueIds, List<CompletableFuture<Void>> barriers) {
+        switch (update) {
+            case IngestionUpdate.LeagueUpdate leagueUpdate -> {
+                long leagueId = leagueUpdate.league().getId();
+                LeagueState state = leagues.computeIfAbsent(leagueId, id -> new LeagueState());
+                state.sportName = leagueUpdate.sportName();
+                state.league = leagueUpdate.league();
+                state.topMatchIds = leagueUpdate.topMatchIds();
+                state.eventReports.keySet().retainAll(new HashSet<>(leagueUpdate.topMatchIds()));
+                changedLeagueIds.add(leagueId);
+            }
+            case IngestionUpdate.EventUpdate eventUpdate -> {
+                LeagueState state = leagues.get(eventUpdate.leagueId());
+                // A report of an event that just left the top matches would stay until the next league update
+                if (state != null && state.topMatchIds.contains(eventUpdate.eventReport().getEventId())) {
+                    state.eventReports.put(eventUpdate.eventReport().getEventId(), eventUpdate.eventReport());
+                    changedLeagueIds.add(eventUpdate.leagueId());
+                }
+            }
+            case IngestionUpdate.LeagueRemoval leagueRemoval -> {
+                if (leagues.remove(leagueRemoval.leagueId()) != null) {
+                    changedLeagueIds.add(leagueRemoval.leagueId());
+                }
+            }
+            case IngestionUpdate.Barrier barrier -> barriers.add(barrier.published());
+        }
+    }
+
+    private void publish(Set<Long> changedLeagueIds) {
+        if (changedLeagueIds.isEmpty()) {
+            return;
+        }
+        Map<Long, PublishedLeague> next = new HashMap<>(snapshot);
+        for (Long leagueId : changedLeagueIds) {
+            LeagueState state = leagues.get(leagueId);
+            if (state == null) {
+                next.remove(leagueId);
+                continue;
+            }
+            LeagueReport leagueReport = new LeagueReport(state.league.getName());
+            for (Long eventId : state.topMatchIds) {
+                EventReport eventReport = state.eventReports.get(eventId);
+                if (eventReport != null) {
+                    leagueReport.addEventReport(eventReport);
+                }
+            }
+            next.put(leagueId, new PublishedLeague(state.sportName, state.league.getTopOrder(), leagueReport));
+        }
+        snapshot = Collections.unmodifiableMap(next);
+    }
+
+    /**
+     * League of a published snapshot; its report is never modified after publication.
+     */
+    record PublishedLeague(String sportName, int topOrder, LeagueReport leagueReport) {
+    }
+
+    private static final class LeagueState {
+        private String sportName;
+        private League league;
+        private List<Long> topMatchIds = List.of();
+        private final Map<Long, EventReport> eventReports = new HashMap<>();
+    }
+}
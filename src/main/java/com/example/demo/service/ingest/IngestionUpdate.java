@@ -0,0 +1,31 @@
+package com.example.demo.service.ingest;
+
+import com.example.demo.model.League;
+import com.example.demo.model.report.EventReport;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Update applied by the single writer of an {@link IngestionShard}.
+ */
+sealed interface IngestionUpdate {
+
+    /**
+     * New top matches of a league; reports of events no longer among them are dropped.
+     */
+    record LeagueUpdate(String sportName, League league, List<Long> topMatchIds) implements IngestionUpdate {
+    }
+
+    record EventUpdate(long leagueId, EventReport eventReport) implements IngestionUpdate {
+    }
+
+    record LeagueRemoval(long leagueId) implements IngestionUpdate {
+    }
+
+    /**
+     * Completed once every update queued before it has been applied and published.
+     */
+    record Barrier(CompletableFuture<Void> published) implements IngestionUpdate {
+    }
+}
@@ -0,0 +1,56 @@
+package com.example.demo.service.ingest;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Unbounded lock-free multi-producer single-consumer queue.
+ *
+ * <p>Producers append with a single atomic swap of the tail and never wait for each other or for the consumer.
+ * Only the owning {@link IngestionShard} writer may call {@link #poll} and {@link #isEmpty}, or once it has
+ * stopped, one thread at a time holding the shard's lock.</p>
+ */
+final class MpscQueue<E> {
+
+    private final AtomicReference<Node<E>> tail;
+    // Consumer only
+    private Node<E> head;
+
+    MpscQueue() {
+        Node<E> stub = new Node<>(null);
+        this.head = stub;
+        this.tail = new AtomicReference<>(stub);
+    }
+
+    void offer(E value) {
+        Node<E> node = new Node<>(value);
+        // The previous tail is linked after the swap; until then the consumer sees the queue end at it
+        tail.getAndSet(node).next = node;
+    }
+
+    /**
+     * @return The oldest element, or null if the queue is empty
+     */
+    E poll() {
+        Node<E> next = head.next;
+        if (next == null) {
+            return null;
+        }
+        E value = next.value;
+        next.value = null;
+        head = next;
+        return value;
+    }
+
+    boolean isEmpty() {
+        return head.next == null;
+    }
+
+    private static final class Node<E> {
+        private E value;
+        private volatile Node<E> next;
+
+        private Node(E value) {
+            this.value = value;
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package com.example.demo.service.poll;
+
+import com.example.demo.model.League;
+
+import java.time.Duration;
+import java.util.Collection;
+
+/**
+ * Decides how often leagues and events are refreshed.
+ * Events close to kickoff are refreshed most often, where prices actually move; leagues lower in the
+ * top order, or lighter than the heaviest polled league, are refreshed proportionally less often.
+ *
+ * <p>The weight penalty is relative to the heaviest league passed to {@link #observeLeagues}: the heaviest
+ * league gets none and a league of weight 0 gets {@value #MAX_WEIGHT_PENALTY} times the base interval on top.
+ * Until leagues are observed, weights are ignored.</p>
+ */
+public class PollingPolicy {
+
+    private static final Duration ONE_HOUR = Duration.ofHours(1);
+    private static final Duration SIX_HOURS = Duration.ofHours(6);
+    private static final Duration ONE_DAY = Duration.ofDays(1);
+    private static final Duration INSIDE_ONE_HOUR = Duration.ofSeconds(10);
+    private static final Duration INSIDE_SIX_HOURS = Duration.ofSeconds(30);
+    private static final Duration INSIDE_ONE_DAY = Duration.ofMinutes(2);
+    private static final Duration BEYOND_ONE_DAY = Duration.ofMinutes(5);
+    private static final Duration LEAGUE_MIN_INTERVAL = Duration.ofSeconds(30);
+    private static final int MAX_TOP_ORDER_PENALTY = 10;
+    private static final double TOP_ORDER_PENALTY_STEP = 0.1;
+    private static final double MAX_WEIGHT_PENALTY = 1.0;
+
+    private volatile int maxLeagueWeight;
+
+    /**
+     * Records the polled leagues, whose heaviest weight is the reference of the weight penalty.
+     *
+     * @param leagues All top leagues currently polled
+     */
+    public void observeLeagues(Collection<League> leagues) {
+        maxLeagueWeight = leagues.stream().mapToInt(League::getWeight).max().orElse(0);
+    }
+
+    /**
+     * @param kickoff The event kickoff in epoch millis
+     * @param now     The current time in epoch millis
+     * @param league  The league of the event
+     * @return Delay until the event details are refreshed again
+     */
+    public Duration eventInterval(long kickoff, long now, League league) {
+        return scale(kickoffInterval(Duration.ofMillis(kickoff - now)), league);
+    }
+
+    /**
+     * @param nextKickoff The soonest kickoff among the league's tracked events in epoch millis,
+     *                    or {@link Long#MAX_VALUE} if it has none
+     * @param now         The current time in epoch millis
+     * @param league      The league
+     * @return Delay until the league's event list is refreshed again
+     */
+    public Duration leagueInterval(long nextKickoff, long now, League league) {
+        Duration interval = nextKickoff == Long.MAX_VALUE
+                ? BEYOND_ONE_DAY
+                : scale(kickoffInterval(Duration.ofMillis(nextKickoff - now)), league);
+        return interval.compareTo(LEAGUE_MIN_INTERVAL) < 0 ? LEAGUE_MIN_INTERVAL : interval;
+    }
+
+    private Duration kickoffInterval(Duration untilKickoff) {
+        if (untilKickoff.compareTo(ONE_HOUR) <= 0) {
+            return INSIDE_ONE_HOUR;
+        } else if (untilKickoff.compareTo(SIX_HOURS) <= 0) {
+            return INSIDE_SIX_HOURS;
+        } else if (untilKickoff.compareTo(ONE_DAY) <= 0) {
+            return INSIDE_ONE_DAY;
+        }
+        return BEYOND_ONE_DAY;
+    }
+
+    private Duration scale(Duration interval, League league) {
+        int topOrderPenalty = Math.min(Math.max(league.getTopOrder(), 0), MAX_TOP_ORDER_PENALTY);
+        double factor = (1 + topOrderPenalty * TOP_ORDER_PENALTY_STEP) * (1 + weightPenalty(league));
+        return Duration.ofMillis(Math.round(interval.toMillis() * factor));
+    }
+
+    private double weightPenalty(League league) {
+        int maxWeight = maxLeagueWeight;
+        if (maxWeight <= 0) {
+            return 0;
+        }
+        double share = Math.min(Math.max(league.getWeight(), 0), maxWeight) / (double) maxWeight;
+        return (1 - share) * MAX_WEIGHT_PENALTY;
+    }
+}
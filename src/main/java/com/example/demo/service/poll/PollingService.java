@@ -0,0 +1,344 @@
+package com.example.demo.service.poll;
+
+import com.example.demo.model.Event;
+import com.example.demo.model.League;
+import com.example.demo.model.Sport;
+import com.example.demo.model.report.EventReport;
+import com.example.demo.model.report.MarketReport;
+import com.example.demo.model.report.ReportResult;
+import com.example.demo.model.report.RunnerReport;
+import com.example.demo.service.SportService;
+import com.example.demo.service.bus.PriceEvent;
+import com.example.demo.service.bus.PriceEventBus;
+import com.example.demo.service.bus.PriceEventType;
+import com.example.demo.service.ingest.IngestionPipeline;
+import com.example.demo.service.report.ReportService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Long-running polling mode that keeps the HTTP client warm and refreshes data continuously.
+ *
+ * <p>The sports tree is refreshed at a fixed rate. Every top league and every tracked event then
+ * reschedules itself after each refresh with a delay chosen by the {@link PollingPolicy}, so the
+ * upstream budget is spent on events close to kickoff and on the heaviest leagues highest in the top order.</p>
+ *
+ * <p>Refreshed leagues and events are handed to an {@link IngestionPipeline}, which builds the report on
+ * single-writer shards so concurrent refreshes never share a mutable report tree. Refreshes are asynchronous:
+ * the scheduler threads only start the fetches and every result is submitted from the fetch's completion, so
+ * the refreshes in flight, and the producers feeding the shards, are bounded by the fetch stage rather than by
+ * the {@value #POLLING_THREADS} scheduler threads.</p>
+ *
+ * <p>When a {@link PriceEventBus} is given, every refresh publishes the events added, markets updated and
+ * runner prices changed since the previous refresh.</p>
+ */
+public class PollingService {
+
+    private static final Logger logger = LoggerFactory.getLogger(PollingService.class);
+    private static final int POLLING_THREADS = 4;
+    private static final int DEFAULT_MATCHES_LIMIT = 2;
+    private static final Duration SPORTS_INTERVAL = Duration.ofMinutes(5);
+    private static final Duration RETRY_INTERVAL = Duration.ofSeconds(30);
+
+    private final SportService sportService;
+    private final ReportService reportService;
+    private final PollingPolicy pollingPolicy;
+    private final List<String> selectedSportNames;
+    private final PriceEventBus priceEventBus;
+    private final ScheduledExecutorService scheduler;
+    private final Map<Long, TrackedLeague> leagues = new ConcurrentHashMap<>();
+    private final Map<Long, TrackedEvent> events = new ConcurrentHashMap<>();
+    private final IngestionPipeline ingestionPipeline = new IngestionPipeline();
+
+    public PollingService(SportService sportService, ReportService reportService, List<String> selectedSportNames) {
+        this(sportService, reportService, new PollingPolicy(), selectedSportNames, null);
+    }
+
+    /**
+     * @param priceEventBus Bus receiving the changes observed by every refresh, or null to publish nothing
+     */
+    public PollingService(SportService sportService, ReportService reportService, PollingPolicy pollingPolicy,
+                          List<String> selectedSportNames, PriceEventBus priceEventBus) {
+        this.sportService = sportService;
+        this.reportService = reportService;
+        this.pollingPolicy = pollingPolicy;
+        this.selectedSportNames = selectedSportNames;
+        this.priceEventBus = priceEventBus;
+        this.scheduler = Executors.newScheduledThreadPool(POLLING_THREADS);
+    }
+
+    /**
+     * Starts polling. The sports tree is fetched right away; leagues and events follow as they are discovered.
+     */
+    public void start() {
+        scheduler.scheduleWithFixedDelay(this::refreshSports, 0, SPORTS_INTERVAL.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Stops polling and cancels all pending refreshes.
+     */
+    public void stop() {
+        logger.info("Stopping polling service");
+        scheduler.shutdownNow();
+        ingestionPipeline.close();
+    }
+
+    /**
+     * Returns a report of the latest polled data, as last published by the {@link IngestionPipeline}.
+     * Events whose details have not been fetched yet are left out.
+     *
+     * @return A {@link ReportResult} for the selected sports in the requested order
+     */
+    public ReportResult getReport() {
+        return ingestionPipeline.getReport(selectedSportNames);
+    }
+
+    private void refreshSports() {
+        try {
+            List<Sport> sports = sportService.fetchSportsData();
+            Map<Long, League> topLeagues = new HashMap<>();
+            Map<Long, String> sportNames = new HashMap<>();
+            for (Sport sport : sports) {
+                if (!selectedSportNames.contains(sport.getName())) {
+                    continue;
+                }
+                for (League league : sportService.getTopLeagues(sport)) {
+                    topLeagues.put(league.getId(), league);
+                    sportNames.put(league.getId(), sport.getName());
+                }
+            }
+            pollingPolicy.observeLeagues(topLeagues.values());
+            for (League league : topLeagues.values()) {
+                TrackedLeague trackedLeague = leagues.get(league.getId());
+                if (trackedLeague == null) {
+                    trackedLeague = new TrackedLeague(sportNames.get(league.getId()), league);
+                    leagues.put(league.getId(), trackedLeague);
+                    scheduleLeague(trackedLeague, Duration.ZERO);
+                } else {
+                    trackedLeague.league = league;
+                }
+            }
+            for (TrackedLeague trackedLeague : List.copyOf(leagues.values())) {
+                if (!topLeagues.containsKey(trackedLeague.league.getId())) {
+                    untrackLeague(trackedLeague);
+                }
+            }
+        } catch (RuntimeException e) {
+            logger.warn("Failed to refresh sports: {}", e.getMessage());
+        }
+    }
+
+    private void refreshLeague(TrackedLeague trackedLeague) {
+        if (leagues.get(trackedLeague.league.getId()) != trackedLeague) {
+            return;
+        }
+        start(() -> sportService.fetchTopMatchesAsync(trackedLeague.league.getId(), DEFAULT_MATCHES_LIMIT, null))
+                .whenComplete((topMatches, e) -> {
+                    Duration delay = RETRY_INTERVAL;
+                    try {
+                        if (e != null) {
+                            throw new CompletionException(e);
+                        }
+                        delay = updateTopMatches(trackedLeague, topMatches);
+                    } catch (RuntimeException ex) {
+                        logger.warn("Failed to refresh league {}: {}", trackedLeague.league.getName(), message(ex));
+                    }
+                    scheduleLeague(trackedLeague, delay);
+                });
+    }
+
+    /**
+     * Tracks the new top matches of a league, untracks those that left and submits the league.
+     *
+     * @return Delay until the league is refreshed again
+     */
+    private Duration updateTopMatches(TrackedLeague trackedLeague, List<Event> topMatches) {
+        Set<Long> topMatchIds = new HashSet<>();
+        List<TrackedEvent> newEvents = new ArrayList<>();
+        long nextKickoff = Long.MAX_VALUE;
+        for (Event event : topMatches) {
+            topMatchIds.add(event.getId());
+            nextKickoff = Math.min(nextKickoff, event.getKickoff());
+            TrackedEvent trackedEvent = events.get(event.getId());
+            if (trackedEvent == null) {
+                trackedEvent = new TrackedEvent(trackedLeague, event);
+                events.put(event.getId(), trackedEvent);
+                newEvents.add(trackedEvent);
+            } else {
+                trackedEvent.event = event;
+            }
+        }
+        for (Event event : trackedLeague.topMatches) {
+            if (!topMatchIds.contains(event.getId())) {
+                untrackEvent(event.getId());
+            }
+        }
+        trackedLeague.topMatches = topMatches;
+        ingestionPipeline.submitLeague(trackedLeague.sportName, trackedLeague.league, topMatches);
+        // Only now, as the pipeline ignores reports of events whose league it does not know yet
+        newEvents.forEach(trackedEvent -> scheduleEvent(trackedEvent, Duration.ZERO));
+        return pollingPolicy.leagueInterval(nextKickoff, System.currentTimeMillis(), trackedLeague.league);
+    }
+
+    private void refreshEvent(TrackedEvent trackedEvent) {
+        if (events.get(trackedEvent.event.getId()) != trackedEvent) {
+            return;
+        }
+        start(() -> reportService.processEventAsync(trackedEvent.event))
+                .whenComplete((eventReport, e) -> {
+                    Duration delay = RETRY_INTERVAL;
+                    try {
+                        if (e != null) {
+                            throw new CompletionException(e);
+                        }
+                        EventReport previous = trackedEvent.eventReport;
+                        trackedEvent.eventReport = eventReport;
+                        ingestionPipeline.submitEvent(trackedEvent.league.league.getId(), eventReport);
+                        if (priceEventBus != null) {
+                            publishChanges(trackedEvent, previous, eventReport);
+                        }
+                        delay = pollingPolicy.eventInterval(trackedEvent.event.getKickoff(),
+                                System.currentTimeMillis(), trackedEvent.league.league);
+                    } catch (RuntimeException ex) {
+                        logger.warn("Failed to refresh event {}: {}", trackedEvent.event.getName(), message(ex));
+                    }
+                    scheduleEvent(trackedEvent, delay);
+                });
+    }
+
+    /**
+     * Starts a fetch, turning a failure to start it into a failed future so the refresh is still rescheduled.
+     */
+    private static <T> CompletableFuture<T> start(Supplier<CompletableFuture<T>> fetch) {
+        try {
+            return fetch.get();
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    private static String message(Throwable e) {
+        while (e instanceof CompletionException && e.getCause() != null) {
+            e = e.getCause();
+        }
+        return e.getMessage();
+    }
+
+    /**
+     * Publishes the differences between two consecutive reports of the same event.
+     */
+    private void publishChanges(TrackedEvent trackedEvent, EventReport previous, EventReport current) {
+        long now = System.currentTimeMillis();
+        String sportName = trackedEvent.league.sportName;
+        String leagueName = trackedEvent.league.league.getName();
+        if (previous == null) {
+            priceEventBus.publish(new PriceEvent(PriceEventType.EVENT_ADDED, now, sportName, leagueName,
+                    current.getEventId(), current.getEventName(), 0, 0, null, 0, null, 0, 0));
+        }
+
+        Map<Long, Double> previousPrices = new HashMap<>();
+        if (previous != null) {
+            for (MarketReport marketReport : previous.getMarketReports()) {
+                for (RunnerReport runnerReport : marketReport.getRunnerReports()) {
+                    previousPrices.put(runnerReport.getRunnerId(), runnerReport.getPrice());
+                }
+            }
+        }
+
+        for (MarketReport marketReport : current.getMarketReports()) {
+            boolean marketChanged = false;
+            for (RunnerReport runnerReport : marketReport.getRunnerReports()) {
+                Double previousPrice = previousPrices.get(runnerReport.getRunnerId());
+                if (previousPrice == null || previousPrice != runnerReport.getPrice()) {
+                    marketChanged = true;
+                    priceEventBus.publish(new PriceEvent(PriceEventType.RUNNER_PRICE_CHANGED, now, sportName,
+                            leagueName, current.getEventId(), current.getEventName(), marketReport.getMarketId(),
+                            marketReport.getMarketTypeId(), marketReport.getMarketName(), runnerReport.getRunnerId(),
+                            runnerReport.getRunnerName(), previousPrice == null ? 0 : previousPrice,
+                            runnerReport.getPrice()));
+                }
+            }
+            if (marketChanged) {
+                priceEventBus.publish(new PriceEvent(PriceEventType.MARKET_UPDATED, now, sportName, leagueName,
+                        current.getEventId(), current.getEventName(), marketReport.getMarketId(),
+                        marketReport.getMarketTypeId(), marketReport.getMarketName(), 0, null, 0, 0));
+            }
+        }
+    }
+
+    private void scheduleLeague(TrackedLeague trackedLeague, Duration delay) {
+        if (!scheduler.isShutdown()) {
+            trackedLeague.task = scheduler.schedule(() -> refreshLeague(trackedLeague),
+                    delay.toMillis(), TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private void scheduleEvent(TrackedEvent trackedEvent, Duration delay) {
+        if (!scheduler.isShutdown()) {
+            trackedEvent.task = scheduler.schedule(() -> refreshEvent(trackedEvent),
+                    delay.toMillis(), TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private void untrackLeague(TrackedLeague trackedLeague) {
+        leagues.remove(trackedLeague.league.getId());
+        ingestionPipeline.removeLeague(trackedLeague.league.getId());
+        cancel(trackedLeague.task);
+        for (Event event : trackedLeague.topMatches) {
+            untrackEvent(event.getId());
+        }
+    }
+
+    private void untrackEvent(long eventId) {
+        TrackedEvent trackedEvent = events.remove(eventId);
+        if (trackedEvent != null) {
+            cancel(trackedEvent.task);
+        }
+    }
+
+    private static void cancel(ScheduledFuture<?> task) {
+        if (task != null) {
+            task.cancel(false);
+        }
+    }
+
+    private static final class TrackedLeague {
+        private final String sportName;
+        private volatile League league;
+        private volatile List<Event> topMatches = List.of();
+        private volatile ScheduledFuture<?> task;
+
+        private TrackedLeague(String sportName, League league) {
+            this.sportName = sportName;
+            this.league = league;
+        }
+    }
+
+    private static final class TrackedEvent {
+        private final TrackedLeague league;
+        private volatile Event event;
+        private volatile EventReport eventReport;
+        private volatile ScheduledFuture<?> task;
+
+        private TrackedEvent(TrackedLeague league, Event event) {
+            this.league = league;
+            this.event = event;
+        }
+    }
+}
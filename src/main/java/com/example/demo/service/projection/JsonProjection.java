@@ -0,0 +1,54 @@
+package com.example.demo.service.projection;
+
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reads a value directly from a Jackson streaming {@link JsonParser}.
+ * Projections materialize only the fields a call site needs and skip every other subtree
+ * with {@link JsonParser#skipChildren()}, so unused parts of a payload are never bound to objects.
+ *
+ * @param <T> The type of the projected value
+ */
+@FunctionalInterface
+public interface JsonProjection<T> {
+
+    /**
+     * Reads a value starting at the parser's current token.
+     * On return the parser is positioned on the last token of the value.
+     *
+     * @param parser The parser positioned on the first token of the value
+     * @return The projected value, or null for a JSON null
+     * @throws IOException If the payload cannot be parsed
+     */
+    T read(JsonParser parser) throws IOException;
+
+    /**
+     * Creates a projection for a JSON array whose elements are read with the given projection.
+     *
+     * @param element The projection applied to every array element
+     * @param <E>     The element type
+     * @return A projection producing a list of projected elements
+     */
+    static <E> JsonProjection<List<E>> listOf(JsonProjection<E> element) {
+        return parser -> {
+            JsonToken token = parser.currentToken();
+            if (token == JsonToken.VALUE_NULL) {
+                return null;
+            }
+            if (token != JsonToken.START_ARRAY) {
+                throw new JsonParseException(parser, "Expected START_ARRAY but was " + token);
+            }
+            List<E> values = new ArrayList<>();
+            while (parser.nextToken() != JsonToken.END_ARRAY) {
+                values.add(element.read(parser));
+            }
+            return values;
+        };
+    }
+}
@@ -0,0 +1,124 @@
+package com.example.demo.service.projection;
+
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.function.ObjIntConsumer;
+import java.util.function.ObjLongConsumer;
+import java.util.function.Supplier;
+
+/**
+ * Projection of a JSON object onto a declared set of fields.
+ * Fields that are not declared are skipped without being tokenized into objects.
+ *
+ * @param <T> The type of the object being populated
+ */
+public final class ObjectProjection<T> implements JsonProjection<T> {
+
+    /**
+     * Reads the value of a single field into the target object.
+     *
+     * @param <T> The type of the object being populated
+     */
+    @FunctionalInterface
+    public interface FieldReader<T> {
+        void read(JsonParser parser, T target) throws IOException;
+    }
+
+    private final Supplier<T> factory;
+    private final Map<String, FieldReader<T>> fields;
+
+    private ObjectProjection(Supplier<T> factory, Map<String, FieldReader<T>> fields) {
+        this.factory = factory;
+        this.fields = fields;
+    }
+
+    public static <T> Builder<T> builder(Supplier<T> factory) {
+        return new Builder<>(factory);
+    }
+
+    /**
+     * @return The names of the fields materialized by this projection
+     */
+    public Set<String> getFieldNames() {
+        return Collections.unmodifiableSet(fields.keySet());
+    }
+
+    @Override
+    public T read(JsonParser parser) throws IOException {
+        JsonToken token = parser.currentToken();
+        if (token == JsonToken.VALUE_NULL) {
+            return null;
+        }
+        if (token != JsonToken.START_OBJECT) {
+            throw new JsonParseException(parser, "Expected START_OBJECT but was " + token);
+        }
+
+        T target = factory.get();
+        String fieldName;
+        while ((fieldName = parser.nextFieldName()) != null) {
+            FieldReader<T> reader = fields.get(fieldName);
+            parser.nextToken();
+            if (reader == null) {
+                parser.skipChildren();
+            } else {
+                reader.read(parser, target);
+            }
+        }
+        return target;
+    }
+
+    /**
+     * Declares the fields of an {@link ObjectProjection}.
+     *
+     * @param <T> The type of the object being populated
+     */
+    public static final class Builder<T> {
+        private final Supplier<T> factory;
+        private final Map<String, FieldReader<T>> fields = new HashMap<>();
+
+        private Builder(Supplier<T> factory) {
+            this.factory = factory;
+        }
+
+        public Builder<T> longField(String name, ObjLongConsumer<T> setter) {
+            return field(name, (parser, target) -> setter.accept(target, parser.getValueAsLong()));
+        }
+
+        public Builder<T> intField(String name, ObjIntConsumer<T> setter) {
+            return field(name, (parser, target) -> setter.accept(target, parser.getValueAsInt()));
+        }
+
+        public Builder<T> doubleField(String name, BiConsumer<T, Double> setter) {
+            return field(name, (parser, target) -> setter.accept(target, parser.getValueAsDouble()));
+        }
+
+        public Builder<T> booleanField(String name, BiConsumer<T, Boolean> setter) {
+            return field(name, (parser, target) -> setter.accept(target, parser.getValueAsBoolean()));
+        }
+
+        public Builder<T> stringField(String name, BiConsumer<T, String> setter) {
+            return field(name, (parser, target) -> setter.accept(target, parser.getValueAsString()));
+        }
+
+        public <V> Builder<T> field(String name, JsonProjection<V> projection, BiConsumer<T, V> setter) {
+            return field(name, (parser, target) -> setter.accept(target, projection.read(parser)));
+        }
+
+        public Builder<T> field(String name, FieldReader<T> reader) {
+            fields.put(name, reader);
+            return this;
+        }
+
+        public ObjectProjection<T> build() {
+            return new ObjectProjection<>(factory, Map.copyOf(fields));
+        }
+    }
+}
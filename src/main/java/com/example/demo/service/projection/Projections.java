@@ -0,0 +1,56 @@
+package com.example.demo.service.projection;
+
+import com.example.demo.model.Event;
+import com.example.demo.model.EventDetailsResponse;
+import com.example.demo.model.EventResponse;
+import com.example.demo.model.Market;
+import com.example.demo.model.Runner;
+
+/**
+ * Per-call-site projections of the API payloads.
+ * Each projection lists exactly the fields its caller reads; everything else is skipped while parsing.
+ */
+public final class Projections {
+
+    /**
+     * Event fields used by {@code SportService#fetchTopMatches}.
+     * Competitors, league and market lists are never materialized.
+     */
+    public static final ObjectProjection<Event> TOP_MATCH_EVENT = ObjectProjection.builder(Event::new)
+            .longField("id", Event::setId)
+            .stringField("name", Event::setName)
+            .longField("kickoff", Event::setKickoff)
+            .stringField("betline", Event::setBetline)
+            .build();
+
+    public static final ObjectProjection<EventResponse> TOP_MATCHES = ObjectProjection.builder(EventResponse::new)
+            .field("data", JsonProjection.listOf(TOP_MATCH_EVENT), EventResponse::setData)
+            .build();
+
+    public static final ObjectProjection<Runner> REPORT_RUNNER = ObjectProjection.builder(Runner::new)
+            .longField("id", Runner::setId)
+            .stringField("name", Runner::setName)
+            .booleanField("open", Runner::setOpen)
+            .doubleField("price", Runner::setPrice)
+            .build();
+
+    public static final ObjectProjection<Market> REPORT_MARKET = ObjectProjection.builder(Market::new)
+            .longField("id", Market::setId)
+            .stringField("name", Market::setName)
+            .longField("marketTypeId", Market::setMarketTypeId)
+            .booleanField("open", Market::setOpen)
+            .booleanField("primary", Market::setPrimary)
+            .field("runners", JsonProjection.listOf(REPORT_RUNNER), Market::setRunners)
+            .build();
+
+    /**
+     * Event details fields used to build market reports.
+     */
+    public static final ObjectProjection<EventDetailsResponse> EVENT_MARKETS =
+            ObjectProjection.builder(EventDetailsResponse::new)
+                    .field("markets", JsonProjection.listOf(REPORT_MARKET), EventDetailsResponse::setMarkets)
+                    .build();
+
+    private Projections() {
+    }
+}
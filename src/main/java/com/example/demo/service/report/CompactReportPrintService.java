@@ -0,0 +1,60 @@
+package com.example.demo.service.report;
+
+import com.example.demo.model.report.compact.CompactEventReport;
+import com.example.demo.model.report.compact.CompactLeagueReport;
+import com.example.demo.model.report.compact.CompactMarketReport;
+import com.example.demo.model.report.compact.CompactReport;
+import com.example.demo.model.report.compact.CompactRunnerReport;
+import com.example.demo.model.report.compact.CompactSportReport;
+
+/**
+ * Prints a {@link CompactReport} in the same hierarchical layout as {@link ReportPrintService}.
+ * The whole report is rendered into a single buffer; kickoffs are formatted here rather than when the report is built.
+ */
+public class CompactReportPrintService {
+
+    private static final String INDENT = "   ";
+    private static final String SEPARATOR = ", ";
+    private final CompactReport report;
+
+    public CompactReportPrintService(CompactReport report) {
+        this.report = report;
+    }
+
+    /**
+     * Prints the entire report to the console.
+     */
+    public void printReport() {
+        System.out.print(render());
+    }
+
+    public String render() {
+        StringBuilder output = new StringBuilder(4096);
+        for (CompactSportReport sport : report.sports()) {
+            for (CompactLeagueReport league : sport.leagues()) {
+                indent(output, 1).append(sport.sportName()).append(SEPARATOR).append(league.leagueName()).append('\n');
+                for (CompactEventReport event : league.events()) {
+                    indent(output, 2).append(event.eventName())
+                            .append(SEPARATOR).append(event.kickoffUtc()).append(" UTC")
+                            .append(SEPARATOR).append(event.eventId()).append('\n');
+                    for (CompactMarketReport market : event.markets()) {
+                        indent(output, 3).append(market.marketName()).append('\n');
+                        for (CompactRunnerReport runner : market.runners()) {
+                            indent(output, 4).append(runner.runnerName())
+                                    .append(SEPARATOR).append(runner.price())
+                                    .append(SEPARATOR).append(runner.runnerId()).append('\n');
+                        }
+                    }
+                }
+            }
+        }
+        return output.toString();
+    }
+
+    private static StringBuilder indent(StringBuilder output, int level) {
+        for (int i = 0; i < level; i++) {
+            output.append(INDENT);
+        }
+        return output;
+    }
+}
@@ -0,0 +1,71 @@
+package com.example.demo.service.report;
+
+import com.example.demo.model.report.feed.FeedEventReport;
+import com.example.demo.model.report.feed.FeedLeagueReport;
+import com.example.demo.model.report.feed.FeedMarketReport;
+import com.example.demo.model.report.feed.FeedReport;
+import com.example.demo.model.report.feed.FeedRunnerReport;
+
+import java.util.Map;
+
+/**
+ * Prints a {@link FeedReport} in the same hierarchical layout as {@link ReportPrintService},
+ * with the price of every source on each runner line and the best price marked.
+ */
+public class FeedReportPrintService {
+
+    private static final String INDENT = "   ";
+    private static final String SEPARATOR = ", ";
+    private final FeedReport report;
+
+    public FeedReportPrintService(FeedReport report) {
+        this.report = report;
+    }
+
+    /**
+     * Prints the entire report to the console.
+     */
+    public void printReport() {
+        System.out.print(render());
+    }
+
+    public String render() {
+        StringBuilder output = new StringBuilder(4096);
+        output.append("Sources").append(SEPARATOR).append(String.join(SEPARATOR, report.getSources()));
+        if (!report.getFailedSources().isEmpty()) {
+            output.append(SEPARATOR).append("failed: ").append(String.join(SEPARATOR, report.getFailedSources()));
+        }
+        output.append('\n');
+        for (FeedLeagueReport league : report.getLeagueReports()) {
+            indent(output, 1).append(league.getSportName()).append(SEPARATOR).append(league.getLeagueName()).append('\n');
+            for (FeedEventReport event : league.getEventReports()) {
+                indent(output, 2).append(event.getEventName())
+                        .append(SEPARATOR).append(event.getKickoffUtc()).append(" UTC")
+                        .append(SEPARATOR).append(event.getSourceEventIds()).append('\n');
+                for (FeedMarketReport market : event.getMarketReports()) {
+                    indent(output, 3).append(market.getMarketName()).append('\n');
+                    for (FeedRunnerReport runner : market.getRunnerReports()) {
+                        indent(output, 4).append(runner.getRunnerName());
+                        String bestSource = runner.getBestSource();
+                        for (Map.Entry<String, Double> sourcePrice : runner.getSourcePrices().entrySet()) {
+                            output.append(SEPARATOR).append(sourcePrice.getKey())
+                                    .append(' ').append(sourcePrice.getValue());
+                            if (sourcePrice.getKey().equals(bestSource) && runner.getSourcePrices().size() > 1) {
+                                output.append(" (best)");
+                            }
+                        }
+                        output.append('\n');
+                    }
+                }
+            }
+        }
+        return output.toString();
+    }
+
+    private static StringBuilder indent(StringBuilder output, int level) {
+        for (int i = 0; i < level; i++) {
+            output.append(INDENT);
+        }
+        return output;
+    }
+}
@@ -0,0 +1,117 @@
+package com.example.demo.service.report;
+
+import com.example.demo.model.Event;
+import com.example.demo.model.EventDetailsResponse;
+import com.example.demo.model.League;
+import com.example.demo.model.Sport;
+import com.example.demo.model.report.EventReport;
+import com.example.demo.model.report.LeagueReport;
+import com.example.demo.model.report.ReportResult;
+import com.example.demo.model.report.SportReport;
+import com.example.demo.service.SportService;
+import com.example.demo.service.projection.Projections;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.BiFunction;
+
+/**
+ * Plans the fetches of a batch of report requests as one deduplicated graph.
+ *
+ * <p>The sports tree is fetched once for the whole batch, each league's top matches once and each event's
+ * details once, however many requests include them. Every requested {@link ReportResult} is then assembled
+ * from the shared results, so a sport, league or event report requested twice is the same instance in both
+ * results and must not be modified.</p>
+ */
+final class ReportPlanner {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReportPlanner.class);
+
+    private final SportService sportService;
+    private final int matchesLimit;
+    private final BiFunction<Event, EventDetailsResponse, EventReport> eventReportBuilder;
+    private final Map<Long, CompletableFuture<SportReport>> sportReports = new LinkedHashMap<>();
+    private final Map<Long, CompletableFuture<LeagueReport>> leagueReports = new LinkedHashMap<>();
+    private final Map<Long, CompletableFuture<EventReport>> eventReports = new LinkedHashMap<>();
+
+    ReportPlanner(SportService sportService, int matchesLimit,
+                  BiFunction<Event, EventDetailsResponse, EventReport> eventReportBuilder) {
+        this.sportService = sportService;
+        this.matchesLimit = matchesLimit;
+        this.eventReportBuilder = eventReportBuilder;
+    }
+
+    /**
+     * Fetches everything the batch needs and assembles one result per request.
+     *
+     * @param batch Sport names of each request; a null or empty list selects all sports
+     * @return The results, in the order of the requests
+     */
+    List<ReportResult> run(List<List<String>> batch) {
+        List<Sport> sports = sportService.fetchSportsData();
+        List<List<CompletableFuture<SportReport>>> requestedSportReports = new ArrayList<>();
+        for (List<String> selectedSportNames : batch) {
+            List<CompletableFuture<SportReport>> futures = new ArrayList<>();
+            for (Sport sport : sports) {
+                if (selectedSportNames == null || selectedSportNames.isEmpty()
+                        || selectedSportNames.contains(sport.getName())) {
+                    futures.add(sportReports.computeIfAbsent(sport.getId(), id -> planSport(sport)));
+                }
+            }
+            requestedSportReports.add(futures);
+        }
+
+        List<ReportResult> reportResults = requestedSportReports.stream()
+                .map(futures -> new ReportResult(futures.stream().map(CompletableFuture::join).toList()))
+                .toList();
+        synchronized (eventReports) {
+            logger.info("Served {} report requests with {} league and {} event fetches",
+                    batch.size(), leagueReports.size(), eventReports.size());
+        }
+        return reportResults;
+    }
+
+    private CompletableFuture<SportReport> planSport(Sport sport) {
+        List<CompletableFuture<LeagueReport>> futures = sportService.getTopLeagues(sport).stream()
+                .map(league -> leagueReports.computeIfAbsent(league.getId(), id -> planLeague(league)))
+                .toList();
+        return CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new))
+                .thenApply(v -> {
+                    SportReport sportReport = new SportReport(sport.getName());
+                    futures.forEach(future -> sportReport.addLeagueReport(future.join()));
+                    return sportReport;
+                });
+    }
+
+    /**
+     * Event fetches are planned once the league's top matches are known, so this runs on a completion thread
+     * while {@link #run} may still be planning other sports.
+     */
+    private CompletableFuture<LeagueReport> planLeague(League league) {
+        return sportService.fetchTopMatchesAsync(league.getId(), matchesLimit, null)
+                .thenCompose(topMatches -> {
+                    List<CompletableFuture<EventReport>> futures = topMatches.stream()
+                            .map(this::planEvent)
+                            .toList();
+                    return CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new))
+                            .thenApply(v -> {
+                                LeagueReport leagueReport = new LeagueReport(league.getName());
+                                futures.forEach(future -> leagueReport.addEventReport(future.join()));
+                                return leagueReport;
+                            });
+                });
+    }
+
+    private CompletableFuture<EventReport> planEvent(Event event) {
+        synchronized (eventReports) {
+            return eventReports.computeIfAbsent(event.getId(), id ->
+                    sportService.fetchEventDetailsAsync(event.getId(), Projections.EVENT_MARKETS)
+                            .thenApply(eventDetails -> eventReportBuilder.apply(event, eventDetails)));
+        }
+    }
+}
@@ -4,6 +4,7 @@ import com.example.demo.model.report.EventReport;
 import com.example.demo.model.report.LeagueReport;
 import com.example.demo.model.report.MarketReport;
 import com.example.demo.model.report.ReportResult;
+import com.example.demo.model.report.ReportStatus;
 import com.example.demo.model.report.RunnerReport;
 import com.example.demo.model.report.SportReport;
 import org.slf4j.Logger;
@@ -32,10 +33,19 @@ public class ReportPrintService {
         List<SportReport> sportReports = reportResult.getSportReports();
         for (SportReport sportReport : sportReports) {
             for (LeagueReport leagueReport : sportReport.getLeagueReports()) {
-                printIndented(1, sportReport.getSportName(), leagueReport.getLeagueName());
+                if (leagueReport.getStatus() == ReportStatus.COMPLETE) {
+                    printIndented(1, sportReport.getSportName(), leagueReport.getLeagueName());
+                } else {
+                    printIndented(1, sportReport.getSportName(), leagueReport.getLeagueName(), leagueReport.getStatus());
+                }
                 for (EventReport eventReport : leagueReport.getEventReports()) {
-                    printIndented(2, eventReport.getEventName(),
-                            (eventReport.getKickoffUtc() + " UTC"), eventReport.getEventId());
+                    if (eventReport.getStatus() == ReportStatus.COMPLETE) {
+                        printIndented(2, eventReport.getEventName(),
+                                (eventReport.getKickoffUtc() + " UTC"), eventReport.getEventId());
+                    } else {
+                        printIndented(2, eventReport.getEventName(),
+                                (eventReport.getKickoffUtc() + " UTC"), eventReport.getEventId(), eventReport.getStatus());
+                    }
                     for (MarketReport marketReport : eventReport.getMarketReports()) {
                         printIndented(3, marketReport.getMarketName());
                         for (RunnerReport runnerReport : marketReport.getRunnerReports()) {
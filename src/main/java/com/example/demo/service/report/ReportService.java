@@ -1,5 +1,6 @@
 package com.example.demo.service.report;
 
+import com.example.demo.config.AppContext;
 import com.example.demo.model.Event;
 import com.example.demo.model.EventDetailsResponse;
 import com.example.demo.model.League;
@@ -10,18 +11,38 @@ import com.example.demo.model.report.EventReport;
 import com.example.demo.model.report.LeagueReport;
 import com.example.demo.model.report.MarketReport;
 import com.example.demo.model.report.ReportResult;
+import com.example.demo.model.report.ReportStatus;
 import com.example.demo.model.report.RunnerReport;
 import com.example.demo.model.report.SportReport;
+import com.example.demo.model.report.compact.CompactEventReport;
+import com.example.demo.model.report.compact.CompactLeagueReport;
+import com.example.demo.model.report.compact.CompactReport;
+import com.example.demo.model.report.compact.CompactSportReport;
+import com.example.demo.service.FetchResult;
 import com.example.demo.service.SportService;
+import com.example.demo.service.execution.BoundedStageExecutor;
+import com.example.demo.service.execution.StageStats;
+import com.example.demo.service.history.OddsHistoryLog;
+import com.example.demo.service.projection.Projections;
+import com.example.demo.service.schedule.FetchPriority;
+import com.example.demo.service.schedule.PriorityFetchScheduler;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.time.Duration;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionException;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
+import java.util.function.Supplier;
 
 /**
  * Service class for processing sports data and generating detailed reports.
@@ -30,14 +51,41 @@ import java.util.concurrent.Executors;
 public class ReportService {
 
     private static final Logger logger = LoggerFactory.getLogger(ReportService.class);
-    private static final int MAX_THREADS = 3;
     private static final int DEFAULT_MATCHES_LIMIT = 2;
+    private static final int MAX_CONCURRENT_FETCHES = 4;
+    private static final Duration MIN_FETCH_TIMEOUT = Duration.ofMillis(1);
     private final SportService sportService;
-    private final ExecutorService executorService;
+    private final BoundedStageExecutor executorService;
+    private final OddsHistoryLog oddsHistoryLog;
+    private final PriorityFetchScheduler fetchScheduler = new PriorityFetchScheduler(MAX_CONCURRENT_FETCHES);
+    private volatile Map<Long, LeagueReport> lastKnownLeagueReports = Map.of();
+    private volatile Map<Long, EventReport> lastKnownEventReports = Map.of();
 
     public ReportService() {
-        this.sportService = new SportService();
-        this.executorService = Executors.newFixedThreadPool(MAX_THREADS);
+        this(new SportService());
+    }
+
+    public ReportService(SportService sportService) {
+        this(sportService, null);
+    }
+
+    /**
+     * @param sportService   Service used to fetch sports data
+     * @param oddsHistoryLog Log receiving every fetched runner price, or null to discard price history
+     */
+    public ReportService(SportService sportService, OddsHistoryLog oddsHistoryLog) {
+        this(AppContext.shared(), sportService, oddsHistoryLog);
+    }
+
+    /**
+     * @param appContext     Context providing the build stage on which sports are processed
+     * @param sportService   Service used to fetch sports data
+     * @param oddsHistoryLog Log receiving every fetched runner price, or null to discard price history
+     */
+    public ReportService(AppContext appContext, SportService sportService, OddsHistoryLog oddsHistoryLog) {
+        this.sportService = sportService;
+        this.oddsHistoryLog = oddsHistoryLog;
+        this.executorService = appContext.getBuildExecutor();
     }
 
     /**
@@ -106,9 +154,326 @@ public class ReportService {
                 .join();
     }
 
+    /**
+     * Generates a report within an overall time budget, returning whatever is available when the budget runs out.
+     *
+     * <p>The remaining budget is passed down to every fetch as its HTTP timeout. Leagues and events that are not
+     * fetched by the deadline are not waited for: their outstanding fetches are cancelled and they are reported
+     * from the previous report generated by this method marked {@link ReportStatus#STALE}, or marked
+     * {@link ReportStatus#MISSING} if nothing is known about them. Failed fetches are treated the same way,
+     * so a single failing event does not fail the whole report, and data the API answered from a snapshot or
+     * while its circuit breaker is open is marked {@link ReportStatus#STALE} as well.</p>
+     *
+     * <p>Fetches are started without waiting for room on a saturated fetch stage, so the caller gets the report
+     * when the budget runs out however many leagues are requested.</p>
+     *
+     * @param selectedSportNames A list of sport names to filter the sports data.
+     *                           If null or empty, all sports will be included in the report.
+     * @param budget             The overall time budget for generating the report.
+     * @return A {@link ReportResult} whose sports, leagues and events are marked complete, stale or missing.
+     *
+     * @implNote {@code StructuredTaskScope} is still a preview API on Java 21, so cancellation is structured by hand:
+     *           per-request timeouts end in-flight HTTP exchanges at the deadline and leftover futures are cancelled
+     *           before this method returns.
+     */
+    public ReportResult generateReportWithDeadline(List<String> selectedSportNames, Duration budget) {
+        long deadline = System.nanoTime() + budget.toNanos();
+        List<Sport> sports;
+        try {
+            sports = startWithoutBlocking(() -> sportService.fetchSportsDataAsync(remaining(deadline)))
+                    .get(remaining(deadline).toNanos(), TimeUnit.NANOSECONDS);
+        } catch (ExecutionException | TimeoutException e) {
+            logger.warn("Sports data unavailable within {} ms: {}", budget.toMillis(), e.toString());
+            return missingReport(selectedSportNames);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return missingReport(selectedSportNames);
+        }
+        if (selectedSportNames != null && selectedSportNames.size() > 0) {
+            sports = sports.stream()
+                    .filter(o -> selectedSportNames.contains(o.getName()))
+                    .toList();
+        }
+
+        Map<Sport, List<PendingLeague>> pendingSports = new LinkedHashMap<>();
+        List<CompletableFuture<Void>> allLeaguesDone = new ArrayList<>();
+        for (Sport sport : sports) {
+            List<PendingLeague> pendingLeagues = new ArrayList<>();
+            for (League league : sportService.getTopLeagues(sport)) {
+                PendingLeague pendingLeague = startLeague(league, deadline);
+                pendingLeagues.add(pendingLeague);
+                allLeaguesDone.add(pendingLeague.done);
+            }
+            pendingSports.put(sport, pendingLeagues);
+        }
+
+        try {
+            CompletableFuture.allOf(allLeaguesDone.toArray(CompletableFuture[]::new))
+                    .get(remaining(deadline).toNanos(), TimeUnit.NANOSECONDS);
+        } catch (ExecutionException | TimeoutException e) {
+            logger.debug("Report budget of {} ms ended with partial results: {}", budget.toMillis(), e.toString());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        Map<Long, LeagueReport> knownLeagueReports = new HashMap<>();
+        Map<Long, EventReport> knownEventReports = new HashMap<>();
+        List<SportReport> sportReports = new ArrayList<>();
+        for (Map.Entry<Sport, List<PendingLeague>> pendingSport : pendingSports.entrySet()) {
+            SportReport sportReport = new SportReport(pendingSport.getKey().getName());
+            for (PendingLeague pendingLeague : pendingSport.getValue()) {
+                pendingLeague.cancel();
+                LeagueReport leagueReport = assembleLeague(pendingLeague, knownEventReports);
+                if (leagueReport.getStatus() != ReportStatus.MISSING) {
+                    knownLeagueReports.put(pendingLeague.league.getId(), leagueReport);
+                }
+                if (leagueReport.getStatus() != ReportStatus.COMPLETE) {
+                    sportReport.setStatus(ReportStatus.STALE);
+                }
+                sportReport.addLeagueReport(leagueReport);
+            }
+            sportReports.add(sportReport);
+        }
+        lastKnownLeagueReports = knownLeagueReports;
+        lastKnownEventReports = knownEventReports;
+        return new ReportResult(sportReports);
+    }
+
+    private PendingLeague startLeague(League league, long deadline) {
+        PendingLeague pendingLeague = new PendingLeague(league);
+        pendingLeague.topMatches = startWithoutBlocking(() -> sportService.fetchTopMatchesResultAsync(league.getId(),
+                DEFAULT_MATCHES_LIMIT, remaining(deadline)));
+        pendingLeague.done = pendingLeague.topMatches.thenCompose(topMatches -> CompletableFuture.allOf(
+                topMatches.getValue().stream()
+                        .map(event -> pendingLeague.details.computeIfAbsent(event.getId(), eventId ->
+                                startWithoutBlocking(() -> sportService.fetchEventDetailsResultAsync(eventId,
+                                        Projections.EVENT_MARKETS, remaining(deadline)))))
+                        .toArray(CompletableFuture[]::new)));
+        return pendingLeague;
+    }
+
+    /**
+     * Submits a fetch from a hand-off thread, as submitting from the caller would block it on a saturated
+     * fetch stage for as long as the stage takes to drain, past any deadline.
+     */
+    private static <T> CompletableFuture<T> startWithoutBlocking(Supplier<CompletableFuture<T>> fetch) {
+        return CompletableFuture.supplyAsync(fetch, BoundedStageExecutor.handOff()).thenCompose(Function.identity());
+    }
+
+    private LeagueReport assembleLeague(PendingLeague pendingLeague, Map<Long, EventReport> knownEventReports) {
+        LeagueReport leagueReport = new LeagueReport(pendingLeague.league.getName());
+        FetchResult<List<Event>> topMatches = completedValue(pendingLeague.topMatches);
+        if (topMatches == null) {
+            LeagueReport lastKnown = lastKnownLeagueReports.get(pendingLeague.league.getId());
+            if (lastKnown == null) {
+                leagueReport.setStatus(ReportStatus.MISSING);
+                return leagueReport;
+            }
+            for (EventReport eventReport : lastKnown.getEventReports()) {
+                EventReport staleReport = staleCopy(eventReport);
+                knownEventReports.put(staleReport.getEventId(), staleReport);
+                leagueReport.addEventReport(staleReport);
+            }
+            leagueReport.setStatus(ReportStatus.STALE);
+            return leagueReport;
+        }
+
+        if (topMatches.isStale()) {
+            leagueReport.setStatus(ReportStatus.STALE);
+        }
+        for (Event event : topMatches.getValue()) {
+            FetchResult<EventDetailsResponse> eventDetails = completedValue(pendingLeague.details.get(event.getId()));
+            EventReport eventReport;
+            if (eventDetails != null) {
+                eventReport = buildEventReport(event, eventDetails.getValue());
+                if (eventDetails.isStale()) {
+                    eventReport.setStatus(ReportStatus.STALE);
+                    leagueReport.setStatus(ReportStatus.STALE);
+                }
+            } else {
+                EventReport lastKnown = lastKnownEventReports.get(event.getId());
+                if (lastKnown != null) {
+                    eventReport = staleCopy(lastKnown);
+                } else {
+                    eventReport = new EventReport(event.getName(), event.getKickoffUtc() + " UTC", event.getId());
+                    eventReport.setStatus(ReportStatus.MISSING);
+                }
+                leagueReport.setStatus(ReportStatus.STALE);
+            }
+            if (eventReport.getStatus() != ReportStatus.MISSING) {
+                knownEventReports.put(eventReport.getEventId(), eventReport);
+            }
+            leagueReport.addEventReport(eventReport);
+        }
+        return leagueReport;
+    }
+
+    private ReportResult missingReport(List<String> selectedSportNames) {
+        List<SportReport> sportReports = new ArrayList<>();
+        if (selectedSportNames != null) {
+            for (String sportName : selectedSportNames) {
+                SportReport sportReport = new SportReport(sportName);
+                sportReport.setStatus(ReportStatus.MISSING);
+                sportReports.add(sportReport);
+            }
+        }
+        return new ReportResult(sportReports);
+    }
+
+    private static EventReport staleCopy(EventReport eventReport) {
+        EventReport staleReport = new EventReport(eventReport.getEventName(), eventReport.getKickoffUtc(),
+                eventReport.getEventId());
+        eventReport.getMarketReports().forEach(staleReport::addMarketReport);
+        staleReport.setStatus(eventReport.getStatus() == ReportStatus.MISSING ? ReportStatus.MISSING : ReportStatus.STALE);
+        return staleReport;
+    }
+
+    private static <T> T completedValue(CompletableFuture<T> future) {
+        if (future == null || !future.isDone() || future.isCompletedExceptionally()) {
+            return null;
+        }
+        return future.join();
+    }
+
+    /**
+     * Generates an immutable {@link CompactReport} asynchronously, processing each sport on the build stage
+     * like {@link #generateReportAsync}.
+     *
+     * <p>Every level of the report is an exact-sized array allocated from the number of leagues, events, markets
+     * and runners fetched, and kickoffs stay epoch milliseconds until printed, so building the report allocates
+     * no growing lists or per-event strings. The result can be shared between threads without copying.</p>
+     *
+     * @param selectedSportNames A list of sport names to filter the sports data.
+     *                           If null or empty, all sports will be included in the report.
+     * @return A {@link CompactReport} generated from the filtered sports data.
+     *
+     * @throws CompletionException if an error occurs during the asynchronous processing of sports.
+     */
+    public CompactReport generateCompactReportAsync(List<String> selectedSportNames) {
+        List<Sport> sports = sportService.fetchSportsData();
+        if (selectedSportNames != null && selectedSportNames.size() > 0) {
+            sports = sports.stream()
+                    .filter(o -> selectedSportNames.contains(o.getName()))
+                    .toList();
+        }
+
+        List<CompletableFuture<CompactSportReport>> futureSportReports = sports.stream()
+                .map(sport -> CompletableFuture.supplyAsync(() -> processSportCompact(sport), executorService))
+                .toList();
+        CompactSportReport[] sportReports = new CompactSportReport[futureSportReports.size()];
+        for (int i = 0; i < sportReports.length; i++) {
+            sportReports[i] = futureSportReports.get(i).join();
+        }
+        return new CompactReport(sportReports);
+    }
+
+    private CompactSportReport processSportCompact(Sport sport) {
+        List<League> topLeagues = sportService.getTopLeagues(sport);
+        CompactLeagueReport[] leagueReports = new CompactLeagueReport[topLeagues.size()];
+        for (int i = 0; i < leagueReports.length; i++) {
+            League league = topLeagues.get(i);
+            List<Event> topMatches = sportService.fetchTopMatches(league.getId(), DEFAULT_MATCHES_LIMIT);
+            CompactEventReport[] eventReports = new CompactEventReport[topMatches.size()];
+            for (int j = 0; j < eventReports.length; j++) {
+                Event event = topMatches.get(j);
+                EventDetailsResponse eventDetails =
+                        sportService.fetchEventDetails(event.getId(), Projections.EVENT_MARKETS);
+                if (oddsHistoryLog != null) {
+                    oddsHistoryLog.record(event.getId(), eventDetails.getMarkets());
+                }
+                eventReports[j] = CompactEventReport.of(event, eventDetails);
+            }
+            leagueReports[i] = new CompactLeagueReport(league.getName(), eventReports);
+        }
+        return new CompactSportReport(sport.getName(), leagueReports);
+    }
+
+    /**
+     * Generates the reports of several requests at once, fetching data shared between them only once.
+     *
+     * <p>Overlapping requests, such as Football and Tennis alongside Football and Basketball, are planned as one
+     * deduplicated set of fetches: the sports tree once, each league's top matches once and each event's details
+     * once. Upstream calls therefore scale with the unique data in the batch, not with the number of requests.</p>
+     *
+     * @param batch The sport names of each request. A null or empty list selects all sports.
+     * @return One {@link ReportResult} per request, in request order. Reports of sports, leagues and events
+     *         requested more than once are shared between the results and must not be modified.
+     *
+     * @throws CompletionException if any of the fetches fails.
+     */
+    public List<ReportResult> generateReports(List<List<String>> batch) {
+        return new ReportPlanner(sportService, DEFAULT_MATCHES_LIMIT, this::buildEventReport).run(batch);
+    }
+
+    /**
+     * Generates a report with all league and event fetches ordered by commercial priority.
+     *
+     * <p>Instead of walking sports and leagues in API order, every fetch is queued in a {@link PriorityFetchScheduler}
+     * that runs at most {@value #MAX_CONCURRENT_FETCHES} fetches at once and starts the event with the soonest kickoff
+     * first, then the one in the heaviest league and sport. Waiting fetches age, so low-priority leagues are delayed
+     * but never starved. The report itself keeps the usual sport, league and kickoff order.</p>
+     *
+     * @param selectedSportNames A list of sport names to filter the sports data.
+     *                           If null or empty, all sports will be included in the report.
+     * @return A {@link ReportResult} containing the processed sport reports based on the filtered sports data.
+     *
+     * @throws CompletionException if any of the fetches fails.
+     */
+    public ReportResult generateReportPrioritized(List<String> selectedSportNames) {
+        List<Sport> sports = sportService.fetchSportsData();
+        if (selectedSportNames != null && selectedSportNames.size() > 0) {
+            sports = sports.stream()
+                    .filter(o -> selectedSportNames.contains(o.getName()))
+                    .toList();
+        }
+
+        List<CompletableFuture<SportReport>> futureSportReports = new ArrayList<>();
+        for (Sport sport : sports) {
+            List<CompletableFuture<LeagueReport>> futureLeagueReports = sportService.getTopLeagues(sport).stream()
+                    .map(league -> processLeaguePrioritized(sport, league))
+                    .toList();
+            futureSportReports.add(CompletableFuture.allOf(futureLeagueReports.toArray(CompletableFuture[]::new))
+                    .thenApply(v -> {
+                        SportReport sportReport = new SportReport(sport.getName());
+                        futureLeagueReports.forEach(future -> sportReport.addLeagueReport(future.join()));
+                        return sportReport;
+                    }));
+        }
+
+        return CompletableFuture.allOf(futureSportReports.toArray(CompletableFuture[]::new))
+                .thenApply(v -> futureSportReports.stream()
+                        .map(CompletableFuture::join)
+                        .toList())
+                .thenApply(ReportResult::new)
+                .join();
+    }
+
+    private CompletableFuture<LeagueReport> processLeaguePrioritized(Sport sport, League league) {
+        return fetchScheduler.submit(FetchPriority.forLeague(sport, league),
+                        () -> sportService.fetchTopMatchesAsync(league.getId(), DEFAULT_MATCHES_LIMIT, null))
+                .thenCompose(topMatches -> {
+                    List<CompletableFuture<EventReport>> futureEventReports = topMatches.stream()
+                            .map(event -> fetchScheduler.submit(FetchPriority.forEvent(sport, league, event),
+                                            () -> sportService.fetchEventDetailsAsync(event.getId(), Projections.EVENT_MARKETS))
+                                    .thenApply(eventDetails -> buildEventReport(event, eventDetails)))
+                            .toList();
+                    return CompletableFuture.allOf(futureEventReports.toArray(CompletableFuture[]::new))
+                            .thenApply(v -> {
+                                LeagueReport leagueReport = new LeagueReport(league.getName());
+                                futureEventReports.forEach(future -> leagueReport.addEventReport(future.join()));
+                                return leagueReport;
+                            });
+                });
+    }
+
+    private static Duration remaining(long deadline) {
+        Duration remaining = Duration.ofNanos(deadline - System.nanoTime());
+        return remaining.compareTo(MIN_FETCH_TIMEOUT) < 0 ? MIN_FETCH_TIMEOUT : remaining;
+    }
+
     private CompletableFuture<SportReport> processSportAsync(Sport sport) {
         return CompletableFuture.supplyAsync(() -> {
-            logger.info("Processing report for: " + sport.getName());
+            logger.info("Processing report for: {}", sport.getName());
             return processSport(sport);
         }, executorService);
     }
@@ -137,12 +502,51 @@ public class ReportService {
         return leagueReport;
     }
 
+    /**
+     * Builds a league without blocking the caller: the top matches and then the details of every top match are
+     * fetched concurrently, each submitted without waiting for room on a saturated fetch stage.
+     *
+     * @return The league report, completed exceptionally if any of its fetches fails
+     */
+    public CompletableFuture<LeagueReport> processLeagueAsync(League league) {
+        return startWithoutBlocking(() -> sportService.fetchTopMatchesAsync(league.getId(), DEFAULT_MATCHES_LIMIT,
+                null))
+                .thenCompose(topMatches -> {
+                    List<CompletableFuture<EventReport>> futureEventReports = topMatches.stream()
+                            .map(event -> startWithoutBlocking(() -> sportService.fetchEventDetailsAsync(
+                                    event.getId(), Projections.EVENT_MARKETS))
+                                    .thenApply(eventDetails -> buildEventReport(event, eventDetails)))
+                            .toList();
+                    return CompletableFuture.allOf(futureEventReports.toArray(CompletableFuture[]::new))
+                            .thenApply(v -> {
+                                LeagueReport leagueReport = new LeagueReport(league.getName());
+                                futureEventReports.forEach(future -> leagueReport.addEventReport(future.join()));
+                                return leagueReport;
+                            });
+                });
+    }
+
     public EventReport processEvent(Event event) {
+        EventDetailsResponse eventDetails = sportService.fetchEventDetails(event.getId(), Projections.EVENT_MARKETS);
+        return buildEventReport(event, eventDetails);
+    }
+
+    /**
+     * @return The report of the event, built once its details are fetched without blocking the caller
+     */
+    public CompletableFuture<EventReport> processEventAsync(Event event) {
+        return sportService.fetchEventDetailsAsync(event.getId(), Projections.EVENT_MARKETS)
+                .thenApply(eventDetails -> buildEventReport(event, eventDetails));
+    }
+
+    private EventReport buildEventReport(Event event, EventDetailsResponse eventDetails) {
         EventReport eventReport = new EventReport(event.getName(), event.getKickoffUtc() + " UTC", event.getId());
-        EventDetailsResponse eventDetails = sportService.fetchEventDetails(event.getId());
+        if (oddsHistoryLog != null) {
+            oddsHistoryLog.record(event.getId(), eventDetails.getMarkets());
+        }
 
         for (Market market : eventDetails.getMarkets()) {
-            MarketReport marketReport = new MarketReport(market.getName());
+            MarketReport marketReport = new MarketReport(market.getName(), market.getId(), market.getMarketTypeId());
             for (Runner runner : market.getRunners()) {
                 marketReport.addRunner(new RunnerReport(runner.getName(), runner.getPrice(), runner.getId()));
             }
@@ -152,8 +556,42 @@ public class ReportService {
         return eventReport;
     }
 
+    /**
+     * @return Queue depth, blocked submission and rejection statistics of the build, fetch and parse stages
+     */
+    public List<StageStats> getStageStats() {
+        List<StageStats> stageStats = new ArrayList<>();
+        stageStats.add(executorService.getStats());
+        stageStats.addAll(sportService.getStageStats());
+        return stageStats;
+    }
+
+    /**
+     * Lets the underlying services finish background work. The build stage and other resources shared through
+     * the {@link AppContext} stay open for other services; they are released by closing the context.
+     */
     public void shutdown() {
-        logger.error("Shutdown Executor service");
-        executorService.shutdown();
+        logger.debug("Shutting down report service");
+        sportService.shutdown();
+    }
+
+    /**
+     * Fetches of one league started by {@link #generateReportWithDeadline}.
+     */
+    private static final class PendingLeague {
+        private final League league;
+        private final Map<Long, CompletableFuture<FetchResult<EventDetailsResponse>>> details =
+                new ConcurrentHashMap<>();
+        private CompletableFuture<FetchResult<List<Event>>> topMatches;
+        private CompletableFuture<Void> done;
+
+        private PendingLeague(League league) {
+            this.league = league;
+        }
+
+        private void cancel() {
+            topMatches.cancel(true);
+            details.values().forEach(future -> future.cancel(true));
+        }
     }
 }
@@ -0,0 +1,168 @@
+package com.example.demo.service.resilience;
+
+import java.time.Duration;
+
+/**
+ * Count-based circuit breaker guarding one endpoint family.
+ *
+ * <p>While {@link State#CLOSED} the outcomes of the last {@code windowSize} calls are kept in a ring buffer.
+ * Once at least {@code minimumCalls} are recorded and either the failure rate or the slow-call rate reaches its
+ * threshold, the breaker opens and {@link #tryAcquirePermission()} fails fast for {@code openDuration}. It then
+ * lets {@code halfOpenCalls} trial calls through: if they all succeed without being slow the breaker closes,
+ * otherwise it opens again.</p>
+ *
+ * <p>Every acquired permission must be followed by exactly one of {@link #onSuccess}, {@link #onError} or
+ * {@link #onIgnored()}.</p>
+ */
+public class CircuitBreaker {
+
+    public enum State {
+        CLOSED,
+        OPEN,
+        HALF_OPEN
+    }
+
+    private static final int DEFAULT_WINDOW_SIZE = 20;
+    private static final int DEFAULT_MINIMUM_CALLS = 10;
+    private static final double DEFAULT_FAILURE_RATE_THRESHOLD = 0.5;
+    private static final double DEFAULT_SLOW_CALL_RATE_THRESHOLD = 0.8;
+    private static final Duration DEFAULT_SLOW_CALL_DURATION = Duration.ofSeconds(3);
+    private static final Duration DEFAULT_OPEN_DURATION = Duration.ofSeconds(30);
+    private static final int DEFAULT_HALF_OPEN_CALLS = 3;
+
+    private final String name;
+    private final int minimumCalls;
+    private final double failureRateThreshold;
+    private final double slowCallRateThreshold;
+    private final long slowCallNanos;
+    private final long openNanos;
+    private final int halfOpenCalls;
+
+    private final boolean[] failures;
+    private final boolean[] slowCalls;
+    private int recordedCalls;
+    private int nextSlot;
+    private int failureCount;
+    private int slowCallCount;
+
+    private State state = State.CLOSED;
+    private long openedAt;
+    private int halfOpenPermitted;
+    private int halfOpenSucceeded;
+
+    public CircuitBreaker(String name) {
+        this(name, DEFAULT_WINDOW_SIZE, DEFAULT_MINIMUM_CALLS, DEFAULT_FAILURE_RATE_THRESHOLD,
+                DEFAULT_SLOW_CALL_RATE_THRESHOLD, DEFAULT_SLOW_CALL_DURATION, DEFAULT_OPEN_DURATION,
+                DEFAULT_HALF_OPEN_CALLS);
+    }
+
+    public CircuitBreaker(String name, int windowSize, int minimumCalls, double failureRateThreshold,
+                          double slowCallRateThreshold, Duration slowCallDuration, Duration openDuration,
+                          int halfOpenCalls) {
+        if (windowSize <= 0 || minimumCalls <= 0 || minimumCalls > windowSize || halfOpenCalls <= 0) {
+            throw new IllegalArgumentException("Invalid circuit breaker window for " + name);
+        }
+        this.name = name;
+        this.minimumCalls = minimumCalls;
+        this.failureRateThreshold = failureRateThreshold;
+        this.slowCallRateThreshold = slowCallRateThreshold;
+        this.slowCallNanos = slowCallDuration.toNanos();
+        this.openNanos = openDuration.toNanos();
+        this.halfOpenCalls = halfOpenCalls;
+        this.failures = new boolean[windowSize];
+        this.slowCalls = new boolean[windowSize];
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public synchronized State getState() {
+        return state;
+    }
+
+    /**
+     * @return true if the call may proceed, false if it must fail fast
+     */
+    public synchronized boolean tryAcquirePermission() {
+        if (state == State.OPEN) {
+            if (System.nanoTime() - openedAt < openNanos) {
+                return false;
+            }
+            state = State.HALF_OPEN;
+            halfOpenPermitted = 0;
+            halfOpenSucceeded = 0;
+        }
+        if (state == State.HALF_OPEN) {
+            if (halfOpenPermitted == halfOpenCalls) {
+                return false;
+            }
+            halfOpenPermitted++;
+        }
+        return true;
+    }
+
+    public synchronized void onSuccess(long durationNanos) {
+        record(false, durationNanos >= slowCallNanos);
+    }
+
+    public synchronized void onError(long durationNanos) {
+        record(true, durationNanos >= slowCallNanos);
+    }
+
+    /**
+     * Returns a permission whose call ended without an outcome that says anything about the upstream,
+     * e.g. because the caller was interrupted.
+     */
+    public synchronized void onIgnored() {
+        if (state == State.HALF_OPEN && halfOpenPermitted > 0) {
+            halfOpenPermitted--;
+        }
+    }
+
+    private void record(boolean failure, boolean slow) {
+        if (state == State.HALF_OPEN) {
+            if (failure || slow) {
+                open();
+            } else if (++halfOpenSucceeded == halfOpenCalls) {
+                close();
+            }
+            return;
+        }
+        if (state == State.OPEN) {
+            // Outcome of a call permitted before the breaker opened
+            return;
+        }
+
+        if (recordedCalls == failures.length) {
+            failureCount -= failures[nextSlot] ? 1 : 0;
+            slowCallCount -= slowCalls[nextSlot] ? 1 : 0;
+        } else {
+            recordedCalls++;
+        }
+        failures[nextSlot] = failure;
+        slowCalls[nextSlot] = slow;
+        failureCount += failure ? 1 : 0;
+        slowCallCount += slow ? 1 : 0;
+        nextSlot = (nextSlot + 1) % failures.length;
+
+        if (recordedCalls >= minimumCalls
+                && ((double) failureCount / recordedCalls >= failureRateThreshold
+                || (double) slowCallCount / recordedCalls >= slowCallRateThreshold)) {
+            open();
+        }
+    }
+
+    private void open() {
+        state = State.OPEN;
+        openedAt = System.nanoTime();
+    }
+
+    private void close() {
+        state = State.CLOSED;
+        recordedCalls = 0;
+        nextSlot = 0;
+        failureCount = 0;
+        slowCallCount = 0;
+    }
+}
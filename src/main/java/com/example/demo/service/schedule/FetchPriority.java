@@ -0,0 +1,34 @@
+package com.example.demo.service.schedule;
+
+import com.example.demo.model.Event;
+import com.example.demo.model.League;
+import com.example.demo.model.Sport;
+import lombok.Data;
+
+/**
+ * Commercial priority of a pending fetch: the soonest kickoff first, then the heaviest league and sport.
+ */
+@Data
+public class FetchPriority {
+    private final long kickoff;
+    private final int leagueWeight;
+    private final int sportWeight;
+
+    public FetchPriority(long kickoff, int leagueWeight, int sportWeight) {
+        this.kickoff = kickoff;
+        this.leagueWeight = leagueWeight;
+        this.sportWeight = sportWeight;
+    }
+
+    /**
+     * Priority of fetching a league's events. The kickoffs are not known yet, so the fetch is treated as
+     * urgent as an event kicking off now: it unlocks the event fetches behind it.
+     */
+    public static FetchPriority forLeague(Sport sport, League league) {
+        return new FetchPriority(System.currentTimeMillis(), league.getWeight(), sport.getWeight());
+    }
+
+    public static FetchPriority forEvent(Sport sport, League league, Event event) {
+        return new FetchPriority(event.getKickoff(), league.getWeight(), sport.getWeight());
+    }
+}
@@ -0,0 +1,121 @@
+package com.example.demo.service.schedule;
+
+import java.util.Comparator;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Orders pending fetches by {@link FetchPriority} and starts at most {@code maxConcurrentFetches} at a time.
+ *
+ * <p>Fetches are dispatched without dedicated threads: a fetch starts as soon as a permit is free and
+ * releases it when its future completes, which dispatches the next one. Only one thread dispatches at a time:
+ * a dispatch requested meanwhile, e.g. by a fetch that completed as it started, is left to the dispatching
+ * thread's loop, so completed fetches never recurse into further dispatches.</p>
+ *
+ * <p>To avoid starvation every fetch ages while it waits: each millisecond spent in the queue counts as
+ * {@code agingFactor} milliseconds closer to kickoff. Because all waiting fetches age at the same rate,
+ * aging reduces to adding {@code agingFactor * enqueueTime} to the kickoff when the fetch is queued.</p>
+ */
+public class PriorityFetchScheduler {
+
+    private static final long DEFAULT_AGING_FACTOR = 60;
+
+    private static final Comparator<PendingFetch<?>> ORDER = Comparator
+            .comparingLong((PendingFetch<?> fetch) -> fetch.agedKickoff)
+            .thenComparing(fetch -> fetch.priority.getLeagueWeight(), Comparator.reverseOrder())
+            .thenComparing(fetch -> fetch.priority.getSportWeight(), Comparator.reverseOrder())
+            .thenComparingLong(fetch -> fetch.sequence);
+
+    private final PriorityBlockingQueue<PendingFetch<?>> queue = new PriorityBlockingQueue<>(64, ORDER);
+    private final Semaphore permits;
+    private final long agingFactor;
+    private final long createdAt = System.currentTimeMillis();
+    private final AtomicLong sequence = new AtomicLong();
+    private final AtomicInteger dispatchRequests = new AtomicInteger();
+
+    public PriorityFetchScheduler(int maxConcurrentFetches) {
+        this(maxConcurrentFetches, DEFAULT_AGING_FACTOR);
+    }
+
+    public PriorityFetchScheduler(int maxConcurrentFetches, long agingFactor) {
+        this.permits = new Semaphore(maxConcurrentFetches);
+        this.agingFactor = agingFactor;
+    }
+
+    /**
+     * Queues a fetch. It is started once it is the most important pending fetch and a permit is free.
+     *
+     * @param priority The priority of the fetch
+     * @param fetch    Starts the fetch; called at most once, when the fetch is dispatched
+     * @param <T>      The type of the fetched value
+     * @return A future completed with the outcome of the fetch
+     */
+    public <T> CompletableFuture<T> submit(FetchPriority priority, Supplier<CompletableFuture<T>> fetch) {
+        long waitedSinceCreation = System.currentTimeMillis() - createdAt;
+        PendingFetch<T> pendingFetch = new PendingFetch<>(priority, fetch,
+                priority.getKickoff() + agingFactor * waitedSinceCreation, sequence.getAndIncrement());
+        queue.add(pendingFetch);
+        dispatch();
+        return pendingFetch.result;
+    }
+
+    public int getQueueDepth() {
+        return queue.size();
+    }
+
+    private void dispatch() {
+        if (dispatchRequests.getAndIncrement() != 0) {
+            return;
+        }
+        int requests = 1;
+        do {
+            while (!queue.isEmpty() && permits.tryAcquire()) {
+                PendingFetch<?> pendingFetch = queue.poll();
+                if (pendingFetch == null) {
+                    permits.release();
+                    continue;
+                }
+                start(pendingFetch);
+            }
+            requests = dispatchRequests.addAndGet(-requests);
+        } while (requests != 0);
+    }
+
+    private <T> void start(PendingFetch<T> pendingFetch) {
+        CompletableFuture<T> started;
+        try {
+            started = pendingFetch.fetch.get();
+        } catch (RuntimeException e) {
+            started = CompletableFuture.failedFuture(e);
+        }
+        started.whenComplete((value, e) -> {
+            permits.release();
+            if (e != null) {
+                pendingFetch.result.completeExceptionally(e);
+            } else {
+                pendingFetch.result.complete(value);
+            }
+            dispatch();
+        });
+    }
+
+    private static final class PendingFetch<T> {
+        private final FetchPriority priority;
+        private final Supplier<CompletableFuture<T>> fetch;
+        private final long agedKickoff;
+        private final long sequence;
+        private final CompletableFuture<T> result = new CompletableFuture<>();
+
+        private PendingFetch(FetchPriority priority, Supplier<CompletableFuture<T>> fetch, long agedKickoff,
+                             long sequence) {
+            this.priority = priority;
+            this.fetch = fetch;
+            this.agedKickoff = agedKickoff;
+            this.sequence = sequence;
+        }
+    }
+}
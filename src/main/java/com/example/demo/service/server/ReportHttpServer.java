@@ -0,0 +1,185 @@
+package com.example.demo.service.server;
+
+import com.example.demo.exception.ApiException;
+import com.example.demo.model.report.ReportResult;
+import com.example.demo.model.report.SportReport;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.sun.net.httpserver.Headers;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.zip.CRC32;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Embedded HTTP server exposing the latest report as JSON.
+ *
+ * <ul>
+ *     <li>{@code GET /reports} returns the whole {@link ReportResult}.</li>
+ *     <li>{@code GET /reports/{sport}} returns the {@link SportReport} of one sport, matched case-insensitively.</li>
+ * </ul>
+ *
+ * <p>Every {@link #publish} serializes and gzips each response once and swaps the whole set in atomically, so
+ * serving a request is a map lookup and a buffer write. Responses carry a content-based {@code ETag}, suffixed with
+ * {@code -gz} for the gzipped representation so caches never mix up the two: a request with a matching
+ * {@code If-None-Match} gets an empty {@code 304 Not Modified}, and a republished but unchanged report keeps its
+ * ETag. Requests are handled on virtual threads.</p>
+ */
+public class ReportHttpServer implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReportHttpServer.class);
+    private static final String REPORTS_PATH = "/reports";
+    private static final String SPORT_PATH_PREFIX = REPORTS_PATH + "/";
+    private static final String ALL_SPORTS = "";
+    private static final int HTTP_OK = 200;
+    private static final int HTTP_NOT_MODIFIED = 304;
+    private static final int HTTP_NOT_FOUND = 404;
+    private static final int HTTP_BAD_METHOD = 405;
+    private static final int HTTP_UNAVAILABLE = 503;
+    private static final int NO_BODY = -1;
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final ObjectWriter objectWriter;
+    private final AtomicReference<Map<String, SerializedResponse>> responses = new AtomicReference<>(Map.of());
+
+    private ReportHttpServer(HttpServer server, ObjectMapper objectMapper) {
+        this.server = server;
+        this.objectWriter = objectMapper.writer();
+        this.executor = Executors.newVirtualThreadPerTaskExecutor();
+        server.setExecutor(executor);
+        server.createContext(REPORTS_PATH, this::handle);
+    }
+
+    /**
+     * Starts a server on the given port. Until the first {@link #publish}, every request gets {@code 503}.
+     *
+     * @param port         The port to listen on, or 0 for any free port
+     * @param objectMapper Mapper used to serialize published reports
+     */
+    public static ReportHttpServer start(int port, ObjectMapper objectMapper) throws IOException {
+        ReportHttpServer reportHttpServer =
+                new ReportHttpServer(HttpServer.create(new InetSocketAddress(port), 0), objectMapper);
+        reportHttpServer.server.start();
+        logger.info("Serving reports on http://localhost:{}{}", reportHttpServer.getPort(), REPORTS_PATH);
+        return reportHttpServer;
+    }
+
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    /**
+     * Replaces the served report. Serialization and compression happen here, on the caller's thread.
+     */
+    public void publish(ReportResult reportResult) {
+        Map<String, SerializedResponse> serialized = new HashMap<>();
+        serialized.put(ALL_SPORTS, serialize(reportResult));
+        for (SportReport sportReport : reportResult.getSportReports()) {
+            serialized.put(sportKey(sportReport.getSportName()), serialize(sportReport));
+        }
+        responses.set(Map.copyOf(serialized));
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.close();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            if (!"GET".equals(exchange.getRequestMethod()) && !"HEAD".equals(exchange.getRequestMethod())) {
+                exchange.sendResponseHeaders(HTTP_BAD_METHOD, NO_BODY);
+                return;
+            }
+            Map<String, SerializedResponse> current = responses.get();
+            if (current.isEmpty()) {
+                exchange.sendResponseHeaders(HTTP_UNAVAILABLE, NO_BODY);
+                return;
+            }
+            // The context also receives paths that merely start with /reports, such as /reportsX
+            String path = exchange.getRequestURI().getPath();
+            SerializedResponse response = null;
+            if (path.equals(REPORTS_PATH)) {
+                response = current.get(ALL_SPORTS);
+            } else if (path.startsWith(SPORT_PATH_PREFIX) && path.length() > SPORT_PATH_PREFIX.length()) {
+                response = current.get(sportKey(path.substring(SPORT_PATH_PREFIX.length())));
+            }
+            if (response == null) {
+                exchange.sendResponseHeaders(HTTP_NOT_FOUND, NO_BODY);
+                return;
+            }
+
+            String acceptEncoding = exchange.getRequestHeaders().getFirst("Accept-Encoding");
+            boolean gzip = acceptEncoding != null && acceptEncoding.contains("gzip");
+            String etag = gzip ? response.gzipEtag() : response.etag();
+            Headers responseHeaders = exchange.getResponseHeaders();
+            responseHeaders.set("ETag", etag);
+            responseHeaders.set("Cache-Control", "no-cache");
+            responseHeaders.set("Vary", "Accept-Encoding");
+            if (etag.equals(exchange.getRequestHeaders().getFirst("If-None-Match"))) {
+                exchange.sendResponseHeaders(HTTP_NOT_MODIFIED, NO_BODY);
+                return;
+            }
+
+            byte[] body = response.json();
+            if (gzip) {
+                responseHeaders.set("Content-Encoding", "gzip");
+                body = response.gzippedJson();
+            }
+            responseHeaders.set("Content-Type", "application/json");
+            if ("HEAD".equals(exchange.getRequestMethod())) {
+                exchange.sendResponseHeaders(HTTP_OK, NO_BODY);
+                return;
+            }
+            exchange.sendResponseHeaders(HTTP_OK, body.length);
+            try (OutputStream output = exchange.getResponseBody()) {
+                output.write(body);
+            }
+        }
+    }
+
+    private SerializedResponse serialize(Object value) {
+        try {
+            byte[] json = objectWriter.writeValueAsBytes(value);
+            CRC32 crc = new CRC32();
+            crc.update(json);
+            String tag = Long.toHexString(crc.getValue()) + "-" + Integer.toHexString(json.length);
+            return new SerializedResponse(json, gzip(json), "\"" + tag + "\"", "\"" + tag + "-gz\"");
+        } catch (JsonProcessingException e) {
+            throw new ApiException("Error serializing report", e);
+        }
+    }
+
+    private static byte[] gzip(byte[] data) {
+        ByteArrayOutputStream output = new ByteArrayOutputStream(data.length / 4 + 64);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(output)) {
+            gzip.write(data);
+        } catch (IOException e) {
+            throw new ApiException("Error compressing report", e);
+        }
+        return output.toByteArray();
+    }
+
+    private static String sportKey(String sportName) {
+        return sportName.toLowerCase(Locale.ROOT);
+    }
+
+    private record SerializedResponse(byte[] json, byte[] gzippedJson, String etag, String gzipEtag) {
+    }
+}
@@ -0,0 +1,86 @@
+package com.example.demo.service.shard;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * Consistent hash ring mapping league ids to worker ids.
+ *
+ * <p>Every worker is placed on the ring at a number of virtual nodes, so leagues spread evenly and adding or
+ * removing a worker only moves the leagues of the ring segments it gains or loses; all other leagues stay
+ * with their worker.</p>
+ */
+public class ConsistentHashRing {
+
+    private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private final int virtualNodes;
+    private final TreeMap<Long, String> ring = new TreeMap<>();
+    private final Set<String> nodes = new TreeSet<>();
+
+    /**
+     * @param virtualNodes Number of ring positions per worker; more positions give a more even spread
+     */
+    public ConsistentHashRing(int virtualNodes) {
+        if (virtualNodes <= 0) {
+            throw new IllegalArgumentException("Virtual nodes must be positive: " + virtualNodes);
+        }
+        this.virtualNodes = virtualNodes;
+    }
+
+    public synchronized void add(String node) {
+        if (nodes.add(node)) {
+            for (int i = 0; i < virtualNodes; i++) {
+                ring.put(hash(node + "#" + i), node);
+            }
+        }
+    }
+
+    public synchronized void remove(String node) {
+        if (nodes.remove(node)) {
+            for (int i = 0; i < virtualNodes; i++) {
+                ring.remove(hash(node + "#" + i), node);
+            }
+        }
+    }
+
+    /**
+     * @return The worker owning the key, or null if the ring is empty
+     */
+    public synchronized String nodeFor(long key) {
+        if (ring.isEmpty()) {
+            return null;
+        }
+        Map.Entry<Long, String> owner = ring.ceilingEntry(mix(key));
+        return owner != null ? owner.getValue() : ring.firstEntry().getValue();
+    }
+
+    public synchronized Set<String> getNodes() {
+        return Set.copyOf(nodes);
+    }
+
+    private static long hash(String value) {
+        long hash = FNV_OFFSET_BASIS;
+        for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b & 0xff;
+            hash *= FNV_PRIME;
+        }
+        return mix(hash);
+    }
+
+    /**
+     * Finalizer of MurmurHash3, spreading sequential league ids over the whole ring.
+     */
+    private static long mix(long key) {
+        key ^= key >>> 33;
+        key *= 0xff51afd7ed558ccdL;
+        key ^= key >>> 33;
+        key *= 0xc4ceb9fe1a85ec53L;
+        key ^= key >>> 33;
+        return key;
+    }
+}
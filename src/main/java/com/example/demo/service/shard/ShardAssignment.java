@@ -0,0 +1,16 @@
+package com.example.demo.service.shard;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * League a worker is responsible for.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ShardAssignment {
+    private long leagueId;
+    private String leagueName;
+}
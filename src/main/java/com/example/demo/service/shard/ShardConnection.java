@@ -0,0 +1,55 @@
+package com.example.demo.service.shard;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Line-delimited JSON framing of {@link ShardMessage}s over a socket.
+ */
+final class ShardConnection implements Closeable {
+
+    private final Socket socket;
+    private final ObjectMapper objectMapper;
+    private final BufferedReader reader;
+    private final Writer writer;
+
+    ShardConnection(Socket socket, ObjectMapper objectMapper) throws IOException {
+        socket.setTcpNoDelay(true);
+        this.socket = socket;
+        this.objectMapper = objectMapper;
+        this.reader = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+        this.writer = new BufferedWriter(new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8));
+    }
+
+    synchronized void send(ShardMessage message) throws IOException {
+        writer.write(objectMapper.writeValueAsString(message));
+        writer.write('\n');
+        writer.flush();
+    }
+
+    /**
+     * @return The next message, or null once the peer has closed the connection
+     */
+    ShardMessage receive() throws IOException {
+        String line = reader.readLine();
+        return line == null ? null : objectMapper.readValue(line, ShardMessage.class);
+    }
+
+    @Override
+    public void close() {
+        try {
+            socket.close();
+        } catch (IOException ignored) {
+            // Closing a broken connection
+        }
+    }
+}
@@ -0,0 +1,371 @@
+package com.example.demo.service.shard;
+
+import com.example.demo.model.League;
+import com.example.demo.model.Sport;
+import com.example.demo.model.report.EventReport;
+import com.example.demo.model.report.LeagueReport;
+import com.example.demo.model.report.ReportResult;
+import com.example.demo.model.report.ReportStatus;
+import com.example.demo.model.report.SportReport;
+import com.example.demo.service.SportService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Coordinator of the sharded report mode, spreading the work of the top leagues over worker processes.
+ *
+ * <p>The coordinator fetches the sports tree itself and assigns every top league to a connected
+ * {@link ShardWorker} through a {@link ConsistentHashRing} keyed by {@link League#getId()}. Workers fetch and
+ * build their leagues and stream every {@link LeagueReport} back; {@link #getReport()} merges the latest ones
+ * into a {@link ReportResult} in the order of the sports tree.</p>
+ *
+ * <p>When a worker joins or its connection ends, the ring is updated and every worker whose leagues changed
+ * receives its new assignment. Leagues of a worker that died are reported {@link ReportStatus#STALE} from
+ * their last report until their new owner reports them, or {@link ReportStatus#MISSING} if none was received.
+ * Reports of leagues the sending worker does not own, e.g. sent just before losing them, are ignored.</p>
+ *
+ * <p>Assignments are sent outside the coordinator's lock, so a worker that stops reading only stalls its own
+ * assignments, not joins, leaves or reports of other workers.</p>
+ *
+ * <p>The protocol has no authentication: any client that sends a HELLO becomes a worker and its league reports
+ * are merged into the report. The coordinator therefore listens on loopback unless a bind host is given, which
+ * should only ever be an interface of a trusted network.</p>
+ */
+public class ShardCoordinator implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(ShardCoordinator.class);
+    private static final int VIRTUAL_NODES = 128;
+
+    private final SportService sportService;
+    private final List<String> selectedSportNames;
+    private final ObjectMapper objectMapper;
+    private final ServerSocket serverSocket;
+    private final ExecutorService connectionExecutor = Executors.newVirtualThreadPerTaskExecutor();
+    private final ConsistentHashRing ring = new ConsistentHashRing(VIRTUAL_NODES);
+    // Guarded by this
+    private final Map<String, ShardConnection> workers = new HashMap<>();
+    private final Map<String, Set<Long>> assignments = new HashMap<>();
+    private final Map<String, List<ShardAssignment>> assignedLeagues = new HashMap<>();
+    private Map<String, List<League>> leaguesBySport = Map.of();
+    private final Map<Long, LeagueReport> latestReports = new ConcurrentHashMap<>();
+    private final Set<Long> orphanedLeagues = ConcurrentHashMap.newKeySet();
+    private volatile boolean closed;
+
+    private ShardCoordinator(SportService sportService, List<String> selectedSportNames, ObjectMapper objectMapper,
+                             ServerSocket serverSocket) {
+        this.sportService = sportService;
+        this.selectedSportNames = selectedSportNames;
+        this.objectMapper = objectMapper;
+        this.serverSocket = serverSocket;
+    }
+
+    /**
+     * Fetches the top leagues and starts accepting workers on loopback.
+     *
+     * @param sportService       Service used to fetch the sports tree
+     * @param selectedSportNames Sports of the report
+     * @param port               Port to listen on, or 0 for an ephemeral port
+     * @param objectMapper       Mapper of the wire format
+     */
+    public static ShardCoordinator start(SportService sportService, List<String> selectedSportNames, int port,
+                                         ObjectMapper objectMapper) throws IOException {
+        return start(sportService, selectedSportNames, InetAddress.getLoopbackAddress(), port, objectMapper);
+    }
+
+    /**
+     * Fetches the top leagues and starts accepting workers.
+     *
+     * @param sportService       Service used to fetch the sports tree
+     * @param selectedSportNames Sports of the report
+     * @param bindAddress        Address to listen on; workers are not authenticated, so it must not be reachable
+     *                           from untrusted networks
+     * @param port               Port to listen on, or 0 for an ephemeral port
+     * @param objectMapper       Mapper of the wire format
+     */
+    public static ShardCoordinator start(SportService sportService, List<String> selectedSportNames,
+                                         InetAddress bindAddress, int port, ObjectMapper objectMapper)
+            throws IOException {
+        ShardCoordinator coordinator = new ShardCoordinator(sportService, selectedSportNames, objectMapper,
+                new ServerSocket(port, 0, bindAddress));
+        try {
+            coordinator.refreshLeagues();
+        } catch (RuntimeException e) {
+            coordinator.close();
+            throw e;
+        }
+        Thread.ofVirtual().name("shard-coordinator-accept").start(coordinator::acceptWorkers);
+        logger.info("Shard coordinator listening on {}:{}", bindAddress.getHostAddress(), coordinator.getPort());
+        return coordinator;
+    }
+
+    /**
+     * Re-fetches the sports tree and reassigns the top leagues, so leagues entering or leaving the top are picked
+     * up by the workers.
+     */
+    public void refreshLeagues() {
+        Map<String, List<League>> topLeagues = new LinkedHashMap<>();
+        for (Sport sport : sportService.fetchSportsData()) {
+            if (selectedSportNames.contains(sport.getName())) {
+                topLeagues.put(sport.getName(), sportService.getTopLeagues(sport));
+            }
+        }
+        Set<String> changedWorkers;
+        synchronized (this) {
+            leaguesBySport = topLeagues;
+            changedWorkers = rebalance();
+        }
+        changedWorkers.forEach(this::sendAssignment);
+    }
+
+    public int getPort() {
+        return serverSocket.getLocalPort();
+    }
+
+    public synchronized int getWorkerCount() {
+        return workers.size();
+    }
+
+    /**
+     * @return Number of leagues currently owned by every connected worker
+     */
+    public synchronized Map<String, Integer> getAssignmentSizes() {
+        Map<String, Integer> sizes = new HashMap<>();
+        assignments.forEach((workerId, leagueIds) -> sizes.put(workerId, leagueIds.size()));
+        return sizes;
+    }
+
+    /**
+     * Merges the latest league reports received from the workers.
+     */
+    public ReportResult getReport() {
+        Map<String, List<League>> topLeagues;
+        synchronized (this) {
+            topLeagues = leaguesBySport;
+        }
+        List<SportReport> sportReports = new ArrayList<>();
+        for (Map.Entry<String, List<League>> sportLeagues : topLeagues.entrySet()) {
+            SportReport sportReport = new SportReport(sportLeagues.getKey());
+            for (League league : sportLeagues.getValue()) {
+                LeagueReport leagueReport = mergedLeagueReport(league);
+                if (leagueReport.getStatus() != ReportStatus.COMPLETE) {
+                    sportReport.setStatus(ReportStatus.STALE);
+                }
+                sportReport.addLeagueReport(leagueReport);
+            }
+            sportReports.add(sportReport);
+        }
+        return new ReportResult(sportReports);
+    }
+
+    private LeagueReport mergedLeagueReport(League league) {
+        LeagueReport latest = latestReports.get(league.getId());
+        if (latest == null) {
+            LeagueReport missing = new LeagueReport(league.getName());
+            missing.setStatus(ReportStatus.MISSING);
+            return missing;
+        }
+        if (!orphanedLeagues.contains(league.getId())) {
+            return latest;
+        }
+        LeagueReport stale = new LeagueReport(latest.getLeagueName());
+        for (EventReport eventReport : latest.getEventReports()) {
+            stale.addEventReport(eventReport);
+        }
+        stale.setStatus(ReportStatus.STALE);
+        return stale;
+    }
+
+    private void acceptWorkers() {
+        while (!closed) {
+            try {
+                Socket socket = serverSocket.accept();
+                connectionExecutor.execute(() -> serveWorker(socket));
+            } catch (IOException e) {
+                if (!closed) {
+                    logger.warn("Failed to accept worker connection: {}", e.getMessage());
+                }
+            }
+        }
+    }
+
+    private void serveWorker(Socket socket) {
+        ShardConnection connection = null;
+        String workerId = null;
+        try {
+            connection = new ShardConnection(socket, objectMapper);
+            ShardMessage hello = connection.receive();
+            if (hello == null || hello.getType() != ShardMessage.Type.HELLO) {
+                logger.warn("Worker connection closed before introducing itself");
+                return;
+            }
+            workerId = hello.getWorkerId();
+            register(workerId, connection);
+
+            ShardMessage message;
+            while ((message = connection.receive()) != null) {
+                if (message.getType() != ShardMessage.Type.LEAGUE_REPORT) {
+                    continue;
+                }
+                if (owns(workerId, connection, message.getLeagueId())) {
+                    latestReports.put(message.getLeagueId(), message.getLeagueReport());
+                    orphanedLeagues.remove(message.getLeagueId());
+                } else {
+                    logger.debug("Ignoring report of league {} from worker {}, which does not own it",
+                            message.getLeagueId(), workerId);
+                }
+            }
+        } catch (IOException e) {
+            if (!closed) {
+                logger.warn("Lost connection to worker {}: {}", workerId, e.getMessage());
+            }
+        } finally {
+            if (workerId != null) {
+                unregister(workerId, connection);
+            }
+            if (connection != null) {
+                connection.close();
+            } else {
+                closeQuietly(socket);
+            }
+        }
+    }
+
+    private synchronized boolean owns(String workerId, ShardConnection connection, long leagueId) {
+        Set<Long> leagueIds = assignments.get(workerId);
+        return workers.get(workerId) == connection && leagueIds != null && leagueIds.contains(leagueId);
+    }
+
+    private void register(String workerId, ShardConnection connection) {
+        Set<String> changedWorkers;
+        synchronized (this) {
+            ShardConnection previous = workers.put(workerId, connection);
+            if (previous != null) {
+                logger.warn("Worker {} reconnected, dropping its previous connection", workerId);
+                previous.close();
+                // The new connection has not received anything yet
+                assignments.remove(workerId);
+            }
+            ring.add(workerId);
+            logger.info("Worker {} joined, {} workers connected", workerId, workers.size());
+            changedWorkers = rebalance();
+        }
+        changedWorkers.forEach(this::sendAssignment);
+    }
+
+    private void unregister(String workerId, ShardConnection connection) {
+        Set<String> changedWorkers;
+        synchronized (this) {
+            if (closed || workers.get(workerId) != connection) {
+                return;
+            }
+            workers.remove(workerId);
+            ring.remove(workerId);
+            assignedLeagues.remove(workerId);
+            Set<Long> orphaned = assignments.remove(workerId);
+            if (orphaned != null) {
+                orphanedLeagues.addAll(orphaned);
+            }
+            logger.warn("Worker {} left, reassigning {} leagues to {} workers",
+                    workerId, orphaned == null ? 0 : orphaned.size(), workers.size());
+            changedWorkers = rebalance();
+        }
+        changedWorkers.forEach(this::sendAssignment);
+    }
+
+    /**
+     * Recomputes the owner of every top league.
+     *
+     * @return The workers whose leagues changed, to be sent their assignment once the lock is released
+     */
+    private synchronized Set<String> rebalance() {
+        Map<String, List<ShardAssignment>> nextAssignments = new HashMap<>();
+        workers.keySet().forEach(workerId -> nextAssignments.put(workerId, new ArrayList<>()));
+        for (List<League> leagues : leaguesBySport.values()) {
+            for (League league : leagues) {
+                String owner = ring.nodeFor(league.getId());
+                if (owner != null) {
+                    nextAssignments.get(owner).add(new ShardAssignment(league.getId(), league.getName()));
+                }
+            }
+        }
+
+        Set<String> changedWorkers = new LinkedHashSet<>();
+        for (Map.Entry<String, List<ShardAssignment>> assignment : nextAssignments.entrySet()) {
+            Set<Long> leagueIds = new LinkedHashSet<>();
+            assignment.getValue().forEach(shardAssignment -> leagueIds.add(shardAssignment.getLeagueId()));
+            if (leagueIds.equals(assignments.get(assignment.getKey()))) {
+                continue;
+            }
+            assignments.put(assignment.getKey(), leagueIds);
+            assignedLeagues.put(assignment.getKey(), List.copyOf(assignment.getValue()));
+            changedWorkers.add(assignment.getKey());
+        }
+        return changedWorkers;
+    }
+
+    /**
+     * Sends a worker its current assignment. The connection stays locked from reading the assignment until it is
+     * written, so an assignment read by a concurrent rebalance cannot overtake a newer one.
+     */
+    private void sendAssignment(String workerId) {
+        ShardConnection connection;
+        synchronized (this) {
+            connection = workers.get(workerId);
+        }
+        if (connection == null) {
+            return;
+        }
+        synchronized (connection) {
+            List<ShardAssignment> leagues;
+            synchronized (this) {
+                if (workers.get(workerId) != connection) {
+                    return;
+                }
+                leagues = assignedLeagues.get(workerId);
+            }
+            try {
+                connection.send(ShardMessage.assign(leagues));
+            } catch (IOException e) {
+                // The reading side notices the broken connection and unregisters the worker
+                logger.warn("Failed to send assignment to worker {}: {}", workerId, e.getMessage());
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        closeQuietly(serverSocket);
+        synchronized (this) {
+            workers.values().forEach(ShardConnection::close);
+            workers.clear();
+            assignments.clear();
+            assignedLeagues.clear();
+        }
+        connectionExecutor.shutdownNow();
+    }
+
+    private static void closeQuietly(AutoCloseable closeable) {
+        try {
+            closeable.close();
+        } catch (Exception ignored) {
+            // Already closed
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com.example.demo.service.shard;
+
+import com.example.demo.model.report.LeagueReport;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Message exchanged between the {@link ShardCoordinator} and its {@link ShardWorker}s, one JSON object per line.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ShardMessage {
+
+    public enum Type {
+        /** Sent by a worker once after connecting. */
+        HELLO,
+        /** Sent by the coordinator with the full list of leagues the worker owns. */
+        ASSIGN,
+        /** Sent by a worker every time it has built the report of one of its leagues. */
+        LEAGUE_REPORT
+    }
+
+    private Type type;
+    private String workerId;
+    private List<ShardAssignment> leagues;
+    private long leagueId;
+    private LeagueReport leagueReport;
+
+    public static ShardMessage hello(String workerId) {
+        return new ShardMessage(Type.HELLO, workerId, null, 0, null);
+    }
+
+    public static ShardMessage assign(List<ShardAssignment> leagues) {
+        return new ShardMessage(Type.ASSIGN, null, leagues, 0, null);
+    }
+
+    public static ShardMessage leagueReport(long leagueId, LeagueReport leagueReport) {
+        return new ShardMessage(Type.LEAGUE_REPORT, null, null, leagueId, leagueReport);
+    }
+}
@@ -0,0 +1,161 @@
+package com.example.demo.service.shard;
+
+import com.example.demo.model.League;
+import com.example.demo.model.report.LeagueReport;
+import com.example.demo.service.report.ReportService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.net.Socket;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Worker of the sharded report mode.
+ *
+ * <p>The worker connects to a {@link ShardCoordinator}, receives the leagues it owns and builds their
+ * {@link LeagueReport}s with its own {@link ReportService}, right after every new assignment and then at a fixed
+ * rate. All assigned leagues are built concurrently on the asynchronous fetch path, so a worker keeps as many
+ * requests in flight as its fetch stage allows, and every league report is sent to the coordinator as soon as it
+ * is built.</p>
+ */
+public class ShardWorker implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(ShardWorker.class);
+
+    private final ReportService reportService;
+    private final String workerId;
+    private final ShardConnection connection;
+    private final ScheduledExecutorService scheduler;
+    private final CountDownLatch disconnected = new CountDownLatch(1);
+    private volatile List<ShardAssignment> assignments = List.of();
+    private volatile boolean closed;
+
+    private ShardWorker(ReportService reportService, String workerId, ShardConnection connection) {
+        this.reportService = reportService;
+        this.workerId = workerId;
+        this.connection = connection;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "shard-worker-" + workerId);
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Connects to the coordinator and starts building the leagues it assigns.
+     *
+     * @param reportService   Service building the league reports
+     * @param workerId        Identifier of this worker, unique among the workers of the coordinator
+     * @param host            Host of the coordinator
+     * @param port            Port of the coordinator
+     * @param objectMapper    Mapper of the wire format
+     * @param refreshInterval Interval between two rebuilds of all assigned leagues
+     */
+    public static ShardWorker start(ReportService reportService, String workerId, String host, int port,
+                                    ObjectMapper objectMapper, Duration refreshInterval) throws IOException {
+        ShardConnection connection = new ShardConnection(new Socket(host, port), objectMapper);
+        ShardWorker worker = new ShardWorker(reportService, workerId, connection);
+        connection.send(ShardMessage.hello(workerId));
+        Thread.ofVirtual().name("shard-worker-receive-" + workerId).start(worker::receiveAssignments);
+        worker.scheduler.scheduleWithFixedDelay(worker::buildAssignedLeagues,
+                refreshInterval.toMillis(), refreshInterval.toMillis(), TimeUnit.MILLISECONDS);
+        logger.info("Worker {} connected to coordinator {}:{}", workerId, host, port);
+        return worker;
+    }
+
+    public String getWorkerId() {
+        return workerId;
+    }
+
+    public List<ShardAssignment> getAssignments() {
+        return assignments;
+    }
+
+    /**
+     * Blocks until the connection to the coordinator ends or the worker is closed.
+     */
+    public void awaitDisconnect() throws InterruptedException {
+        disconnected.await();
+    }
+
+    private void receiveAssignments() {
+        try {
+            ShardMessage message;
+            while ((message = connection.receive()) != null) {
+                if (message.getType() == ShardMessage.Type.ASSIGN) {
+                    assignments = List.copyOf(message.getLeagues());
+                    logger.info("Worker {} assigned {} leagues", workerId, assignments.size());
+                    scheduler.execute(this::buildAssignedLeagues);
+                }
+            }
+            if (!closed) {
+                logger.warn("Coordinator closed the connection of worker {}", workerId);
+            }
+        } catch (IOException e) {
+            if (!closed) {
+                logger.warn("Worker {} lost its coordinator: {}", workerId, e.getMessage());
+            }
+        } finally {
+            close();
+        }
+    }
+
+    /**
+     * Builds every assigned league concurrently and waits for all of them, so scheduled rebuilds never overlap.
+     */
+    private void buildAssignedLeagues() {
+        List<CompletableFuture<Void>> sent = new ArrayList<>();
+        for (ShardAssignment assignment : assignments) {
+            if (closed) {
+                break;
+            }
+            League league = new League();
+            league.setId(assignment.getLeagueId());
+            league.setName(assignment.getLeagueName());
+            sent.add(reportService.processLeagueAsync(league)
+                    .handle((leagueReport, e) -> {
+                        if (e != null) {
+                            // The coordinator keeps the previous report of the league until the next refresh succeeds
+                            logger.warn("Worker {} failed to build league {}: {}", workerId, league.getName(),
+                                    e.getMessage());
+                        } else {
+                            send(assignment.getLeagueId(), league.getName(), leagueReport);
+                        }
+                        return null;
+                    }));
+        }
+        CompletableFuture.allOf(sent.toArray(CompletableFuture[]::new)).join();
+    }
+
+    private void send(long leagueId, String leagueName, LeagueReport leagueReport) {
+        if (closed) {
+            return;
+        }
+        try {
+            connection.send(ShardMessage.leagueReport(leagueId, leagueReport));
+        } catch (IOException e) {
+            logger.warn("Worker {} failed to send league {}: {}", workerId, leagueName, e.getMessage());
+            close();
+        }
+    }
+
+    /**
+     * Disconnects from the coordinator, which reassigns the leagues of this worker to the remaining workers.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        connection.close();
+        scheduler.shutdownNow();
+        disconnected.countDown();
+    }
+}
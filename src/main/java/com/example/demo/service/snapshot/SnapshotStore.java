@@ -0,0 +1,307 @@
+package com.example.demo.service.snapshot;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.CRC32;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Append-only on-disk store of the last fetched API payloads, used to serve a report right after a JVM start.
+ *
+ * <p>Every {@link #put} appends a deflate-compressed record to a single file. An in-memory index maps each key
+ * to its latest record and is rebuilt by scanning the file on open; a torn record at the tail is truncated.
+ * Reads inflate straight from a read-only memory mapping of the file.</p>
+ *
+ * <p>Records older than the store's maximum age are never returned, so a store left behind by a long stopped
+ * process cannot answer with arbitrarily old data. An unchanged payload is only written again once its record
+ * has aged past half of the maximum age.</p>
+ *
+ * <p>Record layout: magic (int), key length (int), key (UTF-8), saved at (long, epoch millis),
+ * raw length (int), CRC32 of the raw payload (int), compressed length (int), compressed payload.</p>
+ *
+ * <p>Offsets are ints, so a store is limited to 2 GB and appends beyond that are rejected; it is compacted
+ * on open once superseded records take up more than half of the file.</p>
+ */
+public class SnapshotStore implements Closeable {
+
+    private static final Logger logger = LoggerFactory.getLogger(SnapshotStore.class);
+    private static final int RECORD_MAGIC = 0x534E4150; // "SNAP"
+    private static final int FIXED_HEADER_SIZE = 4 + 4 + 8 + 4 + 4 + 4;
+    private static final long COMPACTION_MIN_BYTES = 1 << 20;
+    // Deflate expands to at most about 1032 times its compressed size, which bounds an honest raw length
+    private static final long MAX_INFLATE_RATIO = 1032;
+
+    private final Path path;
+    private final long maxAgeMillis;
+    private final FileChannel channel;
+    private final Map<String, Entry> index = new ConcurrentHashMap<>();
+    private volatile MappedByteBuffer mapping;
+    private long writePosition;
+    private long liveBytes;
+
+    private SnapshotStore(Path path, Duration maxAge) throws IOException {
+        this.path = path;
+        this.maxAgeMillis = maxAge.toMillis();
+        this.channel = FileChannel.open(path,
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        recover();
+    }
+
+    /**
+     * Opens (or creates) the store at the given path, rebuilding the index and compacting the file if needed.
+     *
+     * @param path   The snapshot file
+     * @param maxAge Age past which a stored payload is no longer returned
+     * @return An open snapshot store
+     * @throws IOException If the file cannot be opened or read
+     */
+    public static SnapshotStore open(Path path, Duration maxAge) throws IOException {
+        if (maxAge.isNegative() || maxAge.isZero()) {
+            throw new IllegalArgumentException("Snapshot max age must be positive: " + maxAge);
+        }
+        Path parent = path.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        SnapshotStore store = new SnapshotStore(path, maxAge);
+        if (store.writePosition > COMPACTION_MIN_BYTES && store.liveBytes * 2 < store.writePosition) {
+            Path compacted = store.writeCompactedCopy();
+            store.close();
+            Files.move(compacted, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            store = new SnapshotStore(path, maxAge);
+        }
+        return store;
+    }
+
+    /**
+     * Returns the latest payload stored under the given key.
+     *
+     * @param key The key, typically the request URL
+     * @return The decompressed payload, or empty if there is none, it is older than the maximum age
+     * or the record is corrupted
+     */
+    public Optional<byte[]> get(String key) {
+        Entry entry = index.get(key);
+        if (entry == null || isExpired(entry, System.currentTimeMillis())) {
+            return Optional.empty();
+        }
+        if (entry.rawLength() < 0 || entry.rawLength() > entry.compressedLength() * MAX_INFLATE_RATIO) {
+            logger.warn("Corrupted snapshot record length for key: {}", key);
+            return Optional.empty();
+        }
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(slice(entry.payloadOffset(), entry.compressedLength()));
+            byte[] payload = new byte[entry.rawLength()];
+            int inflated = 0;
+            while (inflated < payload.length && !inflater.finished()) {
+                int n = inflater.inflate(payload, inflated, payload.length - inflated);
+                if (n == 0 && inflater.needsInput()) {
+                    break;
+                }
+                inflated += n;
+            }
+            if (inflated != payload.length || checksum(payload) != entry.crc()) {
+                logger.warn("Corrupted snapshot record for key: {}", key);
+                return Optional.empty();
+            }
+            return Optional.of(payload);
+        } catch (IOException | DataFormatException e) {
+            logger.warn("Failed to read snapshot record for key: {}", key, e);
+            return Optional.empty();
+        } finally {
+            inflater.end();
+        }
+    }
+
+    /**
+     * Appends a payload under the given key. Payloads identical to the latest stored one are not written again
+     * until that record has aged past half of the maximum age.
+     *
+     * @param key     The key, typically the request URL
+     * @param payload The raw payload
+     * @throws IOException If the record cannot be written
+     */
+    public void put(String key, byte[] payload) throws IOException {
+        append(key, payload, System.currentTimeMillis());
+    }
+
+    private synchronized void append(String key, byte[] payload, long savedAt) throws IOException {
+        int crc = checksum(payload);
+        Entry previous = index.get(key);
+        if (previous != null && previous.rawLength() == payload.length && previous.crc() == crc
+                && savedAt - previous.savedAt() < maxAgeMillis / 2) {
+            return;
+        }
+
+        byte[] keyBytes = key.getBytes(StandardCharsets.UTF_8);
+        byte[] compressed = deflate(payload);
+        int recordLength = FIXED_HEADER_SIZE + keyBytes.length + compressed.length;
+        if (writePosition + recordLength > Integer.MAX_VALUE) {
+            throw new IOException("Snapshot store is full, " + path + " would grow past 2 GB");
+        }
+        ByteBuffer record = ByteBuffer.allocate(recordLength)
+                .putInt(RECORD_MAGIC)
+                .putInt(keyBytes.length)
+                .put(keyBytes)
+                .putLong(savedAt)
+                .putInt(payload.length)
+                .putInt(crc)
+                .putInt(compressed.length)
+                .put(compressed)
+                .flip();
+
+        long writeOffset = writePosition;
+        while (record.hasRemaining()) {
+            writeOffset += channel.write(record, writeOffset);
+        }
+        long payloadOffset = writePosition + recordLength - compressed.length;
+        index.put(key, new Entry(payloadOffset, compressed.length, payload.length, crc, recordLength, savedAt));
+        liveBytes += recordLength - (previous != null ? previous.recordLength() : 0);
+        writePosition += recordLength;
+    }
+
+    /**
+     * @return Whether a payload younger than the maximum age is stored under the given key
+     */
+    public boolean contains(String key) {
+        Entry entry = index.get(key);
+        return entry != null && !isExpired(entry, System.currentTimeMillis());
+    }
+
+    public int size() {
+        return index.size();
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        mapping = null;
+        channel.close();
+    }
+
+    private void recover() throws IOException {
+        long fileSize = channel.size();
+        if (fileSize == 0) {
+            return;
+        }
+        MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, fileSize);
+        int position = 0;
+        while (buffer.remaining() >= FIXED_HEADER_SIZE) {
+            int recordStart = buffer.position();
+            if (buffer.getInt() != RECORD_MAGIC) {
+                break;
+            }
+            int keyLength = buffer.getInt();
+            if (keyLength < 0 || buffer.remaining() < keyLength + FIXED_HEADER_SIZE - 8) {
+                break;
+            }
+            byte[] keyBytes = new byte[keyLength];
+            buffer.get(keyBytes);
+            long savedAt = buffer.getLong();
+            int rawLength = buffer.getInt();
+            int crc = buffer.getInt();
+            int compressedLength = buffer.getInt();
+            if (compressedLength < 0 || buffer.remaining() < compressedLength) {
+                break;
+            }
+            int payloadOffset = buffer.position();
+            buffer.position(payloadOffset + compressedLength);
+
+            int recordLength = buffer.position() - recordStart;
+            Entry previous = index.put(new String(keyBytes, StandardCharsets.UTF_8),
+                    new Entry(payloadOffset, compressedLength, rawLength, crc, recordLength, savedAt));
+            liveBytes += recordLength - (previous != null ? previous.recordLength() : 0);
+            position = buffer.position();
+        }
+
+        writePosition = position;
+        if (position < fileSize) {
+            logger.warn("Truncating {} trailing bytes of incomplete snapshot data in {}", fileSize - position, path);
+            channel.truncate(position);
+        }
+    }
+
+    private Path writeCompactedCopy() throws IOException {
+        Path compacted = path.resolveSibling(path.getFileName() + ".compact");
+        Files.deleteIfExists(compacted);
+        long now = System.currentTimeMillis();
+        try (SnapshotStore target = new SnapshotStore(compacted, Duration.ofMillis(maxAgeMillis))) {
+            // Expired records are dropped; live ones keep their original save time
+            for (Map.Entry<String, Entry> entry : index.entrySet()) {
+                if (isExpired(entry.getValue(), now)) {
+                    continue;
+                }
+                Optional<byte[]> payload = get(entry.getKey());
+                if (payload.isPresent()) {
+                    target.append(entry.getKey(), payload.get(), entry.getValue().savedAt());
+                }
+            }
+            target.channel.force(true);
+        }
+        return compacted;
+    }
+
+    private boolean isExpired(Entry entry, long now) {
+        return now - entry.savedAt() > maxAgeMillis;
+    }
+
+    private ByteBuffer slice(long offset, int length) throws IOException {
+        MappedByteBuffer current = mapping;
+        if (current == null || offset + length > current.capacity()) {
+            current = remap();
+        }
+        return current.slice((int) offset, length);
+    }
+
+    private synchronized MappedByteBuffer remap() throws IOException {
+        if (mapping == null || mapping.capacity() < writePosition) {
+            mapping = channel.map(FileChannel.MapMode.READ_ONLY, 0, writePosition);
+        }
+        return mapping;
+    }
+
+    private static byte[] deflate(byte[] payload) {
+        Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION);
+        try {
+            deflater.setInput(payload);
+            deflater.finish();
+            ByteArrayOutputStream output = new ByteArrayOutputStream(Math.max(64, payload.length / 4));
+            byte[] chunk = new byte[8192];
+            while (!deflater.finished()) {
+                int n = deflater.deflate(chunk);
+                output.write(chunk, 0, n);
+            }
+            return output.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private static int checksum(byte[] payload) {
+        CRC32 crc32 = new CRC32();
+        crc32.update(payload);
+        return (int) crc32.getValue();
+    }
+
+    private record Entry(long payloadOffset, int compressedLength, int rawLength, int crc, int recordLength,
+                         long savedAt) {
+    }
+}
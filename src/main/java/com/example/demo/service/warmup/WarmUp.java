@@ -0,0 +1,123 @@
+package com.example.demo.service.warmup;
+
+import com.example.demo.config.AppConfig;
+import com.example.demo.config.AppContext;
+import com.example.demo.model.EventDetailsResponse;
+import com.example.demo.model.EventResponse;
+import com.example.demo.model.Sport;
+import com.example.demo.service.projection.JsonProjection;
+import com.example.demo.service.projection.Projections;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Start-up warm-up run alongside the first sports fetch.
+ *
+ * <p>The sports fetch opens the first connection itself, so warming up concurrently with it covers what that fetch
+ * does not: every reader and projection used by the report is run on small sample payloads to load and initialize
+ * the Jackson and model classes and get the deserializers compiled, and the hosts of the events and event details
+ * endpoints are resolved, with a connection opened to any host other than the sports host.</p>
+ */
+public final class WarmUp {
+
+    private static final Logger logger = LoggerFactory.getLogger(WarmUp.class);
+    private static final int DESERIALIZER_ITERATIONS = 200;
+    private static final String SAMPLE_SPORTS = """
+            [{"id":1,"name":"Football","weight":1,"family":"Soccer","regions":[{"id":1,"name":"World","leagues":\
+            [{"id":1,"name":"League","weight":1,"prematch":1,"inplay":0,"outright":0,"top":true,"topOrder":1}]}]}]""";
+    private static final String SAMPLE_EVENTS = """
+            {"data":[{"id":1,"name":"Home - Away","kickoff":0,"lastUpdated":0,"betline":"prematch","open":true,\
+            "competitors":[{"id":1,"name":"Home"}],"league":{"id":1,"name":"League"},"markets":[]}]}""";
+    private static final String SAMPLE_EVENT_DETAILS = """
+            {"markets":[{"id":1,"name":"Winner","marketTypeId":1,"open":true,"primary":true,"runners":\
+            [{"id":1,"name":"Home","open":true,"price":1.5,"priceStr":"1.5"}]}]}""";
+
+    private WarmUp() {
+    }
+
+    /**
+     * Starts priming deserializers on the parse stage and connections on the fetch stage.
+     *
+     * @return A future completed when the warm-up is done; failures are logged and never fail the future
+     */
+    public static CompletableFuture<Void> start(AppContext appContext) {
+        CompletableFuture<Void> deserializers =
+                CompletableFuture.runAsync(() -> primeDeserializers(appContext), appContext.getParseExecutor());
+        CompletableFuture<Void> connections =
+                CompletableFuture.runAsync(() -> primeConnections(appContext), appContext.getFetchExecutor());
+        return CompletableFuture.allOf(deserializers, connections)
+                .exceptionally(e -> {
+                    logger.warn("Warm-up failed: {}", e.getMessage());
+                    return null;
+                });
+    }
+
+    /**
+     * Runs every reader and projection used by the report on sample payloads. Needs no network, so it also
+     * serves as the training run of the class data sharing archive.
+     */
+    public static void primeDeserializers(AppContext appContext) {
+        ObjectMapper objectMapper = appContext.getObjectMapper();
+        try {
+            for (int i = 0; i < DESERIALIZER_ITERATIONS; i++) {
+                appContext.readerFor(new TypeReference<List<Sport>>() {}).readValue(SAMPLE_SPORTS);
+                appContext.readerFor(EventResponse.class).readValue(SAMPLE_EVENTS);
+                appContext.readerFor(EventDetailsResponse.class).readValue(SAMPLE_EVENT_DETAILS);
+                project(objectMapper, SAMPLE_EVENTS, Projections.TOP_MATCHES);
+                project(objectMapper, SAMPLE_EVENT_DETAILS, Projections.EVENT_MARKETS);
+            }
+        } catch (IOException e) {
+            logger.warn("Deserializer warm-up failed: {}", e.getMessage());
+        }
+    }
+
+    private static <T> T project(ObjectMapper objectMapper, String json, JsonProjection<T> projection)
+            throws IOException {
+        try (JsonParser parser = objectMapper.getFactory().createParser(json)) {
+            parser.nextToken();
+            return projection.read(parser);
+        }
+    }
+
+    private static void primeConnections(AppContext appContext) {
+        AppConfig appConfig = appContext.getAppConfig();
+        URI sportsUri = URI.create(appConfig.getSportsUrl());
+        Set<URI> origins = new LinkedHashSet<>();
+        origins.add(origin(URI.create(appConfig.getEventsUrl(0))));
+        origins.add(origin(URI.create(appConfig.getEventDetailsUrl(0))));
+        for (URI origin : origins) {
+            try {
+                InetAddress.getAllByName(origin.getHost());
+                // The sports fetch running concurrently already opens a connection to its own host
+                if (!origin.equals(origin(sportsUri))) {
+                    HttpRequest request = HttpRequest.newBuilder(origin)
+                            .method("HEAD", HttpRequest.BodyPublishers.noBody())
+                            .build();
+                    appContext.getHttpClient().send(request, HttpResponse.BodyHandlers.discarding());
+                }
+            } catch (IOException e) {
+                logger.debug("Could not prime connection to {}: {}", origin, e.getMessage());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    private static URI origin(URI uri) {
+        return URI.create(uri.getScheme() + "://" + uri.getAuthority() + "/");
+    }
+}
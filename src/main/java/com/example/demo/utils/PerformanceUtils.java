@@ -16,7 +16,7 @@ public class PerformanceUtils {
         } finally {
             long endTime = System.nanoTime();
             long duration = endTime - startTime;
-            logger.debug(String.format("Execution time for %s: %d ms%n", taskName, duration / 1000000));
+            logger.debug("Execution time for {}: {} ms", taskName, duration / 1000000);
         }
     }
 
@@ -29,7 +29,7 @@ public class PerformanceUtils {
         } finally {
             long endTime = System.nanoTime();
             long duration = endTime - startTime;
-            logger.debug(String.format("Execution time for %s: %d ms%n", taskName, duration / 1000000));
+            logger.debug("Execution time for {}: {} ms", taskName, duration / 1000000);
         }
         return result;
     }
@@ -0,0 +1,41 @@
+package com.example.demo.config;
+
+import com.example.demo.model.Sport;
+import com.example.demo.service.report.ReportService;
+import com.fasterxml.jackson.core.type.TypeReference;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AppContextTests {
+
+    @Test
+    void testServicesShareTheContextAndOutliveEachOther() {
+        AppContext appContext = AppContext.shared();
+        new ReportService().shutdown();
+        new ReportService().shutdown();
+
+        assertSame(appContext, AppContext.shared());
+        assertFalse(appContext.isClosed());
+        assertEquals("done", CompletableFuture.supplyAsync(() -> "done", appContext.getBuildExecutor()).join());
+        assertNotNull(appContext.getAppConfig().getSportsUrl());
+    }
+
+    @Test
+    void testCachesReadersAndClosesExplicitly() {
+        AppContext appContext = AppContext.start(new AppConfig());
+        assertSame(appContext.readerFor(new TypeReference<List<Sport>>() {}),
+                appContext.readerFor(new TypeReference<List<Sport>>() {}));
+        assertSame(appContext.readerFor(Sport.class), appContext.readerFor(Sport.class));
+
+        appContext.close();
+        assertTrue(appContext.isClosed());
+    }
+}
@@ -0,0 +1,195 @@
+package com.example.demo.service;
+
+import com.example.demo.config.AppConfig;
+import com.example.demo.config.AppContext;
+import com.example.demo.exception.ApiException;
+import com.example.demo.model.Sport;
+import com.example.demo.service.resilience.CircuitBreaker;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AsyncApiServiceTests {
+
+    private static final TypeReference<List<Sport>> SPORTS = new TypeReference<>() {
+    };
+
+    private final AtomicReference<String> body = new AtomicReference<>("[{\"id\":1,\"name\":\"Football\"}]");
+    private final AtomicReference<String> etag = new AtomicReference<>("\"v1\"");
+    private final List<String> ifNoneMatchHeaders = new CopyOnWriteArrayList<>();
+    private final List<Integer> statuses = new CopyOnWriteArrayList<>();
+    private final AtomicBoolean failing = new AtomicBoolean();
+    private final AtomicBoolean slow = new AtomicBoolean();
+    private HttpServer server;
+    private AppContext appContext;
+
+    @BeforeEach
+    void startServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.createContext("/sports", this::respond);
+        server.start();
+        appContext = AppContext.start(new AppConfig());
+    }
+
+    @AfterEach
+    void stopServer() {
+        appContext.close();
+        server.stop(0);
+    }
+
+    @Test
+    void testNotModifiedResponseReturnsTheCachedObjectWithoutABody() throws Exception {
+        AsyncApiService apiService = new AsyncApiService(appContext, null);
+        String url = sportsUrl();
+
+        List<Sport> first = apiService.fetchDataAsync(url, SPORTS).get(5, TimeUnit.SECONDS);
+        List<Sport> second = apiService.fetchDataAsync(url, SPORTS).get(5, TimeUnit.SECONDS);
+
+        assertEquals("Football", first.get(0).getName());
+        assertSame(first, second);
+        assertEquals(List.of(200, 304), statuses);
+        assertNull(ifNoneMatchHeaders.get(0));
+        assertEquals("\"v1\"", ifNoneMatchHeaders.get(1));
+
+        body.set("[{\"id\":1,\"name\":\"Soccer\"}]");
+        etag.set("\"v2\"");
+        List<Sport> changed = apiService.fetchDataAsync(url, SPORTS).get(5, TimeUnit.SECONDS);
+        List<Sport> unchanged = apiService.fetchDataAsync(url, SPORTS).get(5, TimeUnit.SECONDS);
+
+        assertNotSame(first, changed);
+        assertEquals("Soccer", changed.get(0).getName());
+        assertSame(changed, unchanged);
+        assertEquals(List.of(200, 304, 200, 304), statuses);
+        assertEquals(List.of("\"v1\"", "\"v2\""), ifNoneMatchHeaders.subList(2, 4));
+    }
+
+    @Test
+    void testRecentlyUsedValuesAreServedStaleWhileTheBreakerIsOpen() throws Exception {
+        AsyncApiService apiService = new AsyncApiService(appContext, null, 2, Duration.ofMinutes(10));
+        for (int page = 1; page <= 3; page++) {
+            FetchResult<List<Sport>> fetched = apiService.fetchResultAsync(sportsUrl(page), SPORTS, null)
+                    .get(5, TimeUnit.SECONDS);
+            assertFalse(fetched.isStale());
+        }
+
+        openCircuitBreaker(apiService, sportsUrl(3));
+        // The newest URL is remembered although the cache was full, the least recently used one is evicted
+        FetchResult<List<Sport>> lastKnown = apiService.fetchResultAsync(sportsUrl(3), SPORTS, null)
+                .get(5, TimeUnit.SECONDS);
+        assertTrue(lastKnown.isStale());
+        assertEquals("Football", lastKnown.getValue().get(0).getName());
+        assertFailsFast(apiService, sportsUrl(1));
+    }
+
+    @Test
+    void testExpiredValuesAreNotServedWhileTheBreakerIsOpen() throws Exception {
+        AsyncApiService apiService = new AsyncApiService(appContext, null, 10, Duration.ofMillis(50));
+        apiService.fetchDataAsync(sportsUrl(1), SPORTS).get(5, TimeUnit.SECONDS);
+        Thread.sleep(100);
+
+        openCircuitBreaker(apiService, sportsUrl(1));
+        assertFailsFast(apiService, sportsUrl(1));
+    }
+
+    @Test
+    void testCallerTimeoutsDoNotOpenTheBreaker() throws Exception {
+        AsyncApiService apiService = new AsyncApiService(appContext, null);
+        slow.set(true);
+        for (int i = 0; i < 30; i++) {
+            ExecutionException e = assertThrows(ExecutionException.class, () -> apiService
+                    .fetchDataAsync(sportsUrl(), SPORTS, Duration.ofMillis(50)).get(5, TimeUnit.SECONDS));
+            assertInstanceOf(ApiException.class, e.getCause());
+        }
+        assertEquals(CircuitBreaker.State.CLOSED, apiService.getCircuitBreakerStates().get("/sports"));
+
+        slow.set(false);
+        assertEquals("Football", apiService.fetchDataAsync(sportsUrl(), SPORTS).get(5, TimeUnit.SECONDS)
+                .get(0).getName());
+    }
+
+    private void openCircuitBreaker(AsyncApiService apiService, String url) {
+        failing.set(true);
+        while (apiService.getCircuitBreakerStates().get("/sports") != CircuitBreaker.State.OPEN) {
+            assertThrows(ExecutionException.class,
+                    () -> apiService.fetchDataAsync(url, SPORTS).get(5, TimeUnit.SECONDS));
+        }
+    }
+
+    private void assertFailsFast(AsyncApiService apiService, String url) {
+        int requests = statuses.size();
+        ExecutionException e = assertThrows(ExecutionException.class,
+                () -> apiService.fetchDataAsync(url, SPORTS).get(5, TimeUnit.SECONDS));
+        assertInstanceOf(ApiException.class, e.getCause());
+        assertEquals(requests, statuses.size());
+    }
+
+    private String sportsUrl() {
+        return "http://localhost:" + server.getAddress().getPort() + "/sports";
+    }
+
+    private String sportsUrl(int page) {
+        return sportsUrl() + "?page=" + page;
+    }
+
+    private static void sleep(Duration duration) {
+        try {
+            Thread.sleep(duration);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void respond(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            String ifNoneMatch = exchange.getRequestHeaders().getFirst("If-None-Match");
+            ifNoneMatchHeaders.add(ifNoneMatch);
+            if (slow.get()) {
+                sleep(Duration.ofMillis(200));
+            }
+            if (failing.get()) {
+                statuses.add(500);
+                exchange.sendResponseHeaders(500, -1);
+                return;
+            }
+            String currentEtag = etag.get();
+            exchange.getResponseHeaders().set("ETag", currentEtag);
+            if (currentEtag.equals(ifNoneMatch)) {
+                statuses.add(304);
+                exchange.sendResponseHeaders(304, -1);
+                return;
+            }
+            byte[] payload = body.get().getBytes(StandardCharsets.UTF_8);
+            statuses.add(200);
+            exchange.getResponseHeaders().set("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, payload.length);
+            try (OutputStream output = exchange.getResponseBody()) {
+                output.write(payload);
+            }
+        }
+    }
+}
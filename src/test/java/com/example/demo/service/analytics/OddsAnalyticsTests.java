@@ -0,0 +1,169 @@
+package com.example.demo.service.analytics;
+
+import com.example.demo.model.EventDetailsResponse;
+import com.example.demo.model.Market;
+import com.example.demo.model.Runner;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class OddsAnalyticsTests {
+
+    private static final Logger logger = LoggerFactory.getLogger(OddsAnalyticsTests.class);
+
+    @Test
+    void testOverroundBestPriceArbitrageAndValue() {
+        OddsMatrix matrix = OddsMatrix.builder()
+                .add(1, details(market(10, runner(100, 2.0), runner(101, 2.0))))     // overround 1.0
+                .add(2, details(market(20, runner(200, 2.2), runner(201, 2.2))))     // overround ~0.909
+                .add(1, details(market(10, runner(100, 1.6), runner(101, 2.5))))     // later snapshot of event 1
+                .build();
+        OddsAnalytics analytics = new OddsAnalytics(matrix);
+
+        assertEquals(3, matrix.getMarketCount());
+        assertEquals(4, matrix.getRunnerCount());
+        assertArrayEquals(new double[]{1.0, 1 / 2.2 + 1 / 2.2, 1 / 1.6 + 1 / 2.5}, analytics.overrounds(), 1e-12);
+        assertArrayEquals(new double[]{2.0, 2.5, 2.2, 2.2}, analytics.bestPrices());
+        assertArrayEquals(new int[]{1}, analytics.arbitrageMarkets());
+        // Runner 100 at 2.0 and runner 101 at 2.5 beat their consensus; both quotes of the arbitrage market are value
+        assertArrayEquals(new int[]{0, 2, 3, 5}, analytics.valueQuotes(0.02));
+    }
+
+    @Test
+    void testClosedAndUnpricedMarketsAreNotArbitrage() {
+        OddsMatrix matrix = OddsMatrix.builder()
+                .add(1, details(market(10, runner(100, 2.0), runner(101, 0))))                  // unpriced runner
+                .add(2, details(market(20, runner(200, 2.2), closedRunner(201, 2.2))))          // closed runner
+                .add(3, details(closedMarket(30, runner(300, 2.2), runner(301, 2.2))))          // closed market
+                .add(4, details(market(40, runner(400, 2.2), runner(401, 2.2))))                // overround ~0.909
+                .add(1, details(market(10, runner(100, 1.5), runner(101, 3.0))))                // later snapshot
+                .build();
+        OddsAnalytics analytics = new OddsAnalytics(matrix);
+
+        assertFalse(matrix.isPriced(0));
+        assertFalse(matrix.isPriced(1));
+        assertFalse(matrix.isPriced(2));
+        assertTrue(matrix.isPriced(3));
+        double[] overrounds = analytics.overrounds();
+        assertTrue(Double.isNaN(overrounds[0]) && Double.isNaN(overrounds[1]) && Double.isNaN(overrounds[2]));
+        assertEquals(1 / 2.2 + 1 / 2.2, overrounds[3], 1e-12);
+        assertArrayEquals(new int[]{3}, analytics.arbitrageMarkets());
+        // Runner 100 at 2.0 would be value against the later snapshot, but its market has an unpriced runner;
+        // only both quotes of the arbitrage market are value
+        assertArrayEquals(new int[]{6, 7}, analytics.valueQuotes(0.02));
+    }
+
+    /**
+     * Compares the array kernels with the equivalent loops over the {@code Market}/{@code Runner} object graph
+     * on a sport-sized data set.
+     */
+    @Test
+    void testCompareWithObjectGraph() {
+        List<EventDetailsResponse> events = syntheticEvents(10_000, 10, 3);
+        OddsMatrix.Builder builder = OddsMatrix.builder();
+        for (int i = 0; i < events.size(); i++) {
+            builder.add(i, events.get(i));
+        }
+        OddsMatrix matrix = builder.build();
+        OddsAnalytics analytics = new OddsAnalytics(matrix);
+
+        double[] objectGraphOverrounds = new double[matrix.getMarketCount()];
+        overroundsOfObjectGraph(events, objectGraphOverrounds);
+        assertArrayEquals(objectGraphOverrounds, analytics.overrounds(), 1e-9);
+
+        int iterations = 200;
+        // Both variants write primitive arrays and every result is consumed, so neither is optimized away
+        double[] objectGraphSum = new double[1];
+        long objectGraphNanos = measure(iterations, () -> {
+            overroundsOfObjectGraph(events, objectGraphOverrounds);
+            objectGraphSum[0] += sum(objectGraphOverrounds);
+        });
+        double[] arraySum = new double[1];
+        long arrayNanos = measure(iterations, () -> arraySum[0] += sum(analytics.overrounds()));
+        logger.info("Overround of {} quotes: object graph {} us/op, arrays {} us/op (checksums {}, {})",
+                matrix.getQuoteCount(), objectGraphNanos / 1_000, arrayNanos / 1_000, objectGraphSum[0], arraySum[0]);
+        assertEquals(objectGraphSum[0], arraySum[0], Math.abs(arraySum[0]) * 1e-9);
+    }
+
+    private static long measure(int iterations, Runnable query) {
+        for (int i = 0; i < iterations; i++) {
+            query.run();
+        }
+        long startTime = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            query.run();
+        }
+        return (System.nanoTime() - startTime) / iterations;
+    }
+
+    private static double sum(double[] values) {
+        double sum = 0;
+        for (double value : values) {
+            sum += value;
+        }
+        return sum;
+    }
+
+    /**
+     * The same overround loop over the object graph, into a preallocated array like the kernels use.
+     */
+    private static void overroundsOfObjectGraph(List<EventDetailsResponse> events, double[] overrounds) {
+        int index = 0;
+        for (EventDetailsResponse event : events) {
+            for (Market market : event.getMarkets()) {
+                double overround = 0;
+                for (Runner runner : market.getRunners()) {
+                    overround += runner.getPrice() > 0 ? 1.0 / runner.getPrice() : 0.0;
+                }
+                overrounds[index++] = overround;
+            }
+        }
+    }
+
+    private static List<EventDetailsResponse> syntheticEvents(int eventCount, int marketsPerEvent, int runnersPerMarket) {
+        Random random = new Random(42);
+        List<EventDetailsResponse> events = new ArrayList<>(eventCount);
+        long runnerId = 0;
+        for (int e = 0; e < eventCount; e++) {
+            List<Market> markets = new ArrayList<>(marketsPerEvent);
+            for (int m = 0; m < marketsPerEvent; m++) {
+                List<Runner> runners = new ArrayList<>(runnersPerMarket);
+                for (int r = 0; r < runnersPerMarket; r++) {
+                    runners.add(runner(runnerId++, 1.2 + random.nextDouble() * 5));
+                }
+                markets.add(new Market((long) e * marketsPerEvent + m, "Market", m, true, m == 0, runners));
+            }
+            events.add(new EventDetailsResponse(markets));
+        }
+        return events;
+    }
+
+    private static EventDetailsResponse details(Market... markets) {
+        return new EventDetailsResponse(List.of(markets));
+    }
+
+    private static Market market(long id, Runner... runners) {
+        return new Market(id, "Winner", 1, true, true, List.of(runners));
+    }
+
+    private static Market closedMarket(long id, Runner... runners) {
+        return new Market(id, "Winner", 1, false, true, List.of(runners));
+    }
+
+    private static Runner runner(long id, double price) {
+        return new Runner(id, String.valueOf(id), true, price, String.valueOf(price));
+    }
+
+    private static Runner closedRunner(long id, double price) {
+        return new Runner(id, String.valueOf(id), false, price, String.valueOf(price));
+    }
+}
@@ -0,0 +1,82 @@
+package com.example.demo.service.bus;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PriceEventBusTests {
+
+    @Test
+    void testConflatePerRunnerKeepsLatestPrice() throws InterruptedException {
+        PriceEventBus bus = new PriceEventBus(Runnable::run);
+        RecordingSubscriber subscriber = new RecordingSubscriber();
+        bus.subscribe(subscriber, PriceEventFilters.sport("Football"), 2, OverflowPolicy.CONFLATE_PER_RUNNER);
+
+        bus.publish(priceChanged("Football", 1, 1.5));
+        bus.publish(priceChanged("Football", 1, 1.6));
+        bus.publish(priceChanged("Tennis", 1, 9.9));
+        bus.publish(priceChanged("Football", 2, 2.5));
+        bus.publish(priceChanged("Football", 3, 3.5));
+        bus.close();
+        subscriber.subscription.request(Long.MAX_VALUE);
+
+        assertTrue(subscriber.completed.await(1, TimeUnit.SECONDS));
+        assertEquals(List.of(2L, 3L), subscriber.events.stream().map(PriceEvent::getRunnerId).toList());
+        assertEquals(1, bus.getDroppedEvents());
+    }
+
+    @Test
+    void testDropOldestNeverBlocksPublisher() throws InterruptedException {
+        PriceEventBus bus = new PriceEventBus(Runnable::run);
+        RecordingSubscriber subscriber = new RecordingSubscriber();
+        bus.subscribe(subscriber, PriceEventFilters.all(), 3, OverflowPolicy.DROP_OLDEST);
+
+        for (int runnerId = 0; runnerId < 10; runnerId++) {
+            bus.publish(priceChanged("Football", runnerId, 1.0));
+        }
+        bus.close();
+        subscriber.subscription.request(Long.MAX_VALUE);
+
+        assertTrue(subscriber.completed.await(1, TimeUnit.SECONDS));
+        assertEquals(List.of(7L, 8L, 9L), subscriber.events.stream().map(PriceEvent::getRunnerId).toList());
+        assertEquals(7, bus.getDroppedEvents());
+    }
+
+    private static PriceEvent priceChanged(String sportName, long runnerId, double price) {
+        return new PriceEvent(PriceEventType.RUNNER_PRICE_CHANGED, System.currentTimeMillis(), sportName, "League",
+                1, "A - B", 10, 1, "Winner", runnerId, "Runner " + runnerId, 0, price);
+    }
+
+    private static class RecordingSubscriber implements Flow.Subscriber<PriceEvent> {
+        private final List<PriceEvent> events = new CopyOnWriteArrayList<>();
+        private final CountDownLatch completed = new CountDownLatch(1);
+        private Flow.Subscription subscription;
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            this.subscription = subscription;
+        }
+
+        @Override
+        public void onNext(PriceEvent item) {
+            events.add(item);
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            completed.countDown();
+        }
+
+        @Override
+        public void onComplete() {
+            completed.countDown();
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package com.example.demo.service.execution;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BoundedStageExecutorTests {
+
+    @Test
+    void testBlocksSubmitterWhenQueueIsFull() throws InterruptedException {
+        BoundedStageExecutor executor = new BoundedStageExecutor("test", 1, 2, true);
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(4);
+        Runnable task = () -> {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            done.countDown();
+        };
+        executor.execute(task);
+        executor.execute(task);
+        executor.execute(task);
+
+        Thread submitter = new Thread(() -> executor.execute(task));
+        submitter.start();
+        submitter.join(200);
+        assertTrue(submitter.isAlive(), "Submitter should block while the queue is full");
+        assertEquals(2, executor.getStats().getQueueDepth());
+
+        release.countDown();
+        submitter.join(1_000);
+        assertTrue(done.await(1, TimeUnit.SECONDS));
+        assertEquals(1, executor.getStats().getBlockedSubmissions());
+        assertEquals(0, executor.getStats().getRejectedTasks());
+        executor.shutdown();
+    }
+
+    @Test
+    void testDownstreamWorkersHandOffInsteadOfBlockingUpstream() throws InterruptedException {
+        BoundedStageExecutor upstream = new BoundedStageExecutor("up", 1, 1, true);
+        BoundedStageExecutor downstream = new BoundedStageExecutor("down", 1, 1, true);
+        upstream.addDownstream(downstream);
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(3);
+        Runnable task = () -> {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            done.countDown();
+        };
+        upstream.execute(task);
+        upstream.execute(task);
+
+        // Like a parse worker starting a fetch while every fetch worker waits on the parse stage
+        CountDownLatch submitted = new CountDownLatch(1);
+        downstream.execute(() -> {
+            upstream.execute(task);
+            submitted.countDown();
+        });
+        assertTrue(submitted.await(1, TimeUnit.SECONDS), "Downstream worker should not block on a full upstream");
+        assertEquals(1, upstream.getStats().getHandedOffSubmissions());
+        assertEquals(0, upstream.getStats().getBlockedSubmissions());
+
+        release.countDown();
+        assertTrue(done.await(1, TimeUnit.SECONDS));
+        upstream.shutdown();
+        downstream.shutdown();
+    }
+
+    @Test
+    void testHandOffsAreCappedAtTheQueueCapacity() throws InterruptedException {
+        BoundedStageExecutor upstream = new BoundedStageExecutor("up", 1, 1, true);
+        BoundedStageExecutor downstream = new BoundedStageExecutor("down", 1, 1, true);
+        upstream.addDownstream(downstream);
+        CountDownLatch release = new CountDownLatch(1);
+        Runnable task = () -> {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        };
+        upstream.execute(task);
+        upstream.execute(task);
+
+        AtomicReference<String> callerRunThread = new AtomicReference<>();
+        CountDownLatch submitted = new CountDownLatch(1);
+        downstream.execute(() -> {
+            upstream.execute(task);
+            upstream.execute(() -> callerRunThread.set(Thread.currentThread().getName()));
+            submitted.countDown();
+        });
+        assertTrue(submitted.await(1, TimeUnit.SECONDS), "Downstream worker should not block on a full upstream");
+        // The one hand-off permit is taken, so the next task runs on the submitting worker
+        assertEquals(1, upstream.getStats().getHandedOffSubmissions());
+        assertEquals(1, upstream.getStats().getCallerRunTasks());
+        assertEquals("down-1", callerRunThread.get());
+
+        release.countDown();
+        upstream.shutdown();
+        downstream.shutdown();
+    }
+
+    @Test
+    void testRejectsAfterShutdown() {
+        BoundedStageExecutor executor = new BoundedStageExecutor("test", 1, 1, true);
+        executor.shutdown();
+        assertThrows(RejectedExecutionException.class, () -> executor.execute(() -> { }));
+        assertEquals(1, executor.getStats().getRejectedTasks());
+    }
+}
@@ -0,0 +1,204 @@
+package com.example.demo.service.feed;
+
+import com.example.demo.config.AppConfig;
+import com.example.demo.config.AppContext;
+import com.example.demo.exception.ApiException;
+import com.example.demo.model.Event;
+import com.example.demo.model.EventDetailsResponse;
+import com.example.demo.model.Sport;
+import com.example.demo.model.SportType;
+import com.example.demo.model.report.feed.FeedEventReport;
+import com.example.demo.model.report.feed.FeedLeagueReport;
+import com.example.demo.model.report.feed.FeedMarketReport;
+import com.example.demo.model.report.feed.FeedReport;
+import com.example.demo.model.report.feed.FeedRunnerReport;
+import com.example.demo.service.AsyncApiService;
+import com.example.demo.service.SportService;
+import com.example.demo.synthetic.LocalApiStandIn;
+import com.example.demo.synthetic.SyntheticFeedGenerator;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class FeedAggregatorTests {
+
+    private static final List<String> SELECTED_SPORT_NAMES = Arrays.stream(SportType.values())
+            .map(SportType::getDisplayName)
+            .toList();
+
+    @Test
+    void testNormalizedKeys() {
+        assertEquals("home 1 away 1", FeedKeys.event("Home 1 - Away 1"));
+        assertEquals("home 1 away 1", FeedKeys.event("HOME 1 vs. Away 1"));
+        assertEquals("sao paulo", FeedKeys.name("São Paulo"));
+        assertEquals("total 2 5", FeedKeys.name("Total (2.5)"));
+    }
+
+    @Test
+    void testLoadsConfiguredProvidersThroughServiceLoader() {
+        try (AppContext appContext = AppContext.start(new AppConfig())) {
+            List<FeedProvider> providers = FeedProviders.load(appContext);
+            assertEquals(1, providers.size());
+            assertTrue(providers.get(0) instanceof LeonbetsFeedProvider);
+        }
+    }
+
+    @Test
+    void testRejectsProvidersWithTheSameName() {
+        Properties properties = new Properties();
+        properties.setProperty("feed.providers", "leonbets, leonbets");
+        try (AppContext appContext = AppContext.start(new AppConfig(properties))) {
+            ApiException e = assertThrows(ApiException.class, () -> FeedProviders.load(appContext));
+            assertEquals("Duplicate feed provider: leonbets", e.getMessage());
+        }
+    }
+
+    @Test
+    void testMergesRunnersOfStandInProvidersWithPerSourcePrices() throws Exception {
+        try (LocalApiStandIn first = LocalApiStandIn.start(new SyntheticFeedGenerator(2, 3, 2, 3, 0.05, 1));
+             LocalApiStandIn second = LocalApiStandIn.start(new SyntheticFeedGenerator(2, 3, 2, 3, 0.05, 2));
+             AppContext appContext = AppContext.start(new AppConfig(first.properties()))) {
+            FeedProvider renamed = new RenamedFeedProvider(provider("second", appContext, second));
+            FeedAggregator aggregator = new FeedAggregator(List.of(provider("first", appContext, first), renamed));
+
+            FeedReport report = aggregator.aggregate(SELECTED_SPORT_NAMES);
+
+            assertEquals(List.of("first", "second"), report.getSources());
+            assertTrue(report.getFailedSources().isEmpty());
+            assertEquals(SportType.values().length * 2, report.getLeagueReports().size());
+            assertEquals(SportType.values()[0].getDisplayName(), report.getLeagueReports().get(0).getSportName());
+            for (FeedLeagueReport league : report.getLeagueReports()) {
+                // Both providers list the same two top matches, under different names and ids
+                assertEquals(2, league.getEventReports().size());
+                for (FeedEventReport event : league.getEventReports()) {
+                    assertEquals(List.of("first", "second"), List.copyOf(event.getSourceEventIds().keySet()));
+                    assertNotEquals(event.getSourceEventIds().get("first"), event.getSourceEventIds().get("second"));
+                    assertEquals(2, event.getMarketReports().size());
+                    for (FeedMarketReport market : event.getMarketReports()) {
+                        assertEquals(3, market.getRunnerReports().size());
+                        for (FeedRunnerReport runner : market.getRunnerReports()) {
+                            assertEquals(2, runner.getSourcePrices().size());
+                        }
+                    }
+                }
+            }
+            FeedRunnerReport runner = report.getLeagueReports().get(0).getEventReports().get(0)
+                    .getMarketReports().get(0).getRunnerReports().get(0);
+            assertNotEquals(runner.getSourcePrices().get("first"), runner.getSourcePrices().get("second"));
+        }
+    }
+
+    @Test
+    void testReportTakesTheLatencyOfTheSlowestProviderAndSurvivesAFailedOne() throws Exception {
+        Duration delay = Duration.ofMillis(400);
+        try (LocalApiStandIn first = LocalApiStandIn.start(new SyntheticFeedGenerator(2, 3, 1, 2, 0.05, 1));
+             LocalApiStandIn second = LocalApiStandIn.start(new SyntheticFeedGenerator(2, 3, 1, 2, 0.05, 2));
+             AppContext appContext = AppContext.start(new AppConfig(first.properties()))) {
+            FeedProvider failing = new DelayedFeedProvider(provider("failing", appContext, first), Duration.ZERO) {
+                @Override
+                public CompletableFuture<List<Sport>> fetchSportsAsync() {
+                    return CompletableFuture.failedFuture(new IllegalStateException("Feed down"));
+                }
+            };
+            FeedAggregator aggregator = new FeedAggregator(List.of(
+                    new DelayedFeedProvider(provider("first", appContext, first), delay),
+                    new DelayedFeedProvider(provider("second", appContext, second), delay),
+                    failing));
+            aggregator.aggregate(SELECTED_SPORT_NAMES);
+
+            long startTime = System.nanoTime();
+            FeedReport report = aggregator.aggregate(SELECTED_SPORT_NAMES);
+            Duration elapsed = Duration.ofNanos(System.nanoTime() - startTime);
+
+            // Each provider waits the delay three times (sports, events, details): 1.2 s in parallel, 2.4 s in turn
+            assertTrue(elapsed.compareTo(delay.multipliedBy(3)) >= 0, "Elapsed " + elapsed);
+            assertTrue(elapsed.compareTo(delay.multipliedBy(5)) < 0, "Elapsed " + elapsed);
+            assertEquals(List.of("failing"), report.getFailedSources());
+            assertEquals(SportType.values().length * 2, report.getLeagueReports().size());
+        }
+    }
+
+    private static FeedProvider provider(String name, AppContext appContext, LocalApiStandIn standIn) {
+        AppConfig appConfig = new AppConfig(standIn.properties());
+        return new LeonbetsFeedProvider(name, new SportService(new AsyncApiService(appContext, null), appConfig));
+    }
+
+    /**
+     * Lists the events of another provider under other ids and another spelling of their names.
+     */
+    private static final class RenamedFeedProvider implements FeedProvider {
+        private static final long ID_OFFSET = 1_000_000_000_000L;
+        private final FeedProvider delegate;
+
+        private RenamedFeedProvider(FeedProvider delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public String getName() {
+            return delegate.getName();
+        }
+
+        @Override
+        public CompletableFuture<List<Sport>> fetchSportsAsync() {
+            return delegate.fetchSportsAsync();
+        }
+
+        @Override
+        public CompletableFuture<List<Event>> fetchEventsAsync(long leagueId) {
+            return delegate.fetchEventsAsync(leagueId).thenApply(events -> {
+                events.forEach(event -> {
+                    event.setId(event.getId() + ID_OFFSET);
+                    event.setName(event.getName().toUpperCase().replace(" - ", " vs. "));
+                });
+                return events;
+            });
+        }
+
+        @Override
+        public CompletableFuture<EventDetailsResponse> fetchEventDetailsAsync(long eventId) {
+            return delegate.fetchEventDetailsAsync(eventId - ID_OFFSET);
+        }
+    }
+
+    private static class DelayedFeedProvider implements FeedProvider {
+        private final FeedProvider delegate;
+        private final Executor delayedExecutor;
+
+        private DelayedFeedProvider(FeedProvider delegate, Duration delay) {
+            this.delegate = delegate;
+            this.delayedExecutor = CompletableFuture.delayedExecutor(delay.toMillis(), TimeUnit.MILLISECONDS);
+        }
+
+        @Override
+        public String getName() {
+            return delegate.getName();
+        }
+
+        @Override
+        public CompletableFuture<List<Sport>> fetchSportsAsync() {
+            return delegate.fetchSportsAsync().thenApplyAsync(sports -> sports, delayedExecutor);
+        }
+
+        @Override
+        public CompletableFuture<List<Event>> fetchEventsAsync(long leagueId) {
+            return delegate.fetchEventsAsync(leagueId).thenApplyAsync(events -> events, delayedExecutor);
+        }
+
+        @Override
+        public CompletableFuture<EventDetailsResponse> fetchEventDetailsAsync(long eventId) {
+            return delegate.fetchEventDetailsAsync(eventId).thenApplyAsync(details -> details, delayedExecutor);
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package com.example.demo.service.history;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class OddsHistoryLogTests {
+
+    private static final long BASE_TIME = 1_700_000_000_000L;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void testRangeQueriesAreInclusiveAndOldestFirst() throws Exception {
+        OddsHistoryLog log = OddsHistoryLog.open(directory, 100, 4, 1024);
+        for (int i = 0; i < 10; i++) {
+            assertTrue(log.record(BASE_TIME + i * 1000L, 1, 10, 100 + i % 2, 1.5 + i));
+        }
+        log.close();
+
+        List<PricePoint> points = log.query(100, BASE_TIME + 2000, BASE_TIME + 6000);
+        assertEquals(List.of(BASE_TIME + 2000, BASE_TIME + 4000, BASE_TIME + 6000),
+                points.stream().map(PricePoint::getTimestamp).toList());
+        assertEquals(3.5, points.get(0).getPrice());
+        assertEquals(10, points.get(0).getMarketId());
+        assertEquals(5, log.query(101, 0, Long.MAX_VALUE).size());
+        assertTrue(log.query(100, BASE_TIME + 10_000, Long.MAX_VALUE).isEmpty());
+        assertTrue(log.query(999, 0, Long.MAX_VALUE).isEmpty());
+    }
+
+    @Test
+    void testTimestampsAreClampedToBeNonDecreasing() throws Exception {
+        OddsHistoryLog log = OddsHistoryLog.open(directory, 100, 4, 1024);
+        log.record(BASE_TIME + 5000, 1, 10, 100, 2.0);
+        log.record(BASE_TIME + 1000, 1, 10, 100, 2.1);
+        log.close();
+
+        assertEquals(List.of(BASE_TIME + 5000, BASE_TIME + 5000),
+                log.query(100, 0, Long.MAX_VALUE).stream().map(PricePoint::getTimestamp).toList());
+    }
+
+    @Test
+    void testRotationDeletesTheOldestSegments() throws Exception {
+        OddsHistoryLog log = OddsHistoryLog.open(directory, 10, 3, 1024);
+        // 45 records fill four segments and start a fifth; only the last three are kept
+        for (int i = 0; i < 45; i++) {
+            log.record(BASE_TIME + i, 1, 10, i < 10 ? 100 : 200, 2.0);
+        }
+        log.close();
+
+        assertEquals(3, segmentFiles().size());
+        assertEquals(List.of("odds-000000000002.seg", "odds-000000000003.seg", "odds-000000000004.seg"),
+                segmentFiles());
+        // Runner 100 only lived in the deleted first segment
+        assertTrue(log.query(100, 0, Long.MAX_VALUE).isEmpty());
+        assertEquals(25, log.query(200, 0, Long.MAX_VALUE).size());
+        assertEquals(BASE_TIME + 20, log.query(200, 0, Long.MAX_VALUE).get(0).getTimestamp());
+    }
+
+    @Test
+    void testSparseIndexAndCountsAreRecoveredOnReopen() throws Exception {
+        OddsHistoryLog log = OddsHistoryLog.open(directory, 10, 8, 1024);
+        for (int i = 0; i < 25; i++) {
+            // Runner 300 only appears in the second segment
+            log.record(BASE_TIME + i, 1, 10, i >= 10 && i < 20 && i % 2 == 0 ? 300 : 200, 2.0 + i);
+        }
+        log.close();
+
+        OddsHistoryLog reopened = OddsHistoryLog.open(directory, 10, 8, 1024);
+        try {
+            assertEquals(List.of(BASE_TIME + 10, BASE_TIME + 12, BASE_TIME + 14, BASE_TIME + 16, BASE_TIME + 18),
+                    reopened.query(300, 0, Long.MAX_VALUE).stream().map(PricePoint::getTimestamp).toList());
+            assertEquals(20, reopened.query(200, 0, Long.MAX_VALUE).size());
+            // Appending continues after the recovered records of the partly filled last segment
+            reopened.record(BASE_TIME + 100, 1, 10, 300, 9.0);
+        } finally {
+            reopened.close();
+        }
+        assertEquals(6, reopened.query(300, 0, Long.MAX_VALUE).size());
+        assertEquals(3, segmentFiles().size());
+    }
+
+    @Test
+    void testRecordsAreDroppedInsteadOfBlockingWhenTheQueueIsFull() throws Exception {
+        OddsHistoryLog log = OddsHistoryLog.open(directory, 1 << 16, 2, 4);
+        int accepted = 0;
+        for (int i = 0; i < 100_000; i++) {
+            if (log.record(BASE_TIME + i, 1, 10, 100, 2.0)) {
+                accepted++;
+            }
+        }
+        log.close();
+
+        assertEquals(100_000, accepted + log.getDroppedRecords());
+        assertEquals(accepted, log.query(100, 0, Long.MAX_VALUE).size());
+    }
+
+    private List<String> segmentFiles() throws Exception {
+        try (Stream<Path> listing = Files.list(directory)) {
+            return listing.map(path -> path.getFileName().toString()).sorted().toList();
+        }
+    }
+}
@@ -0,0 +1,190 @@
+package com.example.demo.service.ingest;
+
+import com.example.demo.model.Event;
+import com.example.demo.model.League;
+import com.example.demo.model.report.EventReport;
+import com.example.demo.model.report.LeagueReport;
+import com.example.demo.model.report.ReportResult;
+import com.example.demo.model.report.SportReport;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class IngestionPipelineTests {
+
+    private static final Logger logger = LoggerFactory.getLogger(IngestionPipelineTests.class);
+    private static final List<String> SPORTS = List.of("Football", "Tennis");
+
+    @Test
+    void testPublishesLeaguesInTopOrderAndDropsEventsLeavingTheTop() throws Exception {
+        try (IngestionPipeline pipeline = new IngestionPipeline(3)) {
+            pipeline.submitLeague("Football", league(2, 20), List.of(event(21), event(22)));
+            pipeline.submitLeague("Football", league(1, 10), List.of(event(11), event(12)));
+            pipeline.submitLeague("Tennis", league(3, 30), List.of(event(31)));
+            pipeline.submitEvent(1, eventReport(12));
+            pipeline.submitEvent(1, eventReport(11));
+            pipeline.submitEvent(2, eventReport(21));
+            pipeline.submitEvent(3, eventReport(31));
+            pipeline.submitEvent(4, eventReport(41));
+            pipeline.flush().get(5, TimeUnit.SECONDS);
+
+            ReportResult report = pipeline.getReport(SPORTS);
+            SportReport football = report.getSportReports().get(0);
+            assertEquals(List.of("League 1", "League 2"),
+                    football.getLeagueReports().stream().map(LeagueReport::getLeagueName).toList());
+            assertEquals(List.of(11L, 12L), eventIds(football.getLeagueReports().get(0)));
+            assertEquals(List.of(21L), eventIds(football.getLeagueReports().get(1)));
+            assertEquals(1, report.getSportReports().get(1).getLeagueReports().size());
+
+            pipeline.submitLeague("Football", league(1, 10), List.of(event(12), event(13)));
+            pipeline.removeLeague(3);
+            pipeline.flush().get(5, TimeUnit.SECONDS);
+
+            ReportResult next = pipeline.getReport(SPORTS);
+            assertEquals(List.of(12L), eventIds(next.getSportReports().get(0).getLeagueReports().get(0)));
+            assertTrue(next.getSportReports().get(1).getLeagueReports().isEmpty());
+            // Unchanged leagues are shared with the previous snapshot, published ones are never modified
+            assertSame(football.getLeagueReports().get(1), next.getSportReports().get(0).getLeagueReports().get(1));
+            assertEquals(List.of(11L, 12L), eventIds(football.getLeagueReports().get(0)));
+
+            // A late report of an event that left the top matches is not kept for when it comes back
+            pipeline.submitEvent(1, eventReport(11));
+            pipeline.submitLeague("Football", league(1, 10), List.of(event(11), event(12)));
+            pipeline.flush().get(5, TimeUnit.SECONDS);
+            assertEquals(List.of(12L), eventIds(pipeline.getReport(SPORTS).getSportReports().get(0)
+                    .getLeagueReports().get(0)));
+        }
+    }
+
+    @Test
+    void testFlushFailsOnceThePipelineIsClosed() throws Exception {
+        IngestionPipeline pipeline = new IngestionPipeline(2);
+        for (long leagueId = 1; leagueId <= 1000; leagueId++) {
+            pipeline.submitLeague("Football", league(leagueId, (int) leagueId), List.of(event(leagueId * 10)));
+        }
+        CompletableFuture<Void> pending = pipeline.flush();
+        pipeline.close();
+
+        // Published before the writers stopped, or failed with the rest of the queue
+        assertTrue(pending.isDone());
+        ExecutionException e = assertThrows(ExecutionException.class, () -> pipeline.flush().get(5, TimeUnit.SECONDS));
+        assertInstanceOf(IllegalStateException.class, e.getCause());
+    }
+
+    @Test
+    void testConcurrentProducersAcrossShards() throws Exception {
+        int leagueCount = 64;
+        int eventsPerLeague = 8;
+        int rounds = 500;
+        int producers = Math.max(2, Runtime.getRuntime().availableProcessors());
+
+        long singleShardNanos = ingest(1, producers, leagueCount, eventsPerLeague, rounds);
+        long shardedNanos;
+        try (IngestionPipeline pipeline = new IngestionPipeline()) {
+            shardedNanos = ingest(pipeline, producers, leagueCount, eventsPerLeague, rounds);
+
+            ReportResult report = pipeline.getReport(SPORTS);
+            List<LeagueReport> leagueReports = report.getSportReports().get(0).getLeagueReports();
+            assertEquals(leagueCount, leagueReports.size());
+            for (LeagueReport leagueReport : leagueReports) {
+                assertEquals(eventsPerLeague, leagueReport.getEventReports().size());
+                for (EventReport eventReport : leagueReport.getEventReports()) {
+                    // Every event was last written in the final round
+                    assertEquals("Event " + eventReport.getEventId() + " round " + (rounds - 1),
+                            eventReport.getEventName());
+                }
+            }
+            assertEquals((long) leagueCount * (1 + eventsPerLeague * rounds) + pipeline.getShardCount(),
+                    pipeline.getAppliedUpdates());
+        }
+        long updates = (long) leagueCount * eventsPerLeague * rounds;
+        logger.info("Ingested {} updates from {} producers: 1 shard {} ms, {} shards {} ms",
+                updates, producers, singleShardNanos / 1_000_000,
+                Runtime.getRuntime().availableProcessors(), shardedNanos / 1_000_000);
+    }
+
+    private static long ingest(int shards, int producers, int leagueCount, int eventsPerLeague, int rounds)
+            throws Exception {
+        try (IngestionPipeline pipeline = new IngestionPipeline(shards)) {
+            return ingest(pipeline, producers, leagueCount, eventsPerLeague, rounds);
+        }
+    }
+
+    /**
+     * Every producer owns a slice of the leagues and rewrites all their events once per round.
+     */
+    private static long ingest(IngestionPipeline pipeline, int producers, int leagueCount, int eventsPerLeague,
+                               int rounds) throws Exception {
+        for (int l = 0; l < leagueCount; l++) {
+            List<Event> topMatches = new ArrayList<>();
+            for (int e = 0; e < eventsPerLeague; e++) {
+                topMatches.add(event(eventId(l, e)));
+            }
+            pipeline.submitLeague("Football", league(l, l), topMatches);
+        }
+        ExecutorService executor = Executors.newFixedThreadPool(producers);
+        try {
+            long startTime = System.nanoTime();
+            List<CompletableFuture<Void>> futures = new ArrayList<>();
+            for (int p = 0; p < producers; p++) {
+                int producer = p;
+                futures.add(CompletableFuture.runAsync(() -> {
+                    for (int round = 0; round < rounds; round++) {
+                        for (int l = producer; l < leagueCount; l += producers) {
+                            for (int e = 0; e < eventsPerLeague; e++) {
+                                long eventId = eventId(l, e);
+                                pipeline.submitEvent(l, new EventReport("Event " + eventId + " round " + round,
+                                        "2026-01-01T00:00 UTC", eventId));
+                            }
+                        }
+                    }
+                }, executor));
+            }
+            CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).join();
+            pipeline.flush().get(30, TimeUnit.SECONDS);
+            return System.nanoTime() - startTime;
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private static long eventId(int league, int event) {
+        return league * 1000L + event;
+    }
+
+    private static League league(long id, int topOrder) {
+        League league = new League();
+        league.setId(id);
+        league.setName("League " + id);
+        league.setTopOrder(topOrder);
+        return league;
+    }
+
+    private static Event event(long id) {
+        Event event = new Event();
+        event.setId(id);
+        return event;
+    }
+
+    private static EventReport eventReport(long id) {
+        return new EventReport("Event " + id, "2026-01-01T00:00 UTC", id);
+    }
+
+    private static List<Long> eventIds(LeagueReport leagueReport) {
+        return leagueReport.getEventReports().stream().map(EventReport::getEventId).toList();
+    }
+}
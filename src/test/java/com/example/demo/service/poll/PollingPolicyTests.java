@@ -0,0 +1,72 @@
+package com.example.demo.service.poll;
+
+import com.example.demo.model.League;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class PollingPolicyTests {
+
+    private static final long NOW = 1_700_000_000_000L;
+
+    @Test
+    void testEventIntervalsFollowTimeToKickoff() {
+        PollingPolicy pollingPolicy = new PollingPolicy();
+        League league = league(0, 0);
+
+        assertEquals(Duration.ofSeconds(10), pollingPolicy.eventInterval(at(Duration.ofMinutes(-5)), NOW, league));
+        assertEquals(Duration.ofSeconds(10), pollingPolicy.eventInterval(at(Duration.ofHours(1)), NOW, league));
+        assertEquals(Duration.ofSeconds(30), pollingPolicy.eventInterval(at(Duration.ofHours(3)), NOW, league));
+        assertEquals(Duration.ofMinutes(2), pollingPolicy.eventInterval(at(Duration.ofHours(20)), NOW, league));
+        assertEquals(Duration.ofMinutes(5), pollingPolicy.eventInterval(at(Duration.ofDays(3)), NOW, league));
+    }
+
+    @Test
+    void testLowerTopOrderAndLighterWeightPollLessOften() {
+        PollingPolicy pollingPolicy = new PollingPolicy();
+        long kickoff = at(Duration.ofMinutes(30));
+
+        // Weights are ignored until leagues are observed
+        assertEquals(Duration.ofSeconds(10), pollingPolicy.eventInterval(kickoff, NOW, league(0, 10)));
+        assertEquals(Duration.ofSeconds(15), pollingPolicy.eventInterval(kickoff, NOW, league(5, 10)));
+        assertEquals(Duration.ofSeconds(20), pollingPolicy.eventInterval(kickoff, NOW, league(50, 10)));
+
+        pollingPolicy.observeLeagues(List.of(league(0, 100), league(1, 50), league(2, 0)));
+        assertEquals(Duration.ofSeconds(10), pollingPolicy.eventInterval(kickoff, NOW, league(0, 100)));
+        assertEquals(Duration.ofSeconds(15), pollingPolicy.eventInterval(kickoff, NOW, league(0, 50)));
+        assertEquals(Duration.ofSeconds(20), pollingPolicy.eventInterval(kickoff, NOW, league(0, 0)));
+        assertEquals(Duration.ofMillis(16_500), pollingPolicy.eventInterval(kickoff, NOW, league(1, 50)));
+        assertEquals(Duration.ofSeconds(40), pollingPolicy.eventInterval(kickoff, NOW, league(10, 0)));
+    }
+
+    @Test
+    void testLeagueIntervalsHaveAFloorAndDefaultWithoutEvents() {
+        PollingPolicy pollingPolicy = new PollingPolicy();
+        pollingPolicy.observeLeagues(List.of(league(0, 100), league(3, 20)));
+
+        assertEquals(Duration.ofSeconds(30), pollingPolicy.leagueInterval(at(Duration.ofMinutes(10)), NOW,
+                league(0, 100)));
+        assertEquals(Duration.ofSeconds(30), pollingPolicy.leagueInterval(at(Duration.ofHours(2)), NOW,
+                league(0, 100)));
+        assertEquals(Duration.ofMillis(70_200), pollingPolicy.leagueInterval(at(Duration.ofHours(2)), NOW,
+                league(3, 20)));
+        assertEquals(Duration.ofMinutes(5), pollingPolicy.leagueInterval(Long.MAX_VALUE, NOW, league(3, 20)));
+    }
+
+    private static long at(Duration untilKickoff) {
+        return NOW + untilKickoff.toMillis();
+    }
+
+    private static League league(int topOrder, int weight) {
+        League league = new League();
+        league.setId(topOrder * 1000L + weight);
+        league.setName("League " + topOrder);
+        league.setTop(true);
+        league.setTopOrder(topOrder);
+        league.setWeight(weight);
+        return league;
+    }
+}
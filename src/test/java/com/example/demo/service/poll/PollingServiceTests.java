@@ -0,0 +1,112 @@
+package com.example.demo.service.poll;
+
+import com.example.demo.config.AppConfig;
+import com.example.demo.config.AppContext;
+import com.example.demo.model.SportType;
+import com.example.demo.model.report.LeagueReport;
+import com.example.demo.model.report.ReportResult;
+import com.example.demo.model.report.SportReport;
+import com.example.demo.service.AsyncApiService;
+import com.example.demo.service.SportService;
+import com.example.demo.service.bus.OverflowPolicy;
+import com.example.demo.service.bus.PriceEventBus;
+import com.example.demo.service.bus.PriceEventFilters;
+import com.example.demo.service.bus.PriceEventLogger;
+import com.example.demo.service.bus.PriceEventType;
+import com.example.demo.service.report.ReportService;
+import com.example.demo.synthetic.LocalApiStandIn;
+import com.example.demo.synthetic.SyntheticFeedGenerator;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PollingServiceTests {
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(20);
+    private static final List<String> SELECTED_SPORT_NAMES = Arrays.stream(SportType.values())
+            .map(SportType::getDisplayName)
+            .toList();
+
+    @Test
+    void testPollsEveryTopLeagueAndItsTopMatchesFromTheFirstRefresh() throws Exception {
+        SyntheticFeedGenerator generator = new SyntheticFeedGenerator(8, 4, 2, 3, 0.05, 5);
+        try (LocalApiStandIn standIn = LocalApiStandIn.start(generator);
+             AppContext appContext = AppContext.start(new AppConfig(standIn.properties()))) {
+            SportService sportService =
+                    new SportService(new AsyncApiService(appContext, null), appContext.getAppConfig());
+            ReportService reportService = new ReportService(appContext, sportService, null);
+            PollingService pollingService = new PollingService(sportService, reportService, SELECTED_SPORT_NAMES);
+            try {
+                pollingService.start();
+                // Every event is fetched once on discovery; the next refreshes are seconds away
+                awaitCondition(() -> isComplete(pollingService.getReport(), generator));
+
+                ReportResult report = pollingService.getReport();
+                assertEquals(SELECTED_SPORT_NAMES,
+                        report.getSportReports().stream().map(SportReport::getSportName).toList());
+                for (SportReport sportReport : report.getSportReports()) {
+                    assertEquals(generator.getLeaguesPerSport(), sportReport.getLeagueReports().size());
+                    for (LeagueReport leagueReport : sportReport.getLeagueReports()) {
+                        assertEquals(2, leagueReport.getEventReports().size());
+                        assertEquals(generator.getMarketsPerEvent(),
+                                leagueReport.getEventReports().get(0).getMarketReports().size());
+                    }
+                }
+            } finally {
+                pollingService.stop();
+                reportService.shutdown();
+            }
+        }
+    }
+
+    @Test
+    void testPublishesTheChangesOfEveryRefreshToSubscribers() throws Exception {
+        SyntheticFeedGenerator generator = new SyntheticFeedGenerator(3, 4, 2, 3, 0.05, 6);
+        try (LocalApiStandIn standIn = LocalApiStandIn.start(generator);
+             AppContext appContext = AppContext.start(new AppConfig(standIn.properties()));
+             PriceEventBus priceEventBus = new PriceEventBus()) {
+            SportService sportService =
+                    new SportService(new AsyncApiService(appContext, null), appContext.getAppConfig());
+            ReportService reportService = new ReportService(appContext, sportService, null);
+            PriceEventLogger priceEventLogger = new PriceEventLogger();
+            priceEventBus.subscribe(priceEventLogger, PriceEventFilters.all(), 4096, OverflowPolicy.DROP_NEWEST);
+            PollingService pollingService = new PollingService(sportService, reportService, new PollingPolicy(),
+                    SELECTED_SPORT_NAMES, priceEventBus);
+            int events = SELECTED_SPORT_NAMES.size() * generator.getLeaguesPerSport() * 2;
+            int markets = events * generator.getMarketsPerEvent();
+            try {
+                pollingService.start();
+                // The first refresh of an event adds it and reports every runner price as changed
+                awaitCondition(() -> priceEventLogger.getReceived(PriceEventType.EVENT_ADDED) == events
+                        && priceEventLogger.getReceived(PriceEventType.MARKET_UPDATED) == markets
+                        && priceEventLogger.getReceived(PriceEventType.RUNNER_PRICE_CHANGED)
+                        == (long) markets * generator.getRunnersPerMarket());
+                assertEquals(0, priceEventBus.getDroppedEvents());
+            } finally {
+                pollingService.stop();
+                reportService.shutdown();
+            }
+        }
+    }
+
+    private static boolean isComplete(ReportResult report, SyntheticFeedGenerator generator) {
+        return report.getSportReports().stream().allMatch(sportReport ->
+                sportReport.getLeagueReports().size() == generator.getLeaguesPerSport()
+                        && sportReport.getLeagueReports().stream()
+                        .allMatch(leagueReport -> leagueReport.getEventReports().size() == 2));
+    }
+
+    private static void awaitCondition(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TIMEOUT.toNanos();
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.nanoTime() < deadline, "Condition not met within " + TIMEOUT);
+            Thread.sleep(20);
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.example.demo.service.projection;
+
+import com.example.demo.model.Event;
+import com.example.demo.model.EventDetailsResponse;
+import com.example.demo.model.EventResponse;
+import com.example.demo.model.Market;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ProjectionsTests {
+
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+
+    private static final String EVENTS_JSON = """
+            {"enabled":true,"data":[
+              {"id":11,"name":"A - B","kickoff":1700000000000,"betline":"prematch",
+               "competitors":[{"id":1,"name":"A"},{"id":2,"name":"B"}],
+               "league":{"id":5,"name":"Premier League","sport":{"id":1}},
+               "markets":[{"id":100,"name":"Winner","runners":[{"id":1000,"name":"1","price":1.5}]}]},
+              {"id":12,"name":"C - D","kickoff":1700000500000,"betline":"inplay","markets":null}
+            ]}
+            """;
+
+    private static final String DETAILS_JSON = """
+            {"id":11,"name":"A - B","markets":[
+              {"id":100,"name":"Winner","marketTypeId":1,"open":true,"primary":true,"specifiers":{"a":[1,2,3]},
+               "runners":[{"id":1000,"name":"1","open":true,"price":1.5,"priceStr":"1.5","tags":["HOME"]},
+                          {"id":1001,"name":"2","open":false,"price":2.75,"priceStr":"2.75"}]}
+            ]}
+            """;
+
+    @Test
+    void testTopMatchesProjectionSkipsUnusedSubtrees() throws IOException {
+        EventResponse response = read(EVENTS_JSON, Projections.TOP_MATCHES);
+
+        assertEquals(2, response.getData().size());
+        Event event = response.getData().get(0);
+        assertEquals(11, event.getId());
+        assertEquals("A - B", event.getName());
+        assertEquals(1700000000000L, event.getKickoff());
+        assertEquals("prematch", event.getBetline());
+        assertNull(event.getCompetitors());
+        assertNull(event.getLeague());
+        assertNull(event.getMarkets());
+        assertEquals("inplay", response.getData().get(1).getBetline());
+    }
+
+    @Test
+    void testEventMarketsProjectionMatchesFullBinding() throws IOException {
+        EventDetailsResponse projected = read(DETAILS_JSON, Projections.EVENT_MARKETS);
+        EventDetailsResponse full = objectMapper.readValue(DETAILS_JSON, EventDetailsResponse.class);
+
+        Market market = projected.getMarkets().get(0);
+        assertEquals(full.getMarkets().get(0).getName(), market.getName());
+        assertEquals(1, market.getMarketTypeId());
+        assertTrue(market.isPrimary());
+        assertEquals(2, market.getRunners().size());
+        assertEquals(full.getMarkets().get(0).getRunners().get(1).getPrice(), market.getRunners().get(1).getPrice());
+        assertNull(market.getRunners().get(0).getPriceStr());
+    }
+
+    private static <T> T read(String json, JsonProjection<T> projection) throws IOException {
+        try (JsonParser parser = objectMapper.getFactory().createParser(json)) {
+            parser.nextToken();
+            return projection.read(parser);
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package com.example.demo.service.report;
+
+import com.example.demo.model.Event;
+import com.example.demo.model.EventDetailsResponse;
+import com.example.demo.model.Market;
+import com.example.demo.model.Runner;
+import com.example.demo.model.report.compact.CompactEventReport;
+import com.example.demo.model.report.compact.CompactLeagueReport;
+import com.example.demo.model.report.compact.CompactReport;
+import com.example.demo.model.report.compact.CompactSportReport;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class CompactReportPrintServiceTests {
+
+    @Test
+    void testRendersHierarchyWithKickoffFormattedOnOutput() {
+        Event event = new Event();
+        event.setId(7);
+        event.setName("Home - Away");
+        event.setKickoff(1_723_298_400_000L);
+        Runner home = new Runner(11, "Home", true, 1.85, "1.85");
+        Runner away = new Runner(12, "Away", true, 2.1, "2.10");
+        Market market = new Market(5, "Winner", 1, true, true, List.of(home, away));
+
+        CompactEventReport eventReport = CompactEventReport.of(event, new EventDetailsResponse(List.of(market)));
+        CompactReport report = new CompactReport(new CompactSportReport[]{
+                new CompactSportReport("Football", new CompactLeagueReport[]{
+                        new CompactLeagueReport("Premier League", new CompactEventReport[]{eventReport})})});
+
+        assertEquals(1_723_298_400_000L, eventReport.kickoff());
+        assertEquals(2, eventReport.markets()[0].runners().length);
+        assertEquals("""
+                           Football, Premier League
+                              Home - Away, 2024-08-10T14:00 UTC, 7
+                                 Winner
+                                    Home, 1.85, 11
+                                    Away, 2.1, 12
+                        """, new CompactReportPrintService(report).render());
+    }
+}
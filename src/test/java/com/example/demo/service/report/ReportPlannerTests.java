@@ -0,0 +1,92 @@
+package com.example.demo.service.report;
+
+import com.example.demo.model.Event;
+import com.example.demo.model.EventDetailsResponse;
+import com.example.demo.model.League;
+import com.example.demo.model.Region;
+import com.example.demo.model.Sport;
+import com.example.demo.model.report.ReportResult;
+import com.example.demo.model.report.SportReport;
+import com.example.demo.service.SportService;
+import com.example.demo.service.projection.JsonProjection;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class ReportPlannerTests {
+
+    @Test
+    void testOverlappingRequestsFetchSharedDataOnce() {
+        CountingSportService sportService = new CountingSportService();
+        ReportService reportService = new ReportService(sportService);
+        try {
+            List<ReportResult> results = reportService.generateReports(List.of(
+                    List.of("Football", "Tennis"),
+                    List.of("Football", "Basketball")));
+
+            assertEquals(List.of("Football", "Tennis"), sportNames(results.get(0)));
+            assertEquals(List.of("Football", "Basketball"), sportNames(results.get(1)));
+            assertSame(results.get(0).getSportReports().get(0), results.get(1).getSportReports().get(0));
+            assertEquals(1, sportService.sportsFetches.get());
+            assertEquals(3, sportService.leagueFetches.get());
+            assertEquals(6, sportService.eventFetches.get());
+        } finally {
+            reportService.shutdown();
+        }
+    }
+
+    private static List<String> sportNames(ReportResult result) {
+        return result.getSportReports().stream().map(SportReport::getSportName).toList();
+    }
+
+    private static class CountingSportService extends SportService {
+        private final AtomicInteger sportsFetches = new AtomicInteger();
+        private final AtomicInteger leagueFetches = new AtomicInteger();
+        private final AtomicInteger eventFetches = new AtomicInteger();
+
+        private CountingSportService() {
+            super(null, null);
+        }
+
+        @Override
+        public List<Sport> fetchSportsData() {
+            sportsFetches.incrementAndGet();
+            return List.of(sport(1, "Football"), sport(2, "Tennis"), sport(3, "Basketball"), sport(4, "Hockey"));
+        }
+
+        @Override
+        public CompletableFuture<List<Event>> fetchTopMatchesAsync(long leagueId, int limit, Duration timeout) {
+            leagueFetches.incrementAndGet();
+            return CompletableFuture.supplyAsync(() -> List.of(event(leagueId * 100 + 1), event(leagueId * 100 + 2)));
+        }
+
+        @Override
+        public CompletableFuture<EventDetailsResponse> fetchEventDetailsAsync(
+                long eventId, JsonProjection<EventDetailsResponse> projection) {
+            eventFetches.incrementAndGet();
+            return CompletableFuture.supplyAsync(() -> new EventDetailsResponse(List.of()));
+        }
+
+        @Override
+        public void shutdown() {
+        }
+
+        private static Sport sport(long id, String name) {
+            League league = new League(id * 10, name + " League", 0, 1, 0, 0, true, 1);
+            return new Sport(id, name, 0, name, List.of(new Region(id, name, List.of(league))));
+        }
+
+        private static Event event(long id) {
+            Event event = new Event();
+            event.setId(id);
+            event.setName("Event " + id);
+            return event;
+        }
+    }
+}
@@ -0,0 +1,249 @@
+package com.example.demo.service.report;
+
+import com.example.demo.config.AppConfig;
+import com.example.demo.config.AppContext;
+import com.example.demo.model.Event;
+import com.example.demo.model.League;
+import com.example.demo.model.Sport;
+import com.example.demo.model.report.EventReport;
+import com.example.demo.model.report.LeagueReport;
+import com.example.demo.model.report.ReportResult;
+import com.example.demo.model.report.ReportStatus;
+import com.example.demo.model.report.SportReport;
+import com.example.demo.service.AsyncApiService;
+import com.example.demo.service.SportService;
+import com.example.demo.service.execution.BoundedStageExecutor;
+import com.example.demo.service.execution.StageStats;
+import com.example.demo.service.snapshot.SnapshotStore;
+import com.example.demo.synthetic.LocalApiStandIn;
+import com.example.demo.synthetic.SyntheticFeedGenerator;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.net.URI;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+
+class ReportServiceTests {
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(60);
+    private static final Duration BUDGET = Duration.ofSeconds(1);
+    private static final Duration BUDGET_TOLERANCE = Duration.ofMillis(750);
+    private static final Duration SLOW_RESPONSE = Duration.ofSeconds(30);
+
+    /**
+     * 200 leagues and 400 events saturate the fetch and parse queues, while top matches parsed on the parse stage
+     * start event detail fetches against the flow of the stages.
+     */
+    @Test
+    void testSaturatedStagesDoNotDeadlock() throws Exception {
+        SyntheticFeedGenerator generator = new SyntheticFeedGenerator(50, 4, 3, 3, 0.05, 3);
+        try (LocalApiStandIn standIn = LocalApiStandIn.start(generator);
+             AppContext appContext = AppContext.start(new AppConfig(standIn.properties()))) {
+            SportService sportService =
+                    new SportService(new AsyncApiService(appContext, null), appContext.getAppConfig());
+            ReportService reportService = new ReportService(appContext, sportService, null);
+            try {
+                ReportResult deadlineReport = assertTimeoutPreemptively(TIMEOUT,
+                        () -> reportService.generateReportWithDeadline(null, Duration.ofSeconds(30)));
+                assertComplete(deadlineReport, generator);
+
+                List<ReportResult> plannedReports = assertTimeoutPreemptively(TIMEOUT,
+                        () -> reportService.generateReports(List.of(List.of(), List.of("Football"))));
+                assertComplete(plannedReports.get(0), generator);
+                assertEquals(1, plannedReports.get(1).getSportReports().size());
+            } finally {
+                reportService.shutdown();
+            }
+        }
+    }
+
+    @Test
+    void testPrioritizedReportMatchesTheAsyncReport() throws Exception {
+        SyntheticFeedGenerator generator = new SyntheticFeedGenerator(5, 3, 2, 2, 0.05, 5);
+        try (LocalApiStandIn standIn = LocalApiStandIn.start(generator);
+             AppContext appContext = AppContext.start(new AppConfig(standIn.properties()))) {
+            SportService sportService =
+                    new SportService(new AsyncApiService(appContext, null), appContext.getAppConfig());
+            ReportService reportService = new ReportService(appContext, sportService, null);
+            try {
+                ReportResult prioritized = assertTimeoutPreemptively(TIMEOUT,
+                        () -> reportService.generateReportPrioritized(null));
+                assertComplete(prioritized, generator);
+                assertEquals(reportService.generateReportAsync(null), prioritized);
+            } finally {
+                reportService.shutdown();
+            }
+        }
+    }
+
+    @Test
+    void testSlowLeagueAndFailingEventAreMissingThenStale() throws Exception {
+        SyntheticFeedGenerator generator = new SyntheticFeedGenerator(3, 2, 2, 2, 0.05, 7);
+        try (LocalApiStandIn standIn = LocalApiStandIn.start(generator);
+             AppContext appContext = AppContext.start(new AppConfig(standIn.properties()))) {
+            SportService sportService =
+                    new SportService(new AsyncApiService(appContext, null), appContext.getAppConfig());
+            ReportService reportService = new ReportService(appContext, sportService, null);
+            try {
+                List<League> leagues = sportService.getTopLeagues(football(sportService));
+                long slowLeagueId = leagues.get(0).getId();
+                Event failingEvent = sportService.fetchTopMatches(leagues.get(1).getId(), 2).get(0);
+                Runnable injectFaults = () -> {
+                    standIn.delay(uri -> hasParameter(uri, "league_id", slowLeagueId), SLOW_RESPONSE);
+                    standIn.fail(uri -> hasParameter(uri, "eventId", failingEvent.getId()));
+                };
+
+                injectFaults.run();
+                SportReport missing = footballReport(generateWithinBudget(reportService));
+                assertEquals(ReportStatus.STALE, missing.getStatus());
+                assertEquals(ReportStatus.MISSING, missing.getLeagueReports().get(0).getStatus());
+                assertEquals(ReportStatus.STALE, missing.getLeagueReports().get(1).getStatus());
+                assertEquals(ReportStatus.MISSING, eventReport(missing, failingEvent.getId()).getStatus());
+                assertEquals(ReportStatus.COMPLETE, missing.getLeagueReports().get(2).getStatus());
+
+                standIn.delay(uri -> false, Duration.ZERO);
+                standIn.fail(uri -> false);
+                SportReport complete = footballReport(reportService.generateReportWithDeadline(List.of("Football"),
+                        Duration.ofSeconds(10)));
+                assertEquals(ReportStatus.COMPLETE, complete.getStatus());
+
+                injectFaults.run();
+                SportReport stale = footballReport(generateWithinBudget(reportService));
+                assertEquals(ReportStatus.STALE, stale.getStatus());
+                LeagueReport slowLeague = stale.getLeagueReports().get(0);
+                assertEquals(ReportStatus.STALE, slowLeague.getStatus());
+                assertEquals(2, slowLeague.getEventReports().size());
+                slowLeague.getEventReports().forEach(event -> assertEquals(ReportStatus.STALE, event.getStatus()));
+                EventReport failing = eventReport(stale, failingEvent.getId());
+                assertEquals(ReportStatus.STALE, failing.getStatus());
+                assertEquals(generator.getMarketsPerEvent(), failing.getMarketReports().size());
+                assertEquals(ReportStatus.COMPLETE, stale.getLeagueReports().get(2).getStatus());
+            } finally {
+                standIn.delay(uri -> false, Duration.ZERO);
+                reportService.shutdown();
+            }
+        }
+    }
+
+    @Test
+    void testSnapshotValuesAreReportedStale(@TempDir Path directory) throws Exception {
+        SyntheticFeedGenerator generator = new SyntheticFeedGenerator(2, 2, 2, 2, 0.05, 13);
+        try (LocalApiStandIn standIn = LocalApiStandIn.start(generator);
+             AppContext appContext = AppContext.start(new AppConfig(standIn.properties()));
+             SnapshotStore snapshotStore = SnapshotStore.open(directory.resolve("snapshots"), Duration.ofHours(1))) {
+            AsyncApiService firstRun = new AsyncApiService(appContext, snapshotStore);
+            assertComplete(deadlineReport(appContext, firstRun, generator), generator);
+
+            // A restarted service answers the first request for every URL from its snapshot
+            AsyncApiService restarted = new AsyncApiService(appContext, snapshotStore);
+            ReportResult reportResult = deadlineReport(appContext, restarted, generator);
+            restarted.shutdown();
+            for (SportReport sportReport : reportResult.getSportReports()) {
+                assertEquals(ReportStatus.STALE, sportReport.getStatus());
+                for (LeagueReport leagueReport : sportReport.getLeagueReports()) {
+                    assertEquals(ReportStatus.STALE, leagueReport.getStatus());
+                    leagueReport.getEventReports()
+                            .forEach(eventReport -> assertEquals(ReportStatus.STALE, eventReport.getStatus()));
+                }
+            }
+        }
+    }
+
+    /**
+     * Other work fills the fetch stage with requests the stand-in holds back, so submitting a fetch would block
+     * the caller of the deadline report until the stage drains.
+     */
+    @Test
+    void testBudgetHoldsWhileTheFetchStageIsSaturated() throws Exception {
+        SyntheticFeedGenerator generator = new SyntheticFeedGenerator(3, 2, 2, 2, 0.05, 11);
+        try (LocalApiStandIn standIn = LocalApiStandIn.start(generator);
+             AppContext appContext = AppContext.start(new AppConfig(standIn.properties()))) {
+            SportService sportService =
+                    new SportService(new AsyncApiService(appContext, null), appContext.getAppConfig());
+            ReportService reportService = new ReportService(appContext, sportService, null);
+            try {
+                long leagueId = sportService.getTopLeagues(football(sportService)).get(0).getId();
+                standIn.delay(uri -> uri.getPath().endsWith("/changes/all"), SLOW_RESPONSE);
+                BoundedStageExecutor fetchExecutor = appContext.getFetchExecutor();
+                while (queueDepth(fetchExecutor) < fetchExecutor.getStats().getQueueCapacity()) {
+                    sportService.fetchTopMatchesAsync(leagueId, 2, null);
+                }
+
+                // Not even the sports tree gets through the stage in time
+                SportReport missing = footballReport(generateWithinBudget(reportService));
+                assertEquals(ReportStatus.MISSING, missing.getStatus());
+            } finally {
+                standIn.delay(uri -> false, Duration.ZERO);
+                reportService.shutdown();
+            }
+        }
+    }
+
+    private static ReportResult deadlineReport(AppContext appContext, AsyncApiService apiService,
+                                               SyntheticFeedGenerator generator) {
+        ReportService reportService = new ReportService(appContext,
+                new SportService(apiService, appContext.getAppConfig()), null);
+        ReportResult reportResult = reportService.generateReportWithDeadline(null, Duration.ofSeconds(10));
+        assertEquals(4, reportResult.getSportReports().size());
+        reportResult.getSportReports().forEach(sportReport ->
+                assertEquals(generator.getLeaguesPerSport(), sportReport.getLeagueReports().size()));
+        return reportResult;
+    }
+
+    private static ReportResult generateWithinBudget(ReportService reportService) {
+        long start = System.nanoTime();
+        ReportResult reportResult = assertTimeoutPreemptively(TIMEOUT,
+                () -> reportService.generateReportWithDeadline(List.of("Football"), BUDGET));
+        Duration elapsed = Duration.ofNanos(System.nanoTime() - start);
+        assertTrue(elapsed.compareTo(BUDGET.plus(BUDGET_TOLERANCE)) < 0,
+                "Report took " + elapsed.toMillis() + " ms on a budget of " + BUDGET.toMillis() + " ms");
+        return reportResult;
+    }
+
+    private static Sport football(SportService sportService) {
+        return sportService.fetchSportsData().stream()
+                .filter(sport -> sport.getName().equals("Football"))
+                .findFirst()
+                .orElseThrow();
+    }
+
+    private static SportReport footballReport(ReportResult reportResult) {
+        assertEquals(1, reportResult.getSportReports().size());
+        return reportResult.getSportReports().get(0);
+    }
+
+    private static EventReport eventReport(SportReport sportReport, long eventId) {
+        return sportReport.getLeagueReports().stream()
+                .flatMap(leagueReport -> leagueReport.getEventReports().stream())
+                .filter(eventReport -> eventReport.getEventId() == eventId)
+                .findFirst()
+                .orElseThrow();
+    }
+
+    private static int queueDepth(BoundedStageExecutor stageExecutor) {
+        StageStats stats = stageExecutor.getStats();
+        return stats.getQueueDepth();
+    }
+
+    private static boolean hasParameter(URI uri, String name, long value) {
+        return ("&" + uri.getRawQuery() + "&").contains("&" + name + "=" + value + "&");
+    }
+
+    private static void assertComplete(ReportResult reportResult, SyntheticFeedGenerator generator) {
+        assertEquals(4, reportResult.getSportReports().size());
+        for (SportReport sportReport : reportResult.getSportReports()) {
+            assertEquals(ReportStatus.COMPLETE, sportReport.getStatus());
+            assertEquals(generator.getLeaguesPerSport(), sportReport.getLeagueReports().size());
+            for (LeagueReport leagueReport : sportReport.getLeagueReports()) {
+                assertEquals(ReportStatus.COMPLETE, leagueReport.getStatus());
+                assertEquals(2, leagueReport.getEventReports().size());
+            }
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.example.demo.service.resilience;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CircuitBreakerTests {
+
+    private static final long FAST_CALL = Duration.ofMillis(10).toNanos();
+    private static final long SLOW_CALL = Duration.ofSeconds(5).toNanos();
+
+    @Test
+    void testOpensOnFailureRateAndRecoversThroughHalfOpen() throws InterruptedException {
+        CircuitBreaker circuitBreaker = new CircuitBreaker("/event/all", 10, 4, 0.5, 0.8,
+                Duration.ofSeconds(1), Duration.ofMillis(50), 2);
+
+        for (int i = 0; i < 2; i++) {
+            assertTrue(circuitBreaker.tryAcquirePermission());
+            circuitBreaker.onSuccess(FAST_CALL);
+        }
+        for (int i = 0; i < 2; i++) {
+            assertTrue(circuitBreaker.tryAcquirePermission());
+            circuitBreaker.onError(FAST_CALL);
+        }
+        assertEquals(CircuitBreaker.State.OPEN, circuitBreaker.getState());
+        assertFalse(circuitBreaker.tryAcquirePermission());
+
+        Thread.sleep(60);
+        assertTrue(circuitBreaker.tryAcquirePermission());
+        assertTrue(circuitBreaker.tryAcquirePermission());
+        assertFalse(circuitBreaker.tryAcquirePermission());
+        circuitBreaker.onSuccess(FAST_CALL);
+        circuitBreaker.onSuccess(FAST_CALL);
+        assertEquals(CircuitBreaker.State.CLOSED, circuitBreaker.getState());
+    }
+
+    @Test
+    void testOpensOnSlowCallRate() {
+        CircuitBreaker circuitBreaker = new CircuitBreaker("/sports", 5, 5, 0.5, 0.6,
+                Duration.ofSeconds(1), Duration.ofMinutes(1), 1);
+
+        for (int i = 0; i < 5; i++) {
+            assertTrue(circuitBreaker.tryAcquirePermission());
+            circuitBreaker.onSuccess(i < 3 ? SLOW_CALL : FAST_CALL);
+        }
+        assertEquals(CircuitBreaker.State.OPEN, circuitBreaker.getState());
+    }
+}
@@ -0,0 +1,78 @@
+package com.example.demo.service.schedule;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+
+class PriorityFetchSchedulerTests {
+
+    @Test
+    void testStartsSoonestKickoffThenHeaviestLeagueFirst() {
+        PriorityFetchScheduler scheduler = new PriorityFetchScheduler(1, 0);
+        CompletableFuture<String> blocking = new CompletableFuture<>();
+        List<String> started = new CopyOnWriteArrayList<>();
+
+        scheduler.submit(new FetchPriority(0, 0, 0), () -> blocking);
+        CompletableFuture<String> late = submit(scheduler, started, "late", new FetchPriority(3_000, 0, 0));
+        CompletableFuture<String> light = submit(scheduler, started, "light", new FetchPriority(1_000, 1, 0));
+        CompletableFuture<String> heavy = submit(scheduler, started, "heavy", new FetchPriority(1_000, 9, 0));
+        assertEquals(3, scheduler.getQueueDepth());
+
+        blocking.complete("blocking");
+        CompletableFuture.allOf(late, light, heavy).join();
+        assertEquals(List.of("heavy", "light", "late"), started);
+    }
+
+    @Test
+    void testAgingLetsWaitingFetchesOvertakeNewerUrgentOnes() throws InterruptedException {
+        PriorityFetchScheduler scheduler = new PriorityFetchScheduler(1, 1_000_000);
+        CompletableFuture<String> blocking = new CompletableFuture<>();
+        List<String> started = new CopyOnWriteArrayList<>();
+
+        scheduler.submit(new FetchPriority(0, 0, 0), () -> blocking);
+        CompletableFuture<String> old = submit(scheduler, started, "old", new FetchPriority(1_000_000, 0, 0));
+        Thread.sleep(20);
+        CompletableFuture<String> urgent = submit(scheduler, started, "urgent", new FetchPriority(0, 0, 0));
+
+        blocking.complete("blocking");
+        CompletableFuture.allOf(old, urgent).join();
+        assertEquals(List.of("old", "urgent"), started);
+    }
+
+    @Test
+    void testCompletedFetchesDoNotRecurseIntoDispatch() {
+        PriorityFetchScheduler scheduler = new PriorityFetchScheduler(1, 0);
+        CompletableFuture<String> blocking = new CompletableFuture<>();
+        List<String> started = new CopyOnWriteArrayList<>();
+
+        scheduler.submit(new FetchPriority(0, 0, 0), () -> blocking);
+        List<CompletableFuture<String>> fetches = new ArrayList<>();
+        for (int i = 0; i < 20_000; i++) {
+            fetches.add(submit(scheduler, started, "fetch-" + i, new FetchPriority(1_000 + i, 0, 0)));
+        }
+        assertEquals(20_000, scheduler.getQueueDepth());
+
+        // Completing the running fetch starts all queued ones, each already completed when it starts
+        blocking.complete("blocking");
+        assertTimeoutPreemptively(Duration.ofSeconds(30),
+                () -> CompletableFuture.allOf(fetches.toArray(CompletableFuture[]::new)).join());
+        assertEquals(20_000, started.size());
+        assertEquals("fetch-19999", started.get(19_999));
+        assertEquals(0, scheduler.getQueueDepth());
+    }
+
+    private static CompletableFuture<String> submit(PriorityFetchScheduler scheduler, List<String> started,
+                                                    String name, FetchPriority priority) {
+        return scheduler.submit(priority, () -> {
+            started.add(name);
+            return CompletableFuture.completedFuture(name);
+        });
+    }
+}
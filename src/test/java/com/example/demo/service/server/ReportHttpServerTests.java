@@ -0,0 +1,81 @@
+package com.example.demo.service.server;
+
+import com.example.demo.model.report.LeagueReport;
+import com.example.demo.model.report.ReportResult;
+import com.example.demo.model.report.SportReport;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ReportHttpServerTests {
+
+    private final HttpClient httpClient = HttpClient.newHttpClient();
+
+    @Test
+    void testServesPublishedReportWithEtagAndGzip() throws IOException, InterruptedException {
+        try (ReportHttpServer server = ReportHttpServer.start(0, new ObjectMapper())) {
+            String baseUrl = "http://localhost:" + server.getPort() + "/reports";
+            assertEquals(503, get(baseUrl, null, false).statusCode());
+
+            SportReport football = new SportReport("Football");
+            football.addLeagueReport(new LeagueReport("Premier League"));
+            server.publish(new ReportResult(List.of(football, new SportReport("Ice Hockey"))));
+
+            HttpResponse<byte[]> all = get(baseUrl, null, false);
+            assertEquals(200, all.statusCode());
+            assertTrue(new String(all.body(), StandardCharsets.UTF_8).contains("Premier League"));
+
+            HttpResponse<byte[]> sport = get(baseUrl + "/football", null, true);
+            assertEquals(200, sport.statusCode());
+            assertEquals("gzip", sport.headers().firstValue("Content-Encoding").orElseThrow());
+            String json = new String(new GZIPInputStream(new ByteArrayInputStream(sport.body())).readAllBytes(),
+                    StandardCharsets.UTF_8);
+            assertTrue(json.startsWith("{\"sportName\":\"Football\""));
+
+            assertEquals(200, get(baseUrl + "/ice%20hockey", null, false).statusCode());
+
+            String etag = sport.headers().firstValue("ETag").orElseThrow();
+            assertTrue(etag.endsWith("-gz\""));
+            assertEquals(304, get(baseUrl + "/football", etag, true).statusCode());
+            // The gzip ETag does not validate the identity representation, nor the other way round
+            HttpResponse<byte[]> identity = get(baseUrl + "/football", etag, false);
+            assertEquals(200, identity.statusCode());
+            String identityEtag = identity.headers().firstValue("ETag").orElseThrow();
+            assertNotEquals(etag, identityEtag);
+            assertEquals(200, get(baseUrl + "/football", identityEtag, true).statusCode());
+            assertEquals(304, get(baseUrl + "/football", identityEtag, false).statusCode());
+            server.publish(new ReportResult(List.of(football)));
+            assertEquals(304, get(baseUrl + "/football", etag, true).statusCode());
+
+            assertEquals(404, get(baseUrl + "/ice%20hockey", null, false).statusCode());
+            assertEquals(404, get(baseUrl + "/tennis", null, false).statusCode());
+            assertEquals(404, get(baseUrl + "X", null, false).statusCode());
+            assertEquals(404, get(baseUrl + "football", null, false).statusCode());
+            assertEquals(404, get(baseUrl + "/", null, false).statusCode());
+        }
+    }
+
+    private HttpResponse<byte[]> get(String url, String etag, boolean gzip) throws IOException, InterruptedException {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(url)).GET();
+        if (etag != null) {
+            request.header("If-None-Match", etag);
+        }
+        if (gzip) {
+            request.header("Accept-Encoding", "gzip");
+        }
+        return httpClient.send(request.build(), HttpResponse.BodyHandlers.ofByteArray());
+    }
+}
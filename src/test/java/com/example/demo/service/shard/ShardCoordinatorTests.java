@@ -0,0 +1,196 @@
+package com.example.demo.service.shard;
+
+import com.example.demo.config.AppConfig;
+import com.example.demo.config.AppContext;
+import com.example.demo.model.SportType;
+import com.example.demo.model.report.LeagueReport;
+import com.example.demo.model.report.ReportResult;
+import com.example.demo.model.report.ReportStatus;
+import com.example.demo.model.report.SportReport;
+import com.example.demo.service.AsyncApiService;
+import com.example.demo.service.SportService;
+import com.example.demo.service.report.ReportService;
+import com.example.demo.synthetic.LocalApiStandIn;
+import com.example.demo.synthetic.SyntheticFeedGenerator;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.Socket;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ShardCoordinatorTests {
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(20);
+
+    @Test
+    void testRingMovesOnlyTheLeaguesOfARemovedWorker() {
+        ConsistentHashRing ring = new ConsistentHashRing(128);
+        ring.add("worker-a");
+        ring.add("worker-b");
+        ring.add("worker-c");
+        Map<Long, String> owners = new HashMap<>();
+        Map<String, Integer> counts = new HashMap<>();
+        for (long leagueId = 1; leagueId <= 3000; leagueId++) {
+            String owner = ring.nodeFor(leagueId);
+            owners.put(leagueId, owner);
+            counts.merge(owner, 1, Integer::sum);
+        }
+        counts.values().forEach(count -> assertTrue(count > 600, "Uneven spread: " + counts));
+
+        ring.remove("worker-b");
+        owners.forEach((leagueId, owner) -> {
+            String newOwner = ring.nodeFor(leagueId);
+            if (owner.equals("worker-b")) {
+                assertTrue(!newOwner.equals("worker-b"));
+            } else {
+                assertEquals(owner, newOwner);
+            }
+        });
+    }
+
+    @Test
+    void testWorkersOnLoopbackBuildTheWholeReportAndTakeOverADeadWorker() throws Exception {
+        SyntheticFeedGenerator generator = new SyntheticFeedGenerator(6, 4, 2, 2, 0.05, 11);
+        List<String> selectedSportNames = Arrays.stream(SportType.values())
+                .map(SportType::getDisplayName)
+                .toList();
+        try (LocalApiStandIn standIn = LocalApiStandIn.start(generator);
+             AppContext appContext = AppContext.start(new AppConfig(standIn.properties()))) {
+            SportService sportService =
+                    new SportService(new AsyncApiService(appContext, null), appContext.getAppConfig());
+            ReportService reportService = new ReportService(appContext, sportService, null);
+            List<ShardWorker> workers = new ArrayList<>();
+            try (ShardCoordinator coordinator = ShardCoordinator.start(sportService, selectedSportNames, 0,
+                    appContext.getObjectMapper())) {
+                ReportResult empty = coordinator.getReport();
+                assertEquals(ReportStatus.MISSING,
+                        empty.getSportReports().get(0).getLeagueReports().get(0).getStatus());
+
+                for (String workerId : List.of("worker-a", "worker-b", "worker-c")) {
+                    workers.add(ShardWorker.start(reportService, workerId, "localhost", coordinator.getPort(),
+                            appContext.getObjectMapper(), Duration.ofMillis(200)));
+                }
+                awaitCondition(() -> coordinator.getWorkerCount() == 3 && coordinator.getReport().isComplete());
+                int leagueCount = SportType.values().length * generator.getLeaguesPerSport();
+                assertEquals(leagueCount,
+                        coordinator.getAssignmentSizes().values().stream().mapToInt(Integer::intValue).sum());
+                assertReportCovers(coordinator.getReport(), generator);
+
+                ShardWorker deadWorker = workers.remove(1);
+                deadWorker.close();
+                awaitCondition(() -> coordinator.getWorkerCount() == 2);
+                assertEquals(leagueCount,
+                        coordinator.getAssignmentSizes().values().stream().mapToInt(Integer::intValue).sum());
+                // Leagues of the dead worker are rebuilt by the survivors
+                awaitCondition(() -> coordinator.getReport().isComplete());
+                assertReportCovers(coordinator.getReport(), generator);
+                workers.forEach(worker -> assertTrue(!worker.getAssignments().isEmpty()));
+            } finally {
+                workers.forEach(ShardWorker::close);
+                reportService.shutdown();
+            }
+        }
+    }
+
+    @Test
+    void testReportsOfLeaguesOwnedByAnotherWorkerAreIgnored() throws Exception {
+        SyntheticFeedGenerator generator = new SyntheticFeedGenerator(6, 2, 1, 2, 0.05, 13);
+        List<String> selectedSportNames = Arrays.stream(SportType.values())
+                .map(SportType::getDisplayName)
+                .toList();
+        try (LocalApiStandIn standIn = LocalApiStandIn.start(generator);
+             AppContext appContext = AppContext.start(new AppConfig(standIn.properties()))) {
+            SportService sportService =
+                    new SportService(new AsyncApiService(appContext, null), appContext.getAppConfig());
+            try (ShardCoordinator coordinator = ShardCoordinator.start(sportService, selectedSportNames, 0,
+                    appContext.getObjectMapper());
+                 ShardConnection workerA = connect(coordinator, "worker-a", appContext);
+                 ShardConnection workerB = connect(coordinator, "worker-b", appContext)) {
+                AtomicReference<List<ShardAssignment>> leaguesOfA = receiveAssignments(workerA);
+                AtomicReference<List<ShardAssignment>> leaguesOfB = receiveAssignments(workerB);
+                awaitCondition(() -> coordinator.getWorkerCount() == 2
+                        && !leaguesOfA.get().isEmpty() && !leaguesOfB.get().isEmpty()
+                        && leaguesOfA.get().size() + leaguesOfB.get().size()
+                        == SportType.values().length * generator.getLeaguesPerSport());
+
+                ShardAssignment foreign = leaguesOfB.get().get(0);
+                ShardAssignment own = leaguesOfA.get().get(0);
+                workerA.send(ShardMessage.leagueReport(foreign.getLeagueId(),
+                        new LeagueReport(foreign.getLeagueName())));
+                workerA.send(ShardMessage.leagueReport(own.getLeagueId(), new LeagueReport(own.getLeagueName())));
+                // Reports of one connection are handled in order, so the foreign one was handled first
+                awaitCondition(() -> leagueStatus(coordinator.getReport(), own.getLeagueName())
+                        == ReportStatus.COMPLETE);
+                assertEquals(ReportStatus.MISSING, leagueStatus(coordinator.getReport(), foreign.getLeagueName()));
+            }
+        }
+    }
+
+    private static ShardConnection connect(ShardCoordinator coordinator, String workerId, AppContext appContext)
+            throws Exception {
+        ShardConnection connection = new ShardConnection(new Socket("localhost", coordinator.getPort()),
+                appContext.getObjectMapper());
+        connection.send(ShardMessage.hello(workerId));
+        return connection;
+    }
+
+    /**
+     * Keeps reading the connection, exposing the leagues of the latest assignment received.
+     */
+    private static AtomicReference<List<ShardAssignment>> receiveAssignments(ShardConnection connection) {
+        AtomicReference<List<ShardAssignment>> leagues = new AtomicReference<>(List.of());
+        Thread.ofVirtual().start(() -> {
+            try {
+                ShardMessage message;
+                while ((message = connection.receive()) != null) {
+                    if (message.getType() == ShardMessage.Type.ASSIGN) {
+                        leagues.set(List.copyOf(message.getLeagues()));
+                    }
+                }
+            } catch (IOException ignored) {
+                // The connection was closed by the test
+            }
+        });
+        return leagues;
+    }
+
+    private static ReportStatus leagueStatus(ReportResult reportResult, String leagueName) {
+        return reportResult.getSportReports().stream()
+                .flatMap(sportReport -> sportReport.getLeagueReports().stream())
+                .filter(leagueReport -> leagueReport.getLeagueName().equals(leagueName))
+                .findFirst()
+                .orElseThrow()
+                .getStatus();
+    }
+
+    private static void assertReportCovers(ReportResult reportResult, SyntheticFeedGenerator generator) {
+        assertEquals(SportType.values().length, reportResult.getSportReports().size());
+        for (SportReport sportReport : reportResult.getSportReports()) {
+            assertEquals(generator.getLeaguesPerSport(), sportReport.getLeagueReports().size());
+            for (LeagueReport leagueReport : sportReport.getLeagueReports()) {
+                assertEquals(2, leagueReport.getEventReports().size());
+                assertEquals(2, leagueReport.getEventReports().get(0).getMarketReports().size());
+                assertEquals(2, leagueReport.getEventReports().get(0).getMarketReports().get(0)
+                        .getRunnerReports().size());
+            }
+        }
+    }
+
+    private static void awaitCondition(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TIMEOUT.toNanos();
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.nanoTime() < deadline, "Condition not met within " + TIMEOUT);
+            Thread.sleep(20);
+        }
+    }
+}
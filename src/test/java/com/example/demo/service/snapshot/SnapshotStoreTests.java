@@ -0,0 +1,140 @@
+package com.example.demo.service.snapshot;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SnapshotStoreTests {
+
+    private static final Duration MAX_AGE = Duration.ofMinutes(10);
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void testRoundTripAndIndexRebuiltOnReopen() throws Exception {
+        Path path = directory.resolve("snapshots.dat");
+        try (SnapshotStore store = SnapshotStore.open(path, MAX_AGE)) {
+            store.put("/sports", bytes("[{\"id\":1}]"));
+            store.put("/events?league_id=1", bytes("{\"events\":[]}"));
+            store.put("/sports", bytes("[{\"id\":2}]"));
+            assertArrayEquals(bytes("[{\"id\":2}]"), store.get("/sports").orElseThrow());
+            assertTrue(store.get("/unknown").isEmpty());
+        }
+        long size = Files.size(path);
+
+        try (SnapshotStore store = SnapshotStore.open(path, MAX_AGE)) {
+            assertEquals(2, store.size());
+            assertArrayEquals(bytes("[{\"id\":2}]"), store.get("/sports").orElseThrow());
+            assertArrayEquals(bytes("{\"events\":[]}"), store.get("/events?league_id=1").orElseThrow());
+            // An unchanged payload is not appended again
+            store.put("/sports", bytes("[{\"id\":2}]"));
+        }
+        assertEquals(size, Files.size(path));
+    }
+
+    @Test
+    void testTruncatedTailIsDroppedOnRecovery() throws Exception {
+        Path path = directory.resolve("snapshots.dat");
+        try (SnapshotStore store = SnapshotStore.open(path, MAX_AGE)) {
+            store.put("/first", bytes("first payload"));
+        }
+        long intact = Files.size(path);
+        try (SnapshotStore store = SnapshotStore.open(path, MAX_AGE)) {
+            store.put("/second", bytes("second payload"));
+        }
+        // Cut the second record in half, as a crash during the write would
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE)) {
+            channel.truncate(intact + (Files.size(path) - intact) / 2);
+        }
+
+        try (SnapshotStore store = SnapshotStore.open(path, MAX_AGE)) {
+            assertEquals(1, store.size());
+            assertArrayEquals(bytes("first payload"), store.get("/first").orElseThrow());
+            assertFalse(store.contains("/second"));
+            assertEquals(intact, Files.size(path));
+            store.put("/third", bytes("third payload"));
+        }
+        try (SnapshotStore store = SnapshotStore.open(path, MAX_AGE)) {
+            assertArrayEquals(bytes("third payload"), store.get("/third").orElseThrow());
+        }
+    }
+
+    @Test
+    void testCorruptedTailAndPayloadAreNotServed() throws Exception {
+        Path path = directory.resolve("snapshots.dat");
+        try (SnapshotStore store = SnapshotStore.open(path, MAX_AGE)) {
+            store.put("/first", bytes("first payload"));
+            store.put("/second", bytes("second payload"));
+        }
+        long intact = Files.size(path);
+        Files.write(path, new byte[64], StandardOpenOption.APPEND);
+        // Flip the last byte of the second record's compressed payload
+        byte[] content = Files.readAllBytes(path);
+        content[(int) intact - 1] ^= 0x5A;
+        Files.write(path, content);
+
+        try (SnapshotStore store = SnapshotStore.open(path, MAX_AGE)) {
+            assertEquals(intact, Files.size(path));
+            assertArrayEquals(bytes("first payload"), store.get("/first").orElseThrow());
+            assertTrue(store.get("/second").isEmpty());
+        }
+    }
+
+    @Test
+    void testCorruptedRawLengthIsAMiss() throws Exception {
+        Path path = directory.resolve("snapshots.dat");
+        try (SnapshotStore store = SnapshotStore.open(path, MAX_AGE)) {
+            store.put("/first", bytes("first payload"));
+        }
+        // The raw length follows the magic, the key length, the key and the save time
+        int rawLengthOffset = 4 + 4 + "/first".length() + 8;
+        for (int rawLength : new int[]{-1, Integer.MAX_VALUE}) {
+            byte[] content = Files.readAllBytes(path);
+            ByteBuffer.wrap(content).putInt(rawLengthOffset, rawLength);
+            Files.write(path, content);
+
+            try (SnapshotStore store = SnapshotStore.open(path, MAX_AGE)) {
+                assertTrue(store.get("/first").isEmpty());
+            }
+        }
+    }
+
+    @Test
+    void testPayloadsOlderThanTheMaxAgeAreNotServed() throws Exception {
+        Path path = directory.resolve("snapshots.dat");
+        Duration maxAge = Duration.ofMillis(200);
+        try (SnapshotStore store = SnapshotStore.open(path, maxAge)) {
+            store.put("/sports", bytes("old"));
+            assertTrue(store.get("/sports").isPresent());
+        }
+        Thread.sleep(maxAge.toMillis() + 50);
+
+        try (SnapshotStore store = SnapshotStore.open(path, maxAge)) {
+            assertFalse(store.contains("/sports"));
+            assertTrue(store.get("/sports").isEmpty());
+            // The same payload fetched again is written anew, with a fresh save time
+            store.put("/sports", bytes("old"));
+            assertArrayEquals(bytes("old"), store.get("/sports").orElseThrow());
+        }
+        try (SnapshotStore store = SnapshotStore.open(path, MAX_AGE)) {
+            assertTrue(store.get("/sports").isPresent());
+        }
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+}
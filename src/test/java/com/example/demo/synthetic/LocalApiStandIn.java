@@ -0,0 +1,162 @@
+package com.example.demo.synthetic;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Properties;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Local stand-in for the betline API serving payloads of a {@link SyntheticFeedGenerator} on loopback.
+ *
+ * <p>Serves the sports, events and event details endpoints under the same paths and query parameters as the
+ * live API. {@link #properties()} returns configuration pointing the application at the stand-in. Chosen requests
+ * can be slowed down or failed with {@link #delay} and {@link #fail}.</p>
+ */
+public class LocalApiStandIn implements AutoCloseable {
+
+    private static final String SPORTS_PATH = "/api-2/betline/sports";
+    private static final String EVENTS_PATH = "/api-2/betline/changes/all";
+    private static final String EVENT_DETAILS_PATH = "/api-2/betline/event/all";
+
+    private final SyntheticFeedGenerator generator;
+    private final HttpServer server;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final AtomicLong requests = new AtomicLong();
+    private volatile Predicate<URI> delayedRequests = uri -> false;
+    private volatile Duration responseDelay = Duration.ZERO;
+    private volatile CountDownLatch delayReleased = new CountDownLatch(1);
+    private volatile Predicate<URI> failedRequests = uri -> false;
+
+    private LocalApiStandIn(SyntheticFeedGenerator generator) throws IOException {
+        this.generator = generator;
+        this.server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.setExecutor(executor);
+        server.createContext(SPORTS_PATH, exchange -> respond(exchange, query -> generator.sportsJson()));
+        server.createContext(EVENTS_PATH, exchange -> respond(exchange,
+                query -> generator.eventsJson(Long.parseLong(parameter(query, "league_id")))));
+        server.createContext(EVENT_DETAILS_PATH, exchange -> respond(exchange,
+                query -> generator.eventDetailsJson(Long.parseLong(parameter(query, "eventId")))));
+    }
+
+    public static LocalApiStandIn start(SyntheticFeedGenerator generator) throws IOException {
+        LocalApiStandIn standIn = new LocalApiStandIn(generator);
+        standIn.server.start();
+        return standIn;
+    }
+
+    public String getBaseUrl() {
+        return "http://" + server.getAddress().getHostString() + ":" + server.getAddress().getPort();
+    }
+
+    public SyntheticFeedGenerator getGenerator() {
+        return generator;
+    }
+
+    /**
+     * @return Number of requests served so far
+     */
+    public long getRequests() {
+        return requests.get();
+    }
+
+    /**
+     * Holds back the responses to matching requests. Replaces the previous delay and releases the responses it
+     * still holds, as does closing the stand-in.
+     *
+     * @param requests Selects the delayed requests by URI, e.g. by league id
+     * @param delay    The delay before responding
+     */
+    public void delay(Predicate<URI> requests, Duration delay) {
+        CountDownLatch previous = delayReleased;
+        this.delayReleased = new CountDownLatch(1);
+        this.responseDelay = delay;
+        this.delayedRequests = requests;
+        previous.countDown();
+    }
+
+    /**
+     * Answers matching requests with {@code 500 Internal Server Error}.
+     *
+     * @param requests Selects the failed requests by URI, e.g. by event id
+     */
+    public void fail(Predicate<URI> requests) {
+        this.failedRequests = requests;
+    }
+
+    /**
+     * @return Application configuration with the API URLs pointing at this stand-in and persistence disabled
+     */
+    public Properties properties() {
+        Properties properties = new Properties();
+        properties.setProperty("spring.application.name", "demo");
+        properties.setProperty("api.url.sports", getBaseUrl() + SPORTS_PATH + "?ctag=en-US");
+        properties.setProperty("api.url.events", getBaseUrl() + EVENTS_PATH + "?ctag=en-US&league_id=%s");
+        properties.setProperty("api.url.event.details", getBaseUrl() + EVENT_DETAILS_PATH + "?ctag=en-US&eventId=%s");
+        properties.setProperty("snapshot.path", "");
+        properties.setProperty("history.path", "");
+        return properties;
+    }
+
+    @Override
+    public void close() {
+        delayReleased.countDown();
+        server.stop(0);
+        executor.close();
+    }
+
+    private void respond(HttpExchange exchange, Function<String, String> payload) throws IOException {
+        try (exchange) {
+            requests.incrementAndGet();
+            URI uri = exchange.getRequestURI();
+            CountDownLatch released = delayReleased;
+            if (delayedRequests.test(uri)) {
+                try {
+                    released.await(responseDelay.toMillis(), TimeUnit.MILLISECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+            if (failedRequests.test(uri)) {
+                exchange.sendResponseHeaders(500, -1);
+                return;
+            }
+            byte[] body;
+            try {
+                body = payload.apply(uri.getRawQuery()).getBytes(StandardCharsets.UTF_8);
+            } catch (RuntimeException e) {
+                exchange.sendResponseHeaders(400, -1);
+                return;
+            }
+            exchange.getResponseHeaders().set("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream output = exchange.getResponseBody()) {
+                output.write(body);
+            }
+        }
+    }
+
+    private static String parameter(String query, String name) {
+        for (String pair : query.split("&")) {
+            int separator = pair.indexOf('=');
+            if (separator > 0 && pair.substring(0, separator).equals(name)) {
+                return pair.substring(separator + 1);
+            }
+        }
+        throw new IllegalArgumentException("Missing query parameter " + name);
+    }
+}
@@ -0,0 +1,242 @@
+package com.example.demo.synthetic;
+
+import com.example.demo.model.SportType;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.util.SplittableRandom;
+
+/**
+ * Generates sports, events and event details payloads in the betline API's JSON schema at configurable sizes.
+ *
+ * <p>Ids are derived from positions, so every payload can be generated independently and in any order:
+ * a league id encodes its sport, an event id its league, and so on. Prices are deterministic for a given seed,
+ * runner and generation; {@link #nextGeneration()} moves every price of the previous generation by up to
+ * {@code volatility} in either direction, before rounding to cents.</p>
+ */
+public class SyntheticFeedGenerator {
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+    private static final long LEAGUE_ID_BASE = 1_000_000;
+    private static final int ID_SPACE = 10_000;
+    private static final int MAX_MARKETS = 100;
+    private static final int MAX_RUNNERS = 100;
+    private static final long KICKOFF_SPACING_MILLIS = 30 * 60 * 1000;
+    private static final String[] MARKET_NAMES = {"Winner", "Total", "Handicap", "Both teams to score", "Double chance"};
+
+    private final int leaguesPerSport;
+    private final int eventsPerLeague;
+    private final int marketsPerEvent;
+    private final int runnersPerMarket;
+    private final double volatility;
+    private final long seed;
+    private final long firstKickoff = System.currentTimeMillis() + KICKOFF_SPACING_MILLIS;
+    private volatile int generation;
+
+    /**
+     * @param leaguesPerSport  Top leagues of each {@link SportType}
+     * @param eventsPerLeague  Prematch events of each league, at most {@value #ID_SPACE}
+     * @param marketsPerEvent  Markets of each event, at most {@value #MAX_MARKETS}
+     * @param runnersPerMarket Runners of each market, at most {@value #MAX_RUNNERS}
+     * @param volatility       Largest relative price move between generations, e.g. 0.05 for 5%
+     * @param seed             Seed of the prices
+     * @throws IllegalArgumentException if a size is negative or too large for the id encoding, or the volatility
+     *                                  is not in [0, 1)
+     */
+    public SyntheticFeedGenerator(int leaguesPerSport, int eventsPerLeague, int marketsPerEvent, int runnersPerMarket,
+                                  double volatility, long seed) {
+        checkSize("leaguesPerSport", leaguesPerSport, LEAGUE_ID_BASE);
+        checkSize("eventsPerLeague", eventsPerLeague, ID_SPACE);
+        checkSize("marketsPerEvent", marketsPerEvent, MAX_MARKETS);
+        checkSize("runnersPerMarket", runnersPerMarket, MAX_RUNNERS);
+        if (!(volatility >= 0 && volatility < 1)) {
+            throw new IllegalArgumentException("volatility must be in [0, 1): " + volatility);
+        }
+        this.leaguesPerSport = leaguesPerSport;
+        this.eventsPerLeague = eventsPerLeague;
+        this.marketsPerEvent = marketsPerEvent;
+        this.runnersPerMarket = runnersPerMarket;
+        this.volatility = volatility;
+        this.seed = seed;
+    }
+
+    private static void checkSize(String name, int size, long max) {
+        if (size < 0 || size > max) {
+            throw new IllegalArgumentException(name + " must be between 0 and " + max + ": " + size);
+        }
+    }
+
+    public void nextGeneration() {
+        generation++;
+    }
+
+    public int getGeneration() {
+        return generation;
+    }
+
+    public int getLeaguesPerSport() {
+        return leaguesPerSport;
+    }
+
+    public int getEventsPerLeague() {
+        return eventsPerLeague;
+    }
+
+    public int getMarketsPerEvent() {
+        return marketsPerEvent;
+    }
+
+    public int getRunnersPerMarket() {
+        return runnersPerMarket;
+    }
+
+    public String sportsJson() {
+        return write(json -> {
+            json.writeStartArray();
+            SportType[] sportTypes = SportType.values();
+            for (int sport = 1; sport <= sportTypes.length; sport++) {
+                json.writeStartObject();
+                json.writeNumberField("id", sport);
+                json.writeStringField("name", sportTypes[sport - 1].getDisplayName());
+                json.writeNumberField("weight", sportTypes.length - sport + 1);
+                json.writeStringField("family", sportTypes[sport - 1].name());
+                json.writeArrayFieldStart("regions");
+                json.writeStartObject();
+                json.writeNumberField("id", sport);
+                json.writeStringField("name", "Region " + sport);
+                json.writeArrayFieldStart("leagues");
+                for (int league = 0; league < leaguesPerSport; league++) {
+                    json.writeStartObject();
+                    json.writeNumberField("id", leagueId(sport, league));
+                    json.writeStringField("name", sportTypes[sport - 1].getDisplayName() + " League " + league);
+                    json.writeNumberField("weight", leaguesPerSport - league);
+                    json.writeNumberField("prematch", eventsPerLeague);
+                    json.writeNumberField("inplay", 0);
+                    json.writeNumberField("outright", 0);
+                    json.writeBooleanField("top", true);
+                    json.writeNumberField("topOrder", league);
+                    json.writeEndObject();
+                }
+                json.writeEndArray();
+                json.writeEndObject();
+                json.writeEndArray();
+                json.writeEndObject();
+            }
+            json.writeEndArray();
+        });
+    }
+
+    /**
+     * @return The league's events in reverse kickoff order, so consumers have to sort them
+     */
+    public String eventsJson(long leagueId) {
+        return write(json -> {
+            json.writeStartObject();
+            json.writeArrayFieldStart("data");
+            for (int event = eventsPerLeague - 1; event >= 0; event--) {
+                long eventId = leagueId * ID_SPACE + event;
+                json.writeStartObject();
+                json.writeNumberField("id", eventId);
+                json.writeStringField("name", "Home " + eventId + " - Away " + eventId);
+                json.writeArrayFieldStart("competitors");
+                writeCompetitor(json, eventId * 2, "Home " + eventId);
+                writeCompetitor(json, eventId * 2 + 1, "Away " + eventId);
+                json.writeEndArray();
+                json.writeNumberField("kickoff", firstKickoff + event * KICKOFF_SPACING_MILLIS);
+                json.writeNumberField("lastUpdated", System.currentTimeMillis());
+                json.writeObjectFieldStart("league");
+                json.writeNumberField("id", leagueId);
+                json.writeEndObject();
+                json.writeStringField("betline", "prematch");
+                json.writeBooleanField("open", true);
+                json.writeStringField("status", "OPEN");
+                json.writeStringField("matchPhase", "PREMATCH");
+                json.writeArrayFieldStart("markets");
+                writeMarkets(json, eventId, 1);
+                json.writeEndArray();
+                json.writeEndObject();
+            }
+            json.writeEndArray();
+            json.writeEndObject();
+        });
+    }
+
+    public String eventDetailsJson(long eventId) {
+        return write(json -> {
+            json.writeStartObject();
+            json.writeNumberField("id", eventId);
+            json.writeArrayFieldStart("markets");
+            writeMarkets(json, eventId, marketsPerEvent);
+            json.writeEndArray();
+            json.writeEndObject();
+        });
+    }
+
+    /**
+     * @return The price of a runner in the current generation, replayed from the base price one move per generation
+     */
+    public double price(long runnerId) {
+        int currentGeneration = generation;
+        double price = 1.1 + new SplittableRandom(seed ^ runnerId).nextDouble() * 8;
+        for (int g = 1; g <= currentGeneration; g++) {
+            double move = new SplittableRandom(seed ^ runnerId ^ ((long) g << 40)).nextDouble(-1, 1);
+            price *= 1 + move * volatility;
+        }
+        return Math.max(1.01, Math.round(price * 100) / 100.0);
+    }
+
+    private void writeMarkets(JsonGenerator json, long eventId, int markets) throws IOException {
+        for (int market = 0; market < markets; market++) {
+            long marketId = eventId * MAX_MARKETS + market;
+            json.writeStartObject();
+            json.writeNumberField("id", marketId);
+            json.writeStringField("name", MARKET_NAMES[market % MARKET_NAMES.length]
+                    + (market < MARKET_NAMES.length ? "" : " " + market));
+            json.writeNumberField("marketTypeId", market + 1);
+            json.writeBooleanField("open", true);
+            json.writeBooleanField("primary", market == 0);
+            json.writeArrayFieldStart("runners");
+            for (int runner = 0; runner < runnersPerMarket; runner++) {
+                long runnerId = marketId * MAX_RUNNERS + runner;
+                double price = price(runnerId);
+                json.writeStartObject();
+                json.writeNumberField("id", runnerId);
+                json.writeStringField("name", "Runner " + runner);
+                json.writeBooleanField("open", true);
+                json.writeNumberField("price", price);
+                json.writeStringField("priceStr", String.valueOf(price));
+                json.writeEndObject();
+            }
+            json.writeEndArray();
+            json.writeEndObject();
+        }
+    }
+
+    private static void writeCompetitor(JsonGenerator json, long id, String name) throws IOException {
+        json.writeStartObject();
+        json.writeNumberField("id", id);
+        json.writeStringField("name", name);
+        json.writeEndObject();
+    }
+
+    private static long leagueId(int sport, int league) {
+        return sport * LEAGUE_ID_BASE + league;
+    }
+
+    private static String write(JsonWriter writer) {
+        StringWriter output = new StringWriter();
+        try (JsonGenerator json = JSON_FACTORY.createGenerator(output)) {
+            writer.write(json);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return output.toString();
+    }
+
+    private interface JsonWriter {
+        void write(JsonGenerator json) throws IOException;
+    }
+}
@@ -0,0 +1,127 @@
+package com.example.demo.synthetic;
+
+import com.example.demo.config.AppConfig;
+import com.example.demo.config.AppContext;
+import com.example.demo.model.Event;
+import com.example.demo.model.SportType;
+import com.example.demo.model.report.LeagueReport;
+import com.example.demo.model.report.ReportResult;
+import com.example.demo.model.report.SportReport;
+import com.example.demo.service.AsyncApiService;
+import com.example.demo.service.SportService;
+import com.example.demo.service.report.ReportPrintService;
+import com.example.demo.service.report.ReportService;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs the report pipeline offline against a {@link LocalApiStandIn}.
+ * The size is multiplied by the {@code synthetic.scale} system property (default 10), e.g.
+ * {@code mvn test -Dtest=SyntheticScaleTests -Dsynthetic.scale=100}.
+ */
+class SyntheticScaleTests {
+
+    private static final Logger logger = LoggerFactory.getLogger(SyntheticScaleTests.class);
+    private static final int SCALE = Integer.getInteger("synthetic.scale", 10);
+
+    @Test
+    void testReportPipelineAtScale() throws IOException {
+        SyntheticFeedGenerator generator = new SyntheticFeedGenerator(5 * SCALE, 20 * SCALE, 10, 3, 0.05, 42);
+        try (LocalApiStandIn standIn = LocalApiStandIn.start(generator);
+             AppContext appContext = AppContext.start(new AppConfig(standIn.properties()))) {
+            SportService sportService =
+                    new SportService(new AsyncApiService(appContext, null), appContext.getAppConfig());
+            ReportService reportService = new ReportService(appContext, sportService, null);
+            List<String> selectedSportNames = Arrays.stream(SportType.values())
+                    .map(SportType::getDisplayName)
+                    .toList();
+
+            long startTime = System.nanoTime();
+            ReportResult reportResult = reportService.generateReportAsync(selectedSportNames);
+            long reportMillis = (System.nanoTime() - startTime) / 1_000_000;
+
+            assertEquals(SportType.values().length, reportResult.getSportReports().size());
+            for (SportReport sportReport : reportResult.getSportReports()) {
+                assertEquals(generator.getLeaguesPerSport(), sportReport.getLeagueReports().size());
+                for (LeagueReport leagueReport : sportReport.getLeagueReports()) {
+                    assertEquals(2, leagueReport.getEventReports().size());
+                    assertEquals(10, leagueReport.getEventReports().get(0).getMarketReports().size());
+                }
+            }
+
+            startTime = System.nanoTime();
+            printSilently(reportResult);
+            long printMillis = (System.nanoTime() - startTime) / 1_000_000;
+
+            Runtime runtime = Runtime.getRuntime();
+            logger.info("Scale x{}: {} requests, report {} ms, print {} ms, heap used {} MB",
+                    SCALE, standIn.getRequests(), reportMillis, printMillis,
+                    (runtime.totalMemory() - runtime.freeMemory()) / (1024 * 1024));
+            reportService.shutdown();
+        }
+    }
+
+    @Test
+    void testTopMatchesAreSoonestPrematchEvents() throws IOException {
+        SyntheticFeedGenerator generator = new SyntheticFeedGenerator(1, 1000, 1, 2, 0.05, 7);
+        try (LocalApiStandIn standIn = LocalApiStandIn.start(generator);
+             AppContext appContext = AppContext.start(new AppConfig(standIn.properties()))) {
+            SportService sportService =
+                    new SportService(new AsyncApiService(appContext, null), appContext.getAppConfig());
+            long leagueId = sportService.getTopLeagues(SportType.FOOTBALL).get(0).getId();
+
+            List<Event> topMatches = sportService.fetchTopMatches(leagueId, 3);
+
+            assertEquals(List.of(leagueId * 10_000, leagueId * 10_000 + 1, leagueId * 10_000 + 2),
+                    topMatches.stream().map(Event::getId).toList());
+        }
+    }
+
+    @Test
+    void testPricesMoveWithinVolatilityBetweenGenerations() {
+        SyntheticFeedGenerator generator = new SyntheticFeedGenerator(1, 1, 1, 1, 0.05, 42);
+        long[] runnerIds = LongStream.range(12_000, 12_100).toArray();
+        double[] previousPrices = Arrays.stream(runnerIds).mapToDouble(generator::price).toArray();
+        for (int generation = 1; generation <= 10; generation++) {
+            generator.nextGeneration();
+            for (int i = 0; i < runnerIds.length; i++) {
+                double price = generator.price(runnerIds[i]);
+                // Rounding to cents adds up to a cent on top of the move
+                assertTrue(Math.abs(price / previousPrices[i] - 1) <= 0.05 + 0.01 / previousPrices[i],
+                        "Generation " + generation + " moved " + previousPrices[i] + " to " + price);
+                previousPrices[i] = price;
+            }
+        }
+        assertNotEquals(new SyntheticFeedGenerator(1, 1, 1, 1, 0.05, 42).price(12_000), previousPrices[0]);
+    }
+
+    @Test
+    void testRejectsSizesBeyondTheIdEncoding() {
+        assertThrows(IllegalArgumentException.class, () -> new SyntheticFeedGenerator(1, 10_001, 1, 1, 0.05, 42));
+        assertThrows(IllegalArgumentException.class, () -> new SyntheticFeedGenerator(1, 1, 101, 1, 0.05, 42));
+        assertThrows(IllegalArgumentException.class, () -> new SyntheticFeedGenerator(1, 1, 1, 101, 0.05, 42));
+    }
+
+    private static void printSilently(ReportResult reportResult) {
+        PrintStream stdout = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+        try {
+            new ReportPrintService(reportResult).printReport();
+        } finally {
+            System.setOut(stdout);
+        }
+    }
+}
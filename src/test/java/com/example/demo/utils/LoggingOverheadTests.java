@@ -0,0 +1,156 @@
+package com.example.demo.utils;
+
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.AppenderBase;
+import ch.qos.logback.core.Appender;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Measures what logging costs the calling thread: disabled levels with concatenated and parameterized messages,
+ * and enabled levels written synchronously or through the asynchronous appender of {@code logback-async.xml}.
+ *
+ * <p>The timings depend on the machine and its load, so they are only logged; the assertions cover behavior.</p>
+ */
+class LoggingOverheadTests {
+
+    private static final Logger logger = LoggerFactory.getLogger(LoggingOverheadTests.class);
+    private static final int DISABLED_CALLS = 2_000_000;
+    private static final Duration SLOW_APPEND = Duration.ofMillis(1);
+
+    @Test
+    void testDisabledLevelWithParameterizedMessages() {
+        ch.qos.logback.classic.Logger benchmarkLogger = benchmarkLogger("benchmark.disabled", Level.INFO);
+        long sportId = System.nanoTime();
+        // Warm up both variants before measuring
+        for (int i = 0; i < DISABLED_CALLS; i++) {
+            benchmarkLogger.debug("Processing report for: " + (sportId + i));
+            benchmarkLogger.debug("Processing report for: {}", sportId + i);
+        }
+
+        long startTime = System.nanoTime();
+        for (int i = 0; i < DISABLED_CALLS; i++) {
+            benchmarkLogger.debug("Processing report for: " + (sportId + i));
+        }
+        long concatenatedNanos = System.nanoTime() - startTime;
+
+        startTime = System.nanoTime();
+        for (int i = 0; i < DISABLED_CALLS; i++) {
+            benchmarkLogger.debug("Processing report for: {}", sportId + i);
+        }
+        long parameterizedNanos = System.nanoTime() - startTime;
+
+        startTime = System.nanoTime();
+        for (int i = 0; i < DISABLED_CALLS; i++) {
+            if (benchmarkLogger.isDebugEnabled()) {
+                benchmarkLogger.atDebug().addKeyValue("sportId", sportId + i).log("Processing report");
+            }
+        }
+        long guardedNanos = System.nanoTime() - startTime;
+
+        logger.info("Disabled DEBUG call: concatenated {} ns, parameterized {} ns, guarded key-values {} ns",
+                String.format("%.1f", (double) concatenatedNanos / DISABLED_CALLS),
+                String.format("%.1f", (double) parameterizedNanos / DISABLED_CALLS),
+                String.format("%.1f", (double) guardedNanos / DISABLED_CALLS));
+    }
+
+    @Test
+    void testAsyncAppenderKeepsCallersOffASlowAppender() {
+        int syncCalls = 200;
+        int asyncCalls = 20_000;
+
+        SlowAppender syncTarget = start(new SlowAppender());
+        ch.qos.logback.classic.Logger syncLogger = benchmarkLogger("benchmark.sync", Level.DEBUG);
+        syncLogger.addAppender(syncTarget);
+        long syncNanos;
+        try {
+            syncNanos = logRequests(syncLogger, syncCalls);
+        } finally {
+            syncLogger.detachAndStopAllAppenders();
+        }
+
+        SlowAppender asyncTarget = start(new SlowAppender());
+        AsyncAppender asyncAppender = new AsyncAppender();
+        // The context must be set before attaching, which is what reports a missing one
+        asyncAppender.setContext((LoggerContext) LoggerFactory.getILoggerFactory());
+        asyncAppender.setQueueSize(1024);
+        asyncAppender.setNeverBlock(true);
+        asyncAppender.addAppender(asyncTarget);
+        start(asyncAppender);
+        ch.qos.logback.classic.Logger asyncLogger = benchmarkLogger("benchmark.async", Level.DEBUG);
+        asyncLogger.addAppender(asyncAppender);
+        long asyncNanos;
+        int written;
+        try {
+            asyncNanos = logRequests(asyncLogger, asyncCalls);
+            written = asyncTarget.appended.get();
+        } finally {
+            asyncLogger.detachAndStopAllAppenders();
+        }
+
+        long syncNanosPerCall = syncNanos / syncCalls;
+        long asyncNanosPerCall = asyncNanos / asyncCalls;
+        logger.info("Enabled call with a {} ms appender: synchronous {} us, asynchronous {} us; "
+                        + "{} of {} asynchronous events written while logging, the rest queued or dropped",
+                SLOW_APPEND.toMillis(), syncNanosPerCall / 1000, asyncNanosPerCall / 1000, written, asyncCalls);
+        // The synchronous caller waits for every append
+        assertTrue(syncNanosPerCall >= SLOW_APPEND.toNanos());
+        // The asynchronous caller does not: a full queue drops events instead of blocking
+        assertTrue(written < asyncCalls);
+    }
+
+    private static long logRequests(org.slf4j.Logger requestLogger, int calls) {
+        long startTime = System.nanoTime();
+        for (int i = 0; i < calls; i++) {
+            requestLogger.atDebug()
+                    .addKeyValue("endpoint", "/api-2/betline/event/all")
+                    .addKeyValue("eventId", 1_000_000L + i)
+                    .addKeyValue("status", 200)
+                    .addKeyValue("latencyMs", i % 100)
+                    .log("API request completed");
+        }
+        return System.nanoTime() - startTime;
+    }
+
+    private static ch.qos.logback.classic.Logger benchmarkLogger(String name, Level level) {
+        LoggerContext context = (LoggerContext) LoggerFactory.getILoggerFactory();
+        ch.qos.logback.classic.Logger benchmarkLogger = context.getLogger(name);
+        benchmarkLogger.setLevel(level);
+        benchmarkLogger.setAdditive(false);
+        return benchmarkLogger;
+    }
+
+    private static <A extends Appender<ILoggingEvent>> A start(A appender) {
+        appender.setContext((LoggerContext) LoggerFactory.getILoggerFactory());
+        appender.start();
+        return appender;
+    }
+
+    /**
+     * Appender taking {@link #SLOW_APPEND} per event, like a console or disk that cannot keep up.
+     */
+    private static final class SlowAppender extends AppenderBase<ILoggingEvent> {
+        private final AtomicInteger appended = new AtomicInteger();
+
+        @Override
+        protected void append(ILoggingEvent event) {
+            event.getFormattedMessage();
+            event.getKeyValuePairs();
+            long deadline = System.nanoTime() + SLOW_APPEND.toNanos();
+            while (System.nanoTime() < deadline) {
+                LockSupport.parkNanos(deadline - System.nanoTime());
+            }
+            appended.incrementAndGet();
+        }
+    }
+}